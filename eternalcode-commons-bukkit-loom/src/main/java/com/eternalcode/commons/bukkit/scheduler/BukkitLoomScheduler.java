@@ -1,12 +1,33 @@
 package com.eternalcode.commons.bukkit.scheduler;
 
+import com.eternalcode.commons.scheduler.loom.BatchLoader;
+import com.eternalcode.commons.scheduler.loom.BatchPolicy;
+import com.eternalcode.commons.scheduler.loom.Bulkhead;
+import com.eternalcode.commons.scheduler.loom.DispatchPriority;
+import com.eternalcode.commons.scheduler.loom.DispatchQueue;
+import com.eternalcode.commons.scheduler.loom.KeyedSerialExecutor;
 import com.eternalcode.commons.scheduler.loom.LoomFuture;
+import com.eternalcode.commons.scheduler.loom.LoomMetrics;
 import com.eternalcode.commons.scheduler.loom.LoomScheduler;
 import com.eternalcode.commons.scheduler.loom.LoomSchedulerImpl;
+import com.eternalcode.commons.scheduler.loom.LoomScope;
 import com.eternalcode.commons.scheduler.loom.LoomTask;
+import com.eternalcode.commons.scheduler.loom.LoomTimer;
+import com.eternalcode.commons.scheduler.loom.RateLimiter;
+import com.eternalcode.commons.scheduler.loom.RetryPolicy;
+import com.eternalcode.commons.scheduler.loom.SharedLoomRuntime;
+import com.eternalcode.commons.scheduler.loom.ShutdownPlan;
+import com.eternalcode.commons.scheduler.loom.ShutdownReport;
+import com.eternalcode.commons.scheduler.loom.TimerPolicy;
+import com.eternalcode.commons.scheduler.loom.VirtualThreadExecutor;
+import com.eternalcode.commons.scheduler.loom.WriteBehindBatcher;
+import com.eternalcode.commons.scheduler.loom.WriteBehindPolicy;
 import org.bukkit.plugin.Plugin;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -22,17 +43,76 @@ public final class BukkitLoomScheduler implements LoomScheduler {
     private final LoomSchedulerImpl delegate;
     private final Plugin plugin;
 
-    private BukkitLoomScheduler(Plugin plugin, BukkitMainThreadDispatcher dispatcher) {
+    private BukkitLoomScheduler(
+        Plugin plugin, BukkitMainThreadDispatcher dispatcher,
+        VirtualThreadExecutor vtExecutor, LoomMetrics metrics) {
         this.plugin = plugin;
         this.dispatcher = dispatcher;
-        this.delegate = new LoomSchedulerImpl(dispatcher);
+        this.dispatcher.setMetrics(metrics);
+        this.delegate = new LoomSchedulerImpl(dispatcher, vtExecutor, metrics);
     }
 
     public static BukkitLoomScheduler create(Plugin plugin) {
+        return create(plugin, DispatchQueue.UNLIMITED_BUDGET);
+    }
+
+    /**
+     * @param tickBudget max time per tick spent on queued sync tasks, the rest carries over
+     */
+    public static BukkitLoomScheduler create(Plugin plugin, Duration tickBudget) {
+        return create(plugin, tickBudget, LoomMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics receives task timings, tick queue age and timer lag, e.g. a {@link com.eternalcode.commons.scheduler.loom.LoomMetricsRecorder}
+     */
+    public static BukkitLoomScheduler create(Plugin plugin, Duration tickBudget, LoomMetrics metrics) {
+        return create(plugin, tickBudget, DispatchQueue.DEFAULT_LANE_CAPACITY, DispatchQueue.OverflowPolicy.SPILL, metrics);
+    }
+
+    /**
+     * @param laneCapacity   tasks each priority lane of the sync queue holds before the overflow policy applies
+     * @param overflowPolicy what a sync submit does when its lane is full
+     */
+    public static BukkitLoomScheduler create(
+        Plugin plugin, Duration tickBudget,
+        int laneCapacity, DispatchQueue.OverflowPolicy overflowPolicy, LoomMetrics metrics) {
+        checkMainThread(plugin);
+        VirtualThreadExecutor vtExecutor = new VirtualThreadExecutor(VirtualThreadExecutor.DEFAULT_TICK_RESOLUTION, metrics);
+        BukkitMainThreadDispatcher dispatcher = new BukkitMainThreadDispatcher(plugin, tickBudget, laneCapacity, overflowPolicy);
+        return new BukkitLoomScheduler(plugin, dispatcher, vtExecutor, metrics);
+    }
+
+    /**
+     * Like {@link #create(Plugin)}, but delays and timers run on the JVM-wide {@link SharedLoomRuntime}
+     * timer instead of a timer thread of its own. {@link #shutdown(Duration)} still cancels only this plugin's tasks.
+     * The timer thread is shared through the {@code ServicesManager}, so plugins that shade their own
+     * copy of loom share it too.
+     */
+    public static BukkitLoomScheduler createShared(Plugin plugin) {
+        return createShared(plugin, DispatchQueue.UNLIMITED_BUDGET, LoomMetrics.NOOP);
+    }
+
+    public static BukkitLoomScheduler createShared(Plugin plugin, Duration tickBudget, LoomMetrics metrics) {
+        return createShared(plugin, tickBudget, DispatchQueue.DEFAULT_LANE_CAPACITY, DispatchQueue.OverflowPolicy.SPILL, metrics);
+    }
+
+    /**
+     * Like {@link #create(Plugin, Duration, int, DispatchQueue.OverflowPolicy, LoomMetrics)}, on the shared runtime.
+     */
+    public static BukkitLoomScheduler createShared(
+        Plugin plugin, Duration tickBudget,
+        int laneCapacity, DispatchQueue.OverflowPolicy overflowPolicy, LoomMetrics metrics) {
+        checkMainThread(plugin);
+        VirtualThreadExecutor vtExecutor = SharedLoomRuntime.acquire(metrics, SharedTimerService.acquire(plugin));
+        BukkitMainThreadDispatcher dispatcher = new BukkitMainThreadDispatcher(plugin, tickBudget, laneCapacity, overflowPolicy);
+        return new BukkitLoomScheduler(plugin, dispatcher, vtExecutor, metrics);
+    }
+
+    private static void checkMainThread(Plugin plugin) {
         if (!plugin.getServer().isPrimaryThread()) {
             throw new IllegalStateException("BukkitLoomScheduler must be created on main thread");
         }
-        return new BukkitLoomScheduler(plugin, new BukkitMainThreadDispatcher(plugin));
     }
 
     @Override
@@ -40,16 +120,71 @@ public final class BukkitLoomScheduler implements LoomScheduler {
         return this.delegate.runAsync(task);
     }
 
+    @Override
+    public <K> KeyedSerialExecutor<K> newKeyedSerialExecutor(String name) {
+        return this.delegate.newKeyedSerialExecutor(name);
+    }
+
+    @Override
+    public <T> WriteBehindBatcher<T> newWriteBehindBatcher(String name, WriteBehindPolicy policy, Consumer<List<T>> sink) {
+        return this.delegate.newWriteBehindBatcher(name, policy, sink);
+    }
+
+    @Override
+    public <K, V> BatchLoader<K, V> newBatchLoader(BatchPolicy policy, Function<Set<K>, ? extends Map<K, V>> batchFunction) {
+        return this.delegate.newBatchLoader(policy, batchFunction);
+    }
+
+    @Override
+    public <T> LoomFuture<T> retryAsync(Callable<T> callable, RetryPolicy policy) {
+        return this.delegate.retryAsync(callable, policy);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        this.delegate.execute(task);
+    }
+
     @Override
     public <T> LoomFuture<T> supplyAsync(Supplier<T> supplier) {
         return this.delegate.supplyAsync(supplier);
     }
 
+    @Override
+    public <T> LoomFuture<T> computeAsync(Supplier<T> supplier) {
+        return this.delegate.computeAsync(supplier);
+    }
+
     @Override
     public <T> LoomFuture<T> callAsync(Callable<T> callable) {
         return this.delegate.callAsync(callable);
     }
 
+    @Override
+    public Bulkhead registerBulkhead(Bulkhead bulkhead) {
+        return this.delegate.registerBulkhead(bulkhead);
+    }
+
+    @Override
+    public Bulkhead getBulkhead(String name) {
+        return this.delegate.getBulkhead(name);
+    }
+
+    @Override
+    public LoomTask runAsync(String bulkhead, Runnable task) {
+        return this.delegate.runAsync(bulkhead, task);
+    }
+
+    @Override
+    public <T> LoomFuture<T> supplyAsync(String bulkhead, Supplier<T> supplier) {
+        return this.delegate.supplyAsync(bulkhead, supplier);
+    }
+
+    @Override
+    public <T> LoomFuture<T> callAsync(String bulkhead, Callable<T> callable) {
+        return this.delegate.callAsync(bulkhead, callable);
+    }
+
     @Override
     public LoomTask runAsyncLater(Runnable task, Duration delay) {
         return this.delegate.runAsyncLater(task, delay);
@@ -60,16 +195,46 @@ public final class BukkitLoomScheduler implements LoomScheduler {
         return this.delegate.runAsyncTimer(task, delay, period);
     }
 
+    @Override
+    public LoomTimer runAsyncTimer(Runnable task, Duration delay, Duration period, TimerPolicy policy) {
+        return this.delegate.runAsyncTimer(task, delay, period, policy);
+    }
+
     @Override
     public LoomTask runSync(Runnable task) {
         return this.delegate.runSync(task);
     }
 
+    @Override
+    public LoomTask runSync(Runnable task, DispatchPriority priority) {
+        return this.delegate.runSync(task, priority);
+    }
+
+    @Override
+    public void executeSync(Runnable task) {
+        this.delegate.executeSync(task);
+    }
+
+    @Override
+    public void executeSync(Runnable task, DispatchPriority priority) {
+        this.delegate.executeSync(task, priority);
+    }
+
+    @Override
+    public LoomTask runSyncCoalesced(Object key, Runnable task) {
+        return this.delegate.runSyncCoalesced(key, task);
+    }
+
     @Override
     public <T> LoomFuture<T> supplySync(Supplier<T> supplier) {
         return this.delegate.supplySync(supplier);
     }
 
+    @Override
+    public <T> LoomFuture<T> supplySync(Supplier<T> supplier, DispatchPriority priority) {
+        return this.delegate.supplySync(supplier, priority);
+    }
+
     @Override
     public LoomTask runSyncLater(Runnable task, Duration delay) {
         return this.delegate.runSyncLater(task, delay);
@@ -80,6 +245,11 @@ public final class BukkitLoomScheduler implements LoomScheduler {
         return this.delegate.runSyncTimer(task, delay, period);
     }
 
+    @Override
+    public LoomTimer runSyncTimer(Runnable task, Duration delay, Duration period, TimerPolicy policy) {
+        return this.delegate.runSyncTimer(task, delay, period, policy);
+    }
+
     @Override
     public <T> LoomTask runAsyncThenSync(Supplier<T> asyncSupplier, Consumer<T> syncConsumer) {
         return this.delegate.runAsyncThenSync(asyncSupplier, syncConsumer);
@@ -91,11 +261,51 @@ public final class BukkitLoomScheduler implements LoomScheduler {
         return this.delegate.runAsyncThenSync(asyncSupplier, transformer, syncConsumer);
     }
 
+    @Override
+    public <T> LoomFuture<T> supplyScoped(LoomScope.Policy policy, Duration deadline, LoomScope.Body<T> body) {
+        return this.delegate.supplyScoped(policy, deadline, body);
+    }
+
+    @Override
+    public <T> LoomFuture<T> supplyScoped(LoomScope.Policy policy, LoomScope.Body<T> body) {
+        return this.delegate.supplyScoped(policy, body);
+    }
+
     @Override
     public LoomFuture<Void> delay(Duration duration) {
         return this.delegate.delay(duration);
     }
 
+    @Override
+    public void debounceAsync(Object key, Duration delay, Runnable task) {
+        this.delegate.debounceAsync(key, delay, task);
+    }
+
+    @Override
+    public void debounceSync(Object key, Duration delay, Runnable task) {
+        this.delegate.debounceSync(key, delay, task);
+    }
+
+    @Override
+    public boolean throttleAsync(Object key, Duration period, Runnable task) {
+        return this.delegate.throttleAsync(key, period, task);
+    }
+
+    @Override
+    public boolean throttleSync(Object key, Duration period, Runnable task) {
+        return this.delegate.throttleSync(key, period, task);
+    }
+
+    @Override
+    public LoomFuture<Void> acquire(RateLimiter limiter, int permits) {
+        return this.delegate.acquire(limiter, permits);
+    }
+
+    @Override
+    public LoomFuture<Void> acquire(RateLimiter limiter) {
+        return this.delegate.acquire(limiter);
+    }
+
     @Override
     public boolean isMainThread() {
         return this.dispatcher.isMainThread();
@@ -107,6 +317,12 @@ public final class BukkitLoomScheduler implements LoomScheduler {
         return this.delegate.shutdown(timeout);
     }
 
+    @Override
+    public ShutdownReport shutdown(ShutdownPlan plan) {
+        this.dispatcher.shutdown();
+        return this.delegate.shutdown(plan);
+    }
+
     @Override
     public void shutdownNow() {
         this.dispatcher.shutdown();
@@ -120,4 +336,8 @@ public final class BukkitLoomScheduler implements LoomScheduler {
     public int getPendingSyncTasks() {
         return this.dispatcher.getPendingCount();
     }
+
+    public BukkitMainThreadDispatcher getDispatcher() {
+        return this.dispatcher;
+    }
 }
@@ -1,52 +1,74 @@
 package com.eternalcode.commons.bukkit.scheduler;
 
+import com.eternalcode.commons.scheduler.loom.DispatchPriority;
+import com.eternalcode.commons.scheduler.loom.DispatchQueue;
+import com.eternalcode.commons.scheduler.loom.LoomMetrics;
 import com.eternalcode.commons.scheduler.loom.MainThreadDispatcher;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitScheduler;
 import org.bukkit.scheduler.BukkitTask;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.time.Duration;
 
 /**
  * Bukkit implementation - queues tasks from VT to main thread.
+ * <p>
+ * The queue is drained once per tick within an optional time budget.
+ * Tasks left over when the budget runs out carry over to the next tick.
+ * Critical tasks drain before normal and background ones.
  */
 public final class BukkitMainThreadDispatcher implements MainThreadDispatcher {
 
-    private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final DispatchQueue queue;
     private final Plugin plugin;
     private final BukkitScheduler bukkitScheduler;
     private final BukkitTask tickTask;
 
     public BukkitMainThreadDispatcher(Plugin plugin) {
+        this(plugin, DispatchQueue.UNLIMITED_BUDGET);
+    }
+
+    public BukkitMainThreadDispatcher(Plugin plugin, Duration tickBudget) {
+        this(plugin, tickBudget, DispatchQueue.DEFAULT_LANE_CAPACITY, DispatchQueue.OverflowPolicy.SPILL);
+    }
+
+    public BukkitMainThreadDispatcher(Plugin plugin, Duration tickBudget, int laneCapacity, DispatchQueue.OverflowPolicy overflowPolicy) {
         this.plugin = plugin;
         this.bukkitScheduler = plugin.getServer().getScheduler();
+        this.queue = new DispatchQueue(tickBudget, laneCapacity, overflowPolicy, this::logError);
         this.tickTask = this.bukkitScheduler.runTaskTimer(this.plugin, this::drainQueue, 1L, 1L);
     }
 
     private void drainQueue() {
-        Runnable task;
-        while ((task = this.queue.poll()) != null) {
-            try {
-                task.run();
-            } catch (Throwable t) {
-                this.plugin.getLogger().severe("Exception in sync task: " + t.getMessage());
-                t.printStackTrace();
-            }
-        }
+        this.queue.drain();
+    }
+
+    private void logError(Throwable t) {
+        this.plugin.getLogger().severe("Exception in sync task: " + t.getMessage());
+        t.printStackTrace();
     }
 
     @Override
     public void dispatch(Runnable task) {
+        dispatch(task, DispatchPriority.NORMAL);
+    }
+
+    @Override
+    public void dispatch(Runnable task, DispatchPriority priority) {
         if (isMainThread()) {
             try {
                 task.run();
             } catch (Throwable t) {
-                this.plugin.getLogger().severe("Exception in sync task: " + t.getMessage());
-                t.printStackTrace();
+                this.logError(t);
             }
             return;
         }
-        this.queue.offer(task);
+        this.queue.offer(task, priority);
+    }
+
+    @Override
+    public void dispatchCoalesced(Object key, Runnable task) {
+        this.queue.offerCoalesced(key, task);
     }
 
     @Override
@@ -54,6 +76,11 @@ public final class BukkitMainThreadDispatcher implements MainThreadDispatcher {
         return this.plugin.getServer().isPrimaryThread();
     }
 
+    @Override
+    public boolean supportsTickScheduling() {
+        return true;
+    }
+
     @Override
     public void dispatchLater(Runnable task, long ticks) {
         this.bukkitScheduler.runTaskLater(this.plugin, task, ticks);
@@ -67,17 +94,52 @@ public final class BukkitMainThreadDispatcher implements MainThreadDispatcher {
 
     public void shutdown() {
         this.tickTask.cancel();
-        Runnable task;
-        while ((task = this.queue.poll()) != null) {
-            try {
-                task.run();
-            } catch (Throwable t) {
-                this.plugin.getLogger().severe("Exception in shutdown task: " + t.getMessage());
-            }
-        }
+        this.queue.drainAll();
+    }
+
+    /**
+     * Limits how long one tick may spend on queued sync tasks.
+     */
+    public void setTickBudget(Duration tickBudget) {
+        this.queue.setTickBudget(tickBudget);
+    }
+
+    public Duration getTickBudget() {
+        return this.queue.getTickBudget();
+    }
+
+    /**
+     * Reports the queue age and task count of every tick drain.
+     */
+    public void setMetrics(LoomMetrics metrics) {
+        this.queue.setMetrics(metrics);
     }
 
     public int getPendingCount() {
-        return this.queue.size();
+        return this.queue.getPendingCount();
+    }
+
+    public long getOverrunTicks() {
+        return this.queue.getOverrunTicks();
+    }
+
+    public long getCarriedOverTasks() {
+        return this.queue.getCarriedOverTasks();
+    }
+
+    public long getSupersededTasks() {
+        return this.queue.getSupersededTasks();
+    }
+
+    public long getSpilledTasks() {
+        return this.queue.getSpilledTasks();
+    }
+
+    public Duration getLastQueueAge() {
+        return this.queue.getLastQueueAge();
+    }
+
+    public Duration getMaxQueueAge() {
+        return this.queue.getMaxQueueAge();
     }
 }
@@ -49,9 +49,23 @@ public final class FoliaEntityDispatcher implements MainThreadDispatcher {
         return this.plugin.getServer().isOwnedByCurrentRegion(this.entity);
     }
 
+    @Override
+    public boolean supportsTickScheduling() {
+        return true;
+    }
+
     @Override
     public void dispatchLater(Runnable task, long ticks) {
-        this.entityScheduler.runDelayed(this.plugin, t -> task.run(), null, ticks);
+        this.dispatchLater(task, null, ticks);
+    }
+
+    @Override
+    public void dispatchLater(Runnable task, Runnable retired, long ticks) {
+        ScheduledTask st = this.entityScheduler.runDelayed(this.plugin, t -> task.run(), retired, ticks);
+        if (st == null && retired != null) {
+            // entity already removed, Folia never calls retired for a task it did not take
+            retired.run();
+        }
     }
 
     @Override
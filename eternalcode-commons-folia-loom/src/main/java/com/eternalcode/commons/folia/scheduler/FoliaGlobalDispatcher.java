@@ -1,44 +1,66 @@
 package com.eternalcode.commons.folia.scheduler;
 
+import com.eternalcode.commons.scheduler.loom.DispatchPriority;
+import com.eternalcode.commons.scheduler.loom.DispatchQueue;
+import com.eternalcode.commons.scheduler.loom.LoomMetrics;
 import com.eternalcode.commons.scheduler.loom.MainThreadDispatcher;
 import io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import org.bukkit.plugin.Plugin;
 
 /**
  * Folia GlobalRegionScheduler-based dispatcher.
  * For plugin-wide operations, broadcasts, etc.
+ * <p>
+ * Critical tasks drain before normal and background ones.
  */
 public final class FoliaGlobalDispatcher implements MainThreadDispatcher {
 
-    private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final DispatchQueue queue;
     private final Plugin plugin;
     private final GlobalRegionScheduler globalScheduler;
     private final ScheduledTask tickTask;
 
     public FoliaGlobalDispatcher(Plugin plugin) {
+        this(plugin, DispatchQueue.DEFAULT_LANE_CAPACITY, DispatchQueue.OverflowPolicy.SPILL);
+    }
+
+    public FoliaGlobalDispatcher(Plugin plugin, int laneCapacity, DispatchQueue.OverflowPolicy overflowPolicy) {
         this.plugin = plugin;
+        this.queue = new DispatchQueue(DispatchQueue.UNLIMITED_BUDGET, laneCapacity, overflowPolicy, this::logError);
         this.globalScheduler = plugin.getServer().getGlobalRegionScheduler();
         this.tickTask = this.globalScheduler.runAtFixedRate(this.plugin, t -> drainQueue(), 1L, 1L);
     }
 
     private void drainQueue() {
-        Runnable task;
-        while ((task = this.queue.poll()) != null) {
-            try {
-                task.run();
-            }
-            catch (Throwable t) {
-                this.plugin.getLogger().severe("Exception in global task: " + t.getMessage());
-                t.printStackTrace();
-            }
-        }
+        this.queue.drain();
+    }
+
+    private void logError(Throwable t) {
+        this.plugin.getLogger().severe("Exception in global task: " + t.getMessage());
+        t.printStackTrace();
+    }
+
+    /**
+     * Reports the queue age and task count of every global tick drain.
+     */
+    public void setMetrics(LoomMetrics metrics) {
+        this.queue.setMetrics(metrics);
     }
 
     @Override
     public void dispatch(Runnable task) {
-        this.queue.offer(task);
+        dispatch(task, DispatchPriority.NORMAL);
+    }
+
+    @Override
+    public void dispatch(Runnable task, DispatchPriority priority) {
+        this.queue.offer(task, priority);
+    }
+
+    @Override
+    public void dispatchCoalesced(Object key, Runnable task) {
+        this.queue.offerCoalesced(key, task);
     }
 
     @Override
@@ -46,6 +68,11 @@ public final class FoliaGlobalDispatcher implements MainThreadDispatcher {
         return this.plugin.getServer().isGlobalTickThread();
     }
 
+    @Override
+    public boolean supportsTickScheduling() {
+        return true;
+    }
+
     @Override
     public void dispatchLater(Runnable task, long ticks) {
         this.globalScheduler.runDelayed(this.plugin, t -> task.run(), ticks);
@@ -59,15 +86,6 @@ public final class FoliaGlobalDispatcher implements MainThreadDispatcher {
 
     public void shutdown() {
         this.tickTask.cancel();
-        Runnable task;
-        while ((task = this.queue.poll()) != null) {
-            try {
-                task.run();
-            }
-            catch (Throwable t) {
-                this.plugin.getLogger().severe("Exception in global shutdown task: " + t.getMessage());
-                t.printStackTrace();
-            }
-        }
+        this.queue.drainAll();
     }
 }
@@ -1,7 +1,11 @@
 package com.eternalcode.commons.folia.scheduler;
 
+import com.eternalcode.commons.scheduler.loom.LoomMetrics;
 import com.eternalcode.commons.scheduler.loom.LoomScheduler;
 import com.eternalcode.commons.scheduler.loom.LoomSchedulerImpl;
+import com.eternalcode.commons.scheduler.loom.SharedLoomRuntime;
+import com.eternalcode.commons.scheduler.loom.ShutdownPlan;
+import com.eternalcode.commons.scheduler.loom.ShutdownReport;
 import com.eternalcode.commons.scheduler.loom.VirtualThreadExecutor;
 import java.time.Duration;
 import org.bukkit.Location;
@@ -21,16 +25,39 @@ public final class FoliaLoomScheduler {
     private final VirtualThreadExecutor vtExecutor;
     private final FoliaGlobalDispatcher globalDispatcher;
     private final LoomSchedulerImpl globalScheduler;
+    private final LoomMetrics metrics;
 
-    private FoliaLoomScheduler(Plugin plugin) {
+    private FoliaLoomScheduler(Plugin plugin, VirtualThreadExecutor vtExecutor, LoomMetrics metrics) {
         this.plugin = plugin;
-        this.vtExecutor = new VirtualThreadExecutor();
+        this.metrics = metrics;
+        this.vtExecutor = vtExecutor;
         this.globalDispatcher = new FoliaGlobalDispatcher(plugin);
-        this.globalScheduler = new LoomSchedulerImpl(this.globalDispatcher, this.vtExecutor);
+        this.globalDispatcher.setMetrics(metrics);
+        this.globalScheduler = new LoomSchedulerImpl(this.globalDispatcher, this.vtExecutor, metrics);
     }
 
     public static FoliaLoomScheduler create(Plugin plugin) {
-        return new FoliaLoomScheduler(plugin);
+        return create(plugin, LoomMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics shared by the global, entity and region schedulers
+     */
+    public static FoliaLoomScheduler create(Plugin plugin, LoomMetrics metrics) {
+        return new FoliaLoomScheduler(plugin, new VirtualThreadExecutor(VirtualThreadExecutor.DEFAULT_TICK_RESOLUTION, metrics), metrics);
+    }
+
+    /**
+     * Like {@link #create(Plugin)}, but delays and timers run on the JVM-wide {@link SharedLoomRuntime}
+     * timer. {@link #shutdown(Duration)} still cancels only this plugin's tasks. The timer thread is
+     * shared through the {@code ServicesManager}, so plugins that shade their own copy of loom share it too.
+     */
+    public static FoliaLoomScheduler createShared(Plugin plugin) {
+        return createShared(plugin, LoomMetrics.NOOP);
+    }
+
+    public static FoliaLoomScheduler createShared(Plugin plugin, LoomMetrics metrics) {
+        return new FoliaLoomScheduler(plugin, SharedLoomRuntime.acquire(metrics, SharedTimerService.acquire(plugin)), metrics);
     }
 
     /**
@@ -48,7 +75,7 @@ public final class FoliaLoomScheduler {
      * Note: creates new dispatcher per call. For hot paths, cache the scheduler.
      */
     public LoomScheduler forEntity(Entity entity) {
-        return new LoomSchedulerImpl(new FoliaEntityDispatcher(this.plugin, entity), this.vtExecutor);
+        return new LoomSchedulerImpl(new FoliaEntityDispatcher(this.plugin, entity), this.vtExecutor, this.metrics);
     }
 
     /**
@@ -56,27 +83,36 @@ public final class FoliaLoomScheduler {
      * Use for: block get/set, entity spawning at location.
      */
     public LoomScheduler forLocation(Location location) {
-        return new LoomSchedulerImpl(new FoliaRegionDispatcher(this.plugin, location), this.vtExecutor);
+        return new LoomSchedulerImpl(new FoliaRegionDispatcher(this.plugin, location), this.vtExecutor, this.metrics);
     }
 
     /**
      * Chunk context - sync tasks run on chunk's region thread.
      */
     public LoomScheduler forChunk(World world, int chunkX, int chunkZ) {
-        return new LoomSchedulerImpl(new FoliaRegionDispatcher(this.plugin, world, chunkX, chunkZ), this.vtExecutor);
+        return new LoomSchedulerImpl(new FoliaRegionDispatcher(this.plugin, world, chunkX, chunkZ), this.vtExecutor, this.metrics);
     }
 
     public Plugin getPlugin() {
         return this.plugin;
     }
 
+    /**
+     * Shuts down the global scheduler and the shared executor, which also stops the entity and
+     * region schedulers and cancels their native tick timers.
+     */
     public boolean shutdown(Duration timeout) {
         this.globalDispatcher.shutdown();
-        return this.vtExecutor.shutdown(timeout);
+        return this.globalScheduler.shutdown(timeout);
+    }
+
+    public ShutdownReport shutdown(ShutdownPlan plan) {
+        this.globalDispatcher.shutdown();
+        return this.globalScheduler.shutdown(plan);
     }
 
     public void shutdownNow() {
         this.globalDispatcher.shutdown();
-        this.vtExecutor.shutdownNow();
+        this.globalScheduler.shutdownNow();
     }
 }
@@ -52,6 +52,11 @@ public final class FoliaRegionDispatcher implements MainThreadDispatcher {
         return this.plugin.getServer().isOwnedByCurrentRegion(this.world, this.chunkX, this.chunkZ);
     }
 
+    @Override
+    public boolean supportsTickScheduling() {
+        return true;
+    }
+
     @Override
     public void dispatchLater(Runnable task, long ticks) {
         this.regionScheduler.runDelayed(this.plugin, this.world, this.chunkX, this.chunkZ, t -> task.run(), ticks);
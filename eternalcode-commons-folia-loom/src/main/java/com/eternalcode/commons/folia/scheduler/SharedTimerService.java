@@ -0,0 +1,71 @@
+package com.eternalcode.commons.folia.scheduler;
+
+import com.eternalcode.commons.scheduler.loom.SharedLoomRuntime;
+import java.util.concurrent.ScheduledExecutorService;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.ServiceUnregisterEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.ServicesManager;
+
+/**
+ * Timer thread published in the {@code ServicesManager} by the first loom copy that needed one,
+ * found there by every other copy, including ones shaded and relocated into other plugins.
+ * <p>
+ * Bukkit drops the registration when the plugin that made it disables, while other plugins still
+ * tick on the thread. Every plugin using it listens for that and registers the thread again under
+ * itself, so schedulers created later keep finding it instead of starting a second one.
+ */
+final class SharedTimerService implements Listener {
+
+    private final Plugin plugin;
+    private final ScheduledExecutorService timerThread;
+
+    private SharedTimerService(Plugin plugin, ScheduledExecutorService timerThread) {
+        this.plugin = plugin;
+        this.timerThread = timerThread;
+    }
+
+    static ScheduledExecutorService acquire(Plugin plugin) {
+        ServicesManager services = plugin.getServer().getServicesManager();
+        ScheduledExecutorService timerThread = find(services);
+        if (timerThread == null) {
+            timerThread = SharedLoomRuntime.newTimerThread();
+            services.register(ScheduledExecutorService.class, timerThread, plugin, ServicePriority.Lowest);
+        }
+
+        for (RegisteredListener listener : HandlerList.getRegisteredListeners(plugin)) {
+            if (listener.getListener() instanceof SharedTimerService) {
+                return timerThread;
+            }
+        }
+        plugin.getServer().getPluginManager().registerEvents(new SharedTimerService(plugin, timerThread), plugin);
+        return timerThread;
+    }
+
+    private static ScheduledExecutorService find(ServicesManager services) {
+        for (RegisteredServiceProvider<ScheduledExecutorService> registration : services.getRegistrations(ScheduledExecutorService.class)) {
+            if (SharedLoomRuntime.isTimerThread(registration.getProvider())) {
+                return registration.getProvider();
+            }
+        }
+        return null;
+    }
+
+    @EventHandler
+    public void onServiceUnregister(ServiceUnregisterEvent event) {
+        // the disabling plugin's own listener still runs, it must not take the registration back
+        if (!this.plugin.isEnabled() || !SharedLoomRuntime.isTimerThread(event.getProvider().getProvider())) {
+            return;
+        }
+
+        ServicesManager services = this.plugin.getServer().getServicesManager();
+        if (find(services) == null) {
+            services.register(ScheduledExecutorService.class, this.timerThread, this.plugin, ServicePriority.Lowest);
+        }
+    }
+}
@@ -3,6 +3,7 @@ plugins {
     `commons-publish`
     `commons-repositories`
     `commons-java-unit-test`
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 sourceSets {
@@ -21,3 +22,9 @@ dependencies {
 tasks.test {
     useJUnitPlatform()
 }
+
+// benchmarks in src/jmh/java, run with ./gradlew :eternalcode-commons-loom:jmh
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+}
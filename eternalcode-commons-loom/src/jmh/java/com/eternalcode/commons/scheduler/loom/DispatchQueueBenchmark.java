@@ -0,0 +1,70 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One tick's worth of sync dispatches, offered and then drained, through the {@link DispatchQueue}
+ * ring lanes and through the {@link ConcurrentLinkedQueue} the dispatchers used before. Run with
+ * {@code -prof gc}: {@code gc.alloc.rate.norm} is the allocation per dispatch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchQueueBenchmark {
+
+    private static final int TICK = 1_024;
+
+    private final Runnable task = () -> {
+    };
+
+    private DispatchQueue queue;
+    private Queue<Runnable> linked;
+
+    @Setup
+    public void setUp() {
+        this.queue = new DispatchQueue(error -> {
+        });
+        this.linked = new ConcurrentLinkedQueue<>();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICK)
+    public int ring_offerAndDrain() {
+        for (int i = 0; i < TICK; i++) {
+            this.queue.offer(this.task);
+        }
+        return this.queue.drainAll();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICK)
+    public int linked_offerAndDrain() {
+        for (int i = 0; i < TICK; i++) {
+            this.linked.offer(this.task);
+        }
+
+        int ran = 0;
+        Runnable next;
+        while ((next = this.linked.poll()) != null) {
+            next.run();
+            ran++;
+        }
+        return ran;
+    }
+}
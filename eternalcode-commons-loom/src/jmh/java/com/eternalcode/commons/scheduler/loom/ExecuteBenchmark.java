@@ -0,0 +1,76 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fire-and-forget {@code execute}/{@code executeSync} against {@code runAsync}/{@code runSync},
+ * which build a task handle per call. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecuteBenchmark {
+
+    private static final int TICK = 1_024;
+
+    private final Runnable task = () -> {
+    };
+
+    private QueuedDispatcher dispatcher;
+    private LoomSchedulerImpl scheduler;
+
+    @Setup
+    public void setUp() {
+        this.dispatcher = new QueuedDispatcher();
+        this.scheduler = new LoomSchedulerImpl(this.dispatcher);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICK)
+    public int executeSync() {
+        for (int i = 0; i < TICK; i++) {
+            this.scheduler.executeSync(this.task);
+        }
+        return this.dispatcher.runPending();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICK)
+    public int runSync() {
+        for (int i = 0; i < TICK; i++) {
+            this.scheduler.runSync(this.task);
+        }
+        return this.dispatcher.runPending();
+    }
+
+    @Benchmark
+    public void execute() {
+        this.scheduler.execute(this.task);
+    }
+
+    @Benchmark
+    public LoomTask runAsync() {
+        return this.scheduler.runAsync(this.task);
+    }
+}
@@ -0,0 +1,76 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hot-path cost of {@link LoomMetricsRecorder} against {@link LoomMetrics#NOOP}: a sync task
+ * from {@code runSync} through a real {@link DispatchQueue} to the end of the drain that runs
+ * it, so the dispatch wrapper and the per-drain queue age and tick time are both measured, and
+ * recording one VT's wait and run time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final int TICK = 1_024;
+
+    @Param({"noop", "recorder"})
+    public String metrics;
+
+    private final Runnable task = () -> {
+    };
+
+    private LoomMetrics sink;
+    private DispatchQueue queue;
+    private LoomSchedulerImpl scheduler;
+    private long sample;
+
+    @Setup
+    public void setUp() {
+        this.sink = this.metrics.equals("recorder") ? new LoomMetricsRecorder() : LoomMetrics.NOOP;
+        this.queue = new DispatchQueue(error -> {
+        });
+        // as the Bukkit dispatcher does
+        this.queue.setMetrics(this.sink);
+        this.scheduler = new LoomSchedulerImpl(this.queue::offer, this.sink);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICK)
+    public int syncTask() {
+        for (int i = 0; i < TICK; i++) {
+            this.scheduler.runSync(this.task);
+        }
+        return this.queue.drain();
+    }
+
+    @Benchmark
+    public void asyncTimings() {
+        // spread over the histogram buckets instead of hitting one
+        long nanos = (++this.sample & 0xFFFF) * 1_000L;
+        this.sink.asyncStarted(nanos);
+        this.sink.asyncFinished(nanos);
+    }
+}
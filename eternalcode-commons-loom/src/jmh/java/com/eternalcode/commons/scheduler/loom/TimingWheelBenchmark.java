@@ -0,0 +1,79 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Schedule and cancel of one delay while {@code pending} others wait, on the {@link TimingWheel}
+ * and on the single-thread {@link ScheduledThreadPoolExecutor} it replaced. The waiting delays are
+ * ten minutes out or more, so nothing fires during a run.
+ * <p>
+ * The executor keeps its default of leaving cancelled tasks in the heap, as the old timer did;
+ * they are purged between iterations only, so each iteration starts from {@code pending}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimingWheelBenchmark {
+
+    private static final Duration FAR = Duration.ofMinutes(10);
+    private static final Runnable NOTHING = () -> {
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    public int pending;
+
+    private TimingWheel wheel;
+    private ScheduledThreadPoolExecutor heap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.wheel = new TimingWheel("TimingWheelBenchmark", VirtualThreadExecutor.DEFAULT_TICK_RESOLUTION);
+        this.heap = new ScheduledThreadPoolExecutor(1);
+
+        for (int i = 0; i < this.pending; i++) {
+            // spread over a minute, like cooldowns started in different ticks
+            Duration delay = FAR.plusMillis(i % 60_000);
+            this.wheel.schedule(NOTHING, delay);
+            this.heap.schedule(NOTHING, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() {
+        this.heap.purge();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.wheel.stop();
+        this.heap.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean wheel_scheduleAndCancel() {
+        return this.wheel.schedule(NOTHING, FAR).cancel();
+    }
+
+    @Benchmark
+    public boolean heap_scheduleAndCancel() {
+        return this.heap.schedule(NOTHING, FAR.toMillis(), TimeUnit.MILLISECONDS).cancel(false);
+    }
+}
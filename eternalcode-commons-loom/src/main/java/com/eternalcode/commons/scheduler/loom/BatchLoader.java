@@ -0,0 +1,187 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Merges {@code load(key)} calls made close together into one batch call on a VT, so N call
+ * sites looking up N players in the same tick make one {@code WHERE uuid IN (...)} query instead
+ * of N single-row ones. Equal keys in a batch are loaded once.
+ * <p>
+ * Create with {@link LoomScheduler#newBatchLoader(BatchPolicy, Function)}:
+ * <pre>{@code
+ * BatchLoader<UUID, User> users = scheduler.newBatchLoader(BatchPolicy.DEFAULT, repository::findAll);
+ * users.load(uuid).thenAcceptSync(user -> show(player, user));
+ * }</pre>
+ * Keys missing from the returned map complete with {@code null}; if the batch call throws,
+ * every load of that batch fails with the exception. Once the executor shuts down, loads fail and
+ * a batch still waiting for its window fails instead of being sent.
+ */
+public final class BatchLoader<K, V> {
+
+    private final BatchPolicy policy;
+    private final Function<Set<K>, ? extends Map<K, V>> batchFunction;
+    private final MainThreadDispatcher dispatcher;
+    private final VirtualThreadExecutor executor;
+    private final Map<K, CompletableFuture<V>> cache = new ConcurrentHashMap<>();
+
+    // held only to add a key or take the batch, never during the batch call
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private long batchId;
+
+    BatchLoader(
+        BatchPolicy policy, Function<Set<K>, ? extends Map<K, V>> batchFunction,
+        MainThreadDispatcher dispatcher, VirtualThreadExecutor executor) {
+        this.policy = policy;
+        this.batchFunction = batchFunction;
+        this.dispatcher = dispatcher;
+        this.executor = executor;
+    }
+
+    /**
+     * Loads the key in the next batch. Cancelling the returned future does not affect other
+     * loads of the same key.
+     */
+    public LoomFuture<V> load(K key) {
+        if (this.executor.isShutdown()) {
+            CompletableFuture<V> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("Executor shut down"));
+            return new LoomFuture<>(failed, this.dispatcher, this.executor);
+        }
+
+        if (this.policy.isCache()) {
+            CompletableFuture<V> cached = this.cache.get(key);
+            if (cached != null) {
+                return this.wrap(cached);
+            }
+        }
+
+        CompletableFuture<V> future;
+        Map<K, CompletableFuture<V>> full = null;
+        boolean first = false;
+        long id;
+
+        this.lock.lock();
+        try {
+            future = this.pending.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                first = this.pending.isEmpty();
+                this.pending.put(key, future);
+                if (this.policy.isCache()) {
+                    // in-flight loads are shared too, until a failure removes them
+                    this.cache.put(key, future);
+                }
+                if (this.pending.size() >= this.policy.getMaxBatchSize()) {
+                    full = this.takeBatch();
+                }
+            }
+            id = this.batchId;
+        }
+        finally {
+            this.lock.unlock();
+        }
+
+        if (full != null) {
+            this.dispatch(full);
+        }
+        else if (first) {
+            // dropped on shutdown: the flush finds the executor shut down and fails the batch
+            this.executor.scheduleOnTimer(() -> this.flush(id), this.policy.getWindow(), () -> this.flush(id));
+        }
+        return this.wrap(future);
+    }
+
+    // timer thread, or whoever drops the timer
+    private void flush(long id) {
+        Map<K, CompletableFuture<V>> batch;
+        this.lock.lock();
+        try {
+            // already sent because it filled up
+            if (id != this.batchId || this.pending.isEmpty()) {
+                return;
+            }
+            batch = this.takeBatch();
+        }
+        finally {
+            this.lock.unlock();
+        }
+        this.dispatch(batch);
+    }
+
+    private Map<K, CompletableFuture<V>> takeBatch() {
+        Map<K, CompletableFuture<V>> batch = this.pending;
+        this.pending = new LinkedHashMap<>();
+        this.batchId++;
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        if (!this.executor.isShutdown()) {
+            try {
+                this.executor.executor().execute(LoomEvents.submitted(() -> this.run(batch), true));
+                return;
+            }
+            catch (RejectedExecutionException ignored) {
+                // shut down between the check and the execute
+            }
+        }
+        this.fail(batch, new IllegalStateException("Executor shut down"));
+    }
+
+    private void run(Map<K, CompletableFuture<V>> batch) {
+        Map<K, V> values;
+        try {
+            values = this.batchFunction.apply(batch.keySet());
+        }
+        catch (Throwable t) {
+            this.fail(batch, t);
+            return;
+        }
+
+        batch.forEach((key, future) -> future.complete(values == null ? null : values.get(key)));
+    }
+
+    private void fail(Map<K, CompletableFuture<V>> batch, Throwable error) {
+        batch.forEach((key, future) -> {
+            this.cache.remove(key, future);
+            future.completeExceptionally(error);
+        });
+    }
+
+    private LoomFuture<V> wrap(CompletableFuture<V> shared) {
+        // each caller gets its own copy, so one cancel does not fail everyone's load
+        return new LoomFuture<>(shared.copy(), this.dispatcher, this.executor);
+    }
+
+    /**
+     * Drops the cached value, the next load of the key goes to a batch again.
+     */
+    public void invalidate(K key) {
+        this.cache.remove(key);
+    }
+
+    public void invalidateAll() {
+        this.cache.clear();
+    }
+
+    /**
+     * Keys waiting for the current batch to be sent.
+     */
+    public int getPendingCount() {
+        this.lock.lock();
+        try {
+            return this.pending.size();
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+}
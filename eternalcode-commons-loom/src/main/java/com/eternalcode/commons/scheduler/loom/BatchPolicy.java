@@ -0,0 +1,81 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+
+/**
+ * How a {@link BatchLoader} groups {@code load(key)} calls into one batch call.
+ * A batch is sent when the window since its first key has passed or it reached the max size,
+ * whichever comes first.
+ */
+public final class BatchPolicy {
+
+    public static final BatchPolicy DEFAULT = builder().build();
+
+    private final Duration window;
+    private final int maxBatchSize;
+    private final boolean cache;
+
+    private BatchPolicy(Builder builder) {
+        this.window = builder.window;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.cache = builder.cache;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Duration getWindow() {
+        return this.window;
+    }
+
+    public int getMaxBatchSize() {
+        return this.maxBatchSize;
+    }
+
+    public boolean isCache() {
+        return this.cache;
+    }
+
+    public static class Builder {
+
+        private Duration window = Duration.ofMillis(10);
+        private int maxBatchSize = 100;
+        private boolean cache = false;
+
+        private Builder() {
+        }
+
+        /**
+         * How long the first key of a batch waits for more keys.
+         */
+        public Builder window(Duration window) {
+            if (window.isNegative()) {
+                throw new IllegalArgumentException("Window must not be negative");
+            }
+            this.window = window;
+            return this;
+        }
+
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("Max batch size must be positive");
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Keep loaded values, so later loads of the key complete without a batch call.
+         * Failed loads are not kept. The cache is unbounded, clear it with {@link BatchLoader#invalidate(Object)}.
+         */
+        public Builder cache(boolean cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        public BatchPolicy build() {
+            return new BatchPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many VTs use a resource at once, e.g. a 10 connection database pool.
+ * <p>
+ * Callers over the limit wait in a bounded queue for up to {@code maxWait}; when the queue
+ * is full or the wait times out the call is rejected with {@link RejectedExecutionException}.
+ * Waiting uses a fair {@link Semaphore}, which parks a virtual thread without holding its carrier.
+ * <p>
+ * Register with {@link LoomScheduler#registerBulkhead(Bulkhead)}, then use the name:
+ * {@code scheduler.supplyAsync("db", () -> repository.load(id))}.
+ */
+public final class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long maxWaitNanos;
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitSeenNanos = new AtomicLong();
+
+    private Bulkhead(Builder builder) {
+        this.name = builder.name;
+        this.maxConcurrent = builder.maxConcurrent;
+        this.maxWaiting = builder.maxWaiting;
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        this.permits = new Semaphore(builder.maxConcurrent, true);
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * Runs the task once a slot is free, on the calling thread.
+     *
+     * @throws RejectedExecutionException if the wait queue is full or the wait timed out
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        this.acquire();
+        try {
+            return task.call();
+        }
+        finally {
+            this.permits.release();
+        }
+    }
+
+    private void acquire() throws InterruptedException {
+        // zero-timeout tryAcquire respects fairness, plain tryAcquire would barge past waiters
+        if (this.permits.tryAcquire(0L, TimeUnit.NANOSECONDS)) {
+            this.acquired.increment();
+            return;
+        }
+
+        if (this.waiting.incrementAndGet() > this.maxWaiting) {
+            this.waiting.decrementAndGet();
+            this.rejected.increment();
+            throw new RejectedExecutionException("Bulkhead '" + this.name + "' is full (" + this.maxWaiting + " waiting)");
+        }
+
+        long start = System.nanoTime();
+        boolean permitted;
+        try {
+            permitted = this.permits.tryAcquire(this.maxWaitNanos, TimeUnit.NANOSECONDS);
+        }
+        finally {
+            this.waiting.decrementAndGet();
+        }
+
+        long waited = System.nanoTime() - start;
+        if (!permitted) {
+            this.timedOut.increment();
+            throw new RejectedExecutionException("Bulkhead '" + this.name + "' wait timed out after " + Duration.ofNanos(waited));
+        }
+
+        this.acquired.increment();
+        this.totalWaitNanos.add(waited);
+        this.maxWaitSeenNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getMaxConcurrent() {
+        return this.maxConcurrent;
+    }
+
+    public int getActiveCount() {
+        return this.maxConcurrent - this.permits.availablePermits();
+    }
+
+    /**
+     * Callers currently waiting for a slot.
+     */
+    public int getQueueDepth() {
+        return this.waiting.get();
+    }
+
+    public long getAcquiredCount() {
+        return this.acquired.sum();
+    }
+
+    /**
+     * Calls rejected because the wait queue was full.
+     */
+    public long getRejectedCount() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * Calls rejected because no slot freed up within the max wait.
+     */
+    public long getTimedOutCount() {
+        return this.timedOut.sum();
+    }
+
+    /**
+     * Average wait of admitted calls, including those admitted without waiting.
+     */
+    public Duration getAverageWait() {
+        long count = this.acquired.sum();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(this.totalWaitNanos.sum() / count);
+    }
+
+    public Duration getMaxWait() {
+        return Duration.ofNanos(this.maxWaitSeenNanos.get());
+    }
+
+    public static class Builder {
+
+        private final String name;
+        private int maxConcurrent = 10;
+        private int maxWaiting = 1024;
+        private Duration maxWait = Duration.ofSeconds(30);
+
+        private Builder(String name) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Bulkhead name must not be blank");
+            }
+            this.name = name;
+        }
+
+        public Builder maxConcurrent(int maxConcurrent) {
+            if (maxConcurrent <= 0) {
+                throw new IllegalArgumentException("Max concurrent must be positive");
+            }
+            this.maxConcurrent = maxConcurrent;
+            return this;
+        }
+
+        /**
+         * How many callers may wait for a slot; 0 rejects as soon as all slots are taken.
+         */
+        public Builder maxWaiting(int maxWaiting) {
+            if (maxWaiting < 0) {
+                throw new IllegalArgumentException("Max waiting must not be negative");
+            }
+            this.maxWaiting = maxWaiting;
+            return this;
+        }
+
+        public Builder maxWait(Duration maxWait) {
+            if (maxWait.isNegative()) {
+                throw new IllegalArgumentException("Max wait must not be negative");
+            }
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        public Bulkhead build() {
+            return new Bulkhead(this);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Work-stealing pool for CPU-bound stages (pathfinding, schematic math, large sorts), one
+ * platform thread per core. Such work gains nothing from a VT and would hold a carrier the
+ * whole time, delaying every I/O continuation behind it.
+ * <p>
+ * Workers start on demand and retire when idle, so an unused pool costs no threads.
+ * {@code -Deternalcode.loom.computeParallelism=N} overrides the size, e.g. to leave a core to
+ * the main thread.
+ * <p>
+ * Executors from {@link SharedLoomRuntime} each get a {@link #share(LoomMetrics) share} of one
+ * pool instead. A share counts its own tasks: shutting it down rejects its new tasks, waits for
+ * or interrupts only the ones it submitted, and leaves the pool running for the other shares.
+ */
+final class ComputePool implements Executor {
+
+    static final String PARALLELISM_PROPERTY = "eternalcode.loom.computeParallelism";
+    static final String THREAD_PREFIX = "LoomCompute-";
+
+    private final ForkJoinPool pool;
+    private final LoomMetrics metrics;
+    // null for the pool itself, set on a share
+    private final ReentrantLock lock;
+    private final Condition idle;
+
+    // guarded by lock, shares only
+    private final Set<Thread> running = new HashSet<>();
+    private int inFlight = 0;
+    private boolean shutdown = false;
+    private boolean dropQueued = false;
+
+    ComputePool(LoomMetrics metrics) {
+        this(Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()), metrics);
+    }
+
+    ComputePool(int parallelism, LoomMetrics metrics) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.pool = new ForkJoinPool(parallelism, ComputePool::newWorker, null, false);
+        this.metrics = metrics;
+        this.lock = null;
+        this.idle = null;
+    }
+
+    private ComputePool(ForkJoinPool pool, LoomMetrics metrics) {
+        this.pool = pool;
+        this.metrics = metrics;
+        this.lock = new ReentrantLock();
+        this.idle = this.lock.newCondition();
+    }
+
+    /**
+     * A view of this pool that runs its tasks on the same workers and can be shut down on its own.
+     *
+     * @param metrics receives the timings of the share's tasks
+     */
+    ComputePool share(LoomMetrics metrics) {
+        return new ComputePool(this.pool, metrics);
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName(THREAD_PREFIX + worker.getPoolIndex());
+        return worker;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (this.lock != null) {
+            this.executeShared(task);
+            return;
+        }
+
+        if (this.metrics == LoomMetrics.NOOP) {
+            this.pool.execute(task);
+            return;
+        }
+
+        long submitted = System.nanoTime();
+        this.pool.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            }
+            finally {
+                this.metrics.computeTask(start - submitted, System.nanoTime() - start);
+            }
+        });
+    }
+
+    private void executeShared(Runnable task) {
+        this.lock.lock();
+        try {
+            if (this.shutdown) {
+                throw new RejectedExecutionException("Compute pool shut down");
+            }
+            this.inFlight++;
+        }
+        finally {
+            this.lock.unlock();
+        }
+
+        long submitted = System.nanoTime();
+        try {
+            this.pool.execute(() -> this.runShared(task, submitted));
+        }
+        catch (RejectedExecutionException exception) {
+            this.finished(null);
+            throw exception;
+        }
+    }
+
+    private void runShared(Runnable task, long submitted) {
+        Thread worker = Thread.currentThread();
+        this.lock.lock();
+        try {
+            // queued when shutdownNow dropped the share's tasks
+            if (this.dropQueued) {
+                this.inFlight--;
+                this.idle.signalAll();
+                return;
+            }
+            this.running.add(worker);
+        }
+        finally {
+            this.lock.unlock();
+        }
+
+        long start = System.nanoTime();
+        try {
+            task.run();
+        }
+        finally {
+            if (this.metrics != LoomMetrics.NOOP) {
+                this.metrics.computeTask(start - submitted, System.nanoTime() - start);
+            }
+            this.finished(worker);
+        }
+    }
+
+    private void finished(Thread worker) {
+        this.lock.lock();
+        try {
+            if (worker != null) {
+                this.running.remove(worker);
+                // an interrupt from shutdownNow must not reach the next share's task on this worker
+                Thread.interrupted();
+            }
+            this.inFlight--;
+            this.idle.signalAll();
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    int getParallelism() {
+        return this.pool.getParallelism();
+    }
+
+    /**
+     * Workers running a task, not waiting to steal one.
+     */
+    int getActiveCount() {
+        if (this.lock != null) {
+            this.lock.lock();
+            try {
+                return this.running.size();
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+        return this.pool.getActiveThreadCount();
+    }
+
+    /**
+     * Submitted tasks not started yet, plus subtasks forked inside running ones.
+     */
+    long getQueuedCount() {
+        if (this.lock != null) {
+            // a share sees only its submitted tasks, not what they fork
+            this.lock.lock();
+            try {
+                return this.inFlight - this.running.size();
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+        return this.pool.getQueuedSubmissionCount() + this.pool.getQueuedTaskCount();
+    }
+
+    void shutdown() {
+        if (this.lock == null) {
+            this.pool.shutdown();
+            return;
+        }
+
+        this.lock.lock();
+        try {
+            this.shutdown = true;
+            this.idle.signalAll();
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops queued tasks and interrupts the workers; a CPU loop only stops if it checks the flag.
+     */
+    void shutdownNow() {
+        if (this.lock == null) {
+            this.pool.shutdownNow();
+            return;
+        }
+
+        this.lock.lock();
+        try {
+            this.shutdown = true;
+            this.dropQueued = true;
+            for (Thread worker : this.running) {
+                worker.interrupt();
+            }
+            this.idle.signalAll();
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * For a share, waits until it is shut down and its tasks have finished.
+     */
+    boolean awaitTermination(long nanos) throws InterruptedException {
+        if (this.lock == null) {
+            return this.pool.awaitTermination(Math.max(0L, nanos), TimeUnit.NANOSECONDS);
+        }
+
+        this.lock.lock();
+        try {
+            while (!this.shutdown || this.inFlight > 0) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                nanos = this.idle.awaitNanos(nanos);
+            }
+            return true;
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keyed debounce (trailing call) and throttle (leading call) on the delay timer.
+ * <p>
+ * An event never cancels a timer. A debounce event only swaps in the new task and deadline;
+ * the one timer of the key wakes at the old deadline, sees the new one and sleeps again, so a
+ * burst of events costs one timer per delay instead of one per event. Only an event with a
+ * shorter delay, whose deadline comes before the armed one, arms an earlier wake-up. A throttle
+ * window is a time stamp per key plus one timer that drops it once the window is over.
+ * <p>
+ * Owned by the {@link VirtualThreadExecutor}, so every scheduler on it shares the keys, e.g. the
+ * per-entity and per-region schedulers on Folia. Each call brings its own launcher, so a sync task
+ * still runs on the dispatcher of the scheduler it came from.
+ */
+final class Debouncer {
+
+    private static final Call FIRED = new Call(null, 0L, null);
+
+    private final Map<Object, Pending> debounces = new ConcurrentHashMap<>();
+    private final Map<Object, Long> throttles = new ConcurrentHashMap<>();
+    private final VirtualThreadExecutor executor;
+
+    Debouncer(VirtualThreadExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Runs the task once no event with an equal key came for the delay; earlier tasks of the burst are dropped.
+     * A task its launcher rejects when the delay is over is dropped as well.
+     *
+     * @param launcher starts the task, a VT or a main thread dispatcher
+     */
+    void debounce(Object key, Duration delay, Runnable task, Executor launcher) {
+        Call call = new Call(task, System.nanoTime() + delay.toNanos(), launcher);
+        while (true) {
+            Pending existing = this.debounces.get(key);
+            if (existing != null && existing.update(call)) {
+                existing.armBefore(call.deadline());
+                return;
+            }
+
+            Pending created = new Pending(key, call);
+            boolean added = existing == null
+                ? this.debounces.putIfAbsent(key, created) == null
+                : this.debounces.replace(key, existing, created);
+            if (added) {
+                created.arm(call.deadline());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs the task unless one with an equal key ran less than the period ago.
+     *
+     * @return whether the task was started
+     * @throws RejectedExecutionException if the launcher rejects the task; the key is not throttled then
+     */
+    boolean throttle(Object key, Duration period, Runnable task, Executor launcher) {
+        long now = System.nanoTime();
+        Long windowEnd = now + period.toNanos();
+        while (true) {
+            Long current = this.throttles.get(key);
+            if (current != null && current - now > 0) {
+                return false;
+            }
+
+            boolean claimed = current == null
+                ? this.throttles.putIfAbsent(key, windowEnd) == null
+                : this.throttles.replace(key, current, windowEnd);
+            if (claimed) {
+                try {
+                    launcher.execute(task);
+                }
+                catch (RuntimeException exception) {
+                    // the task did not start, so it opens no window
+                    this.throttles.remove(key, windowEnd);
+                    throw exception;
+                }
+                this.executor.scheduleOnTimer(() -> this.throttles.remove(key, windowEnd), period);
+                return true;
+            }
+        }
+    }
+
+    int pendingDebounces() {
+        return this.debounces.size();
+    }
+
+    private record Call(Runnable task, long deadline, Executor launcher) {
+    }
+
+    private final class Pending {
+
+        private final Object key;
+        private final AtomicReference<Call> call;
+        // deadline of the live timer; a timer armed for another one is stale and does nothing
+        private final AtomicLong armed;
+
+        Pending(Object key, Call call) {
+            this.key = key;
+            this.call = new AtomicReference<>(call);
+            this.armed = new AtomicLong(call.deadline());
+        }
+
+        void arm(long deadline) {
+            Debouncer.this.executor.scheduleOnTimer(() -> this.fire(deadline), Duration.ofNanos(Math.max(0L, deadline - System.nanoTime())));
+        }
+
+        /**
+         * Arms an earlier timer if the deadline comes before the armed one; the later timer goes stale.
+         */
+        void armBefore(long deadline) {
+            long current = this.armed.get();
+            while (deadline - current < 0) {
+                if (this.armed.compareAndSet(current, deadline)) {
+                    this.arm(deadline);
+                    return;
+                }
+                current = this.armed.get();
+            }
+        }
+
+        /**
+         * @return false if the timer already took the previous call, the caller needs a new pending
+         */
+        boolean update(Call next) {
+            while (true) {
+                Call current = this.call.get();
+                if (current == FIRED) {
+                    return false;
+                }
+                if (this.call.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        // timer thread, so only swaps state and hands the task off
+        void fire(long deadline) {
+            while (true) {
+                if (this.armed.get() != deadline) {
+                    // an earlier timer replaced this one
+                    return;
+                }
+                Call current = this.call.get();
+                if (current == FIRED) {
+                    return;
+                }
+                long remaining = current.deadline() - System.nanoTime();
+                if (remaining > 0) {
+                    if (this.armed.compareAndSet(deadline, current.deadline())) {
+                        this.arm(current.deadline());
+                        return;
+                    }
+                    continue;
+                }
+                if (this.call.compareAndSet(current, FIRED)) {
+                    Debouncer.this.debounces.remove(this.key, this);
+                    try {
+                        current.launcher().execute(current.task());
+                    }
+                    catch (RejectedExecutionException exception) {
+                        // shut down or a full REJECT lane, nobody to report to on the timer thread; drop the call
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
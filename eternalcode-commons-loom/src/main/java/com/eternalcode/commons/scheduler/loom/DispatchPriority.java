@@ -0,0 +1,23 @@
+package com.eternalcode.commons.scheduler.loom;
+
+/**
+ * Lane for main thread tasks. Higher lanes drain first;
+ * lower lanes still get a turn so they are never starved.
+ */
+public enum DispatchPriority {
+
+    /**
+     * Player-facing work that must land this tick (teleports, inventory updates).
+     */
+    CRITICAL,
+
+    /**
+     * Default lane.
+     */
+    NORMAL,
+
+    /**
+     * Cosmetic or deferrable work (scoreboards, holograms).
+     */
+    BACKGROUND
+}
@@ -0,0 +1,439 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Main thread task queue for tick-driven dispatchers.
+ * <p>
+ * Any thread may {@link #offer(Runnable)}; only the tick thread may drain.
+ * Each {@link #drain()} runs tasks until the queue is empty or the per-tick budget
+ * is spent. Leftover tasks stay queued and run first on the next tick, so a burst
+ * is spread over several ticks instead of stalling one.
+ * <p>
+ * Tasks are kept in one FIFO lane per {@link DispatchPriority}; higher lanes drain first.
+ * A lower lane that was passed over {@value #STARVATION_LIMIT} times in a row gets the
+ * next turn, so background work keeps moving while critical work floods in.
+ * <p>
+ * {@link #offerCoalesced(Object, Runnable)} keeps only the latest task per key. Producers
+ * just append to a lock-free inbox; the key map is owned by the tick thread, which folds
+ * the inbox into it before polling. Coalesced tasks share the normal lane, alternating
+ * with plain normal tasks.
+ * <p>
+ * Lanes are bounded array rings that grow up to the configured capacity, so steady traffic
+ * allocates no queue nodes. What happens past that capacity is set by {@link OverflowPolicy}.
+ */
+public final class DispatchQueue {
+
+    /**
+     * Budget that never stops a drain early.
+     */
+    public static final Duration UNLIMITED_BUDGET = Duration.ofNanos(Long.MAX_VALUE);
+
+    /**
+     * Default max number of tasks held in each priority lane before {@link OverflowPolicy} applies.
+     */
+    public static final int DEFAULT_LANE_CAPACITY = 1 << 16;
+
+    static final int STARVATION_LIMIT = 8;
+    static final int INITIAL_LANE_CAPACITY = 256;
+
+    private static final long NOT_PENDING = Long.MIN_VALUE;
+    private static final DispatchPriority[] PRIORITIES = DispatchPriority.values();
+    private static final int NORMAL = DispatchPriority.NORMAL.ordinal();
+
+    private final Lane[] lanes;
+    private final int[] skipped = new int[PRIORITIES.length];
+    private final Consumer<Throwable> errorHandler;
+
+    private final Queue<CoalescedTask> coalescedInbox = new ConcurrentLinkedQueue<>();
+    // tick thread only
+    private final Map<Object, Runnable> coalesced = new LinkedHashMap<>();
+    private boolean coalescedTurn = false;
+
+    private final LongAdder offered = new LongAdder();
+    private final AtomicLong polled = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+    private final AtomicLong pendingSince = new AtomicLong(NOT_PENDING);
+
+    private final AtomicLong overrunTicks = new AtomicLong();
+    private final AtomicLong carriedOverTasks = new AtomicLong();
+    private volatile long lastQueueAgeNanos = 0L;
+    private volatile long maxQueueAgeNanos = 0L;
+
+    private volatile long budgetNanos;
+    private volatile LoomMetrics metrics = LoomMetrics.NOOP;
+
+    public DispatchQueue(Consumer<Throwable> errorHandler) {
+        this(UNLIMITED_BUDGET, errorHandler);
+    }
+
+    public DispatchQueue(Duration tickBudget, Consumer<Throwable> errorHandler) {
+        this(tickBudget, DEFAULT_LANE_CAPACITY, OverflowPolicy.SPILL, errorHandler);
+    }
+
+    public DispatchQueue(Duration tickBudget, int laneCapacity, OverflowPolicy overflowPolicy, Consumer<Throwable> errorHandler) {
+        if (laneCapacity <= 0) {
+            throw new IllegalArgumentException("Lane capacity must be positive");
+        }
+
+        this.errorHandler = errorHandler;
+        this.lanes = new Lane[PRIORITIES.length];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new Lane(laneCapacity, overflowPolicy);
+        }
+        this.setTickBudget(tickBudget);
+    }
+
+    public void offer(Runnable task) {
+        this.offer(task, DispatchPriority.NORMAL);
+    }
+
+    /**
+     * @throws RejectedExecutionException if the lane is full and the policy is {@link OverflowPolicy#REJECT}
+     */
+    public void offer(Runnable task, DispatchPriority priority) {
+        this.lanes[priority.ordinal()].offer(task);
+        this.offered();
+    }
+
+    /**
+     * Queues the task under the given key. If a task with an equal key is still waiting,
+     * it is replaced and will not run; replaced {@link Future}s are cancelled.
+     */
+    public void offerCoalesced(Object key, Runnable task) {
+        this.coalescedInbox.offer(new CoalescedTask(key, task));
+        this.offered();
+    }
+
+    private void offered() {
+        this.offered.increment();
+
+        if (this.pendingSince.get() == NOT_PENDING) {
+            this.pendingSince.compareAndSet(NOT_PENDING, System.nanoTime());
+        }
+    }
+
+    /**
+     * Runs queued tasks until the queue is empty or the tick budget is spent.
+     * At least one task runs per call, so the queue always makes progress.
+     *
+     * @return number of tasks executed
+     */
+    public int drain() {
+        return this.drain(this.budgetNanos);
+    }
+
+    /**
+     * Runs every queued task regardless of budget. Used on shutdown.
+     */
+    public int drainAll() {
+        return this.drain(Long.MAX_VALUE);
+    }
+
+    private int drain(long budget) {
+        LoomEvents.DrainEvent event = LoomEvents.beginDrain();
+        long start = System.nanoTime();
+        long since = this.pendingSince.get();
+        long age = since != NOT_PENDING ? start - since : 0L;
+        if (since != NOT_PENDING) {
+            this.recordQueueAge(age);
+        }
+
+        int count = 0;
+        Runnable task;
+        while ((task = this.poll()) != null) {
+            this.run(task);
+            count++;
+
+            if (budget != Long.MAX_VALUE && System.nanoTime() - start >= budget) {
+                break;
+            }
+        }
+
+        if (count > 0 && this.metrics != LoomMetrics.NOOP) {
+            this.metrics.syncDrained(age, count);
+        }
+
+        if (task != null && !this.isEmpty()) {
+            int carriedOver = this.getPendingCount();
+            this.overrunTicks.incrementAndGet();
+            this.carriedOverTasks.addAndGet(carriedOver);
+            LoomEvents.endDrain(event, count, age, carriedOver);
+            return count;
+        }
+        LoomEvents.endDrain(event, count, age, 0);
+
+        // caught up: reset the age stamp, re-stamp if a producer raced us
+        this.pendingSince.set(NOT_PENDING);
+        if (!this.isEmpty()) {
+            this.pendingSince.compareAndSet(NOT_PENDING, System.nanoTime());
+        }
+        return count;
+    }
+
+    /**
+     * Takes the next task by priority. Tick thread only.
+     */
+    Runnable poll() {
+        this.foldCoalesced();
+
+        int first = -1;
+        for (int i = 0; i < this.lanes.length; i++) {
+            if (!this.isLaneEmpty(i)) {
+                first = i;
+                break;
+            }
+        }
+
+        if (first < 0) {
+            return null;
+        }
+
+        int chosen = first;
+        for (int i = this.lanes.length - 1; i > first; i--) {
+            if (this.skipped[i] >= STARVATION_LIMIT && !this.isLaneEmpty(i)) {
+                chosen = i;
+                break;
+            }
+        }
+
+        for (int i = first; i < this.lanes.length; i++) {
+            if (i == chosen) {
+                this.skipped[i] = 0;
+            }
+            else if (i > first && !this.isLaneEmpty(i)) {
+                this.skipped[i]++;
+            }
+        }
+
+        Runnable task = null;
+        if (chosen == NORMAL && !this.coalesced.isEmpty()) {
+            Lane lane = this.lanes[NORMAL];
+            if (lane.isEmpty() || this.coalescedTurn) {
+                this.coalescedTurn = false;
+                task = this.pollCoalesced();
+            }
+            else {
+                this.coalescedTurn = true;
+            }
+        }
+        if (task == null) {
+            task = this.lanes[chosen].poll();
+        }
+        // counted only when a task leaves, or the pending count drifts below the real depth
+        if (task != null) {
+            this.polled.incrementAndGet();
+        }
+        return task;
+    }
+
+    private boolean isLaneEmpty(int lane) {
+        return this.lanes[lane].isEmpty() && (lane != NORMAL || this.coalesced.isEmpty());
+    }
+
+    private void foldCoalesced() {
+        CoalescedTask next;
+        while ((next = this.coalescedInbox.poll()) != null) {
+            Runnable replaced = this.coalesced.put(next.key(), next.task());
+            if (replaced == null) {
+                continue;
+            }
+
+            this.superseded.incrementAndGet();
+            if (replaced instanceof Future<?> future) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private Runnable pollCoalesced() {
+        Iterator<Runnable> iterator = this.coalesced.values().iterator();
+        Runnable task = iterator.next();
+        iterator.remove();
+        return task;
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        }
+        catch (Throwable throwable) {
+            this.errorHandler.accept(throwable);
+        }
+    }
+
+    private void recordQueueAge(long ageNanos) {
+        this.lastQueueAgeNanos = ageNanos;
+        if (ageNanos > this.maxQueueAgeNanos) {
+            this.maxQueueAgeNanos = ageNanos;
+        }
+    }
+
+    public void setTickBudget(Duration tickBudget) {
+        if (tickBudget.isNegative() || tickBudget.isZero()) {
+            throw new IllegalArgumentException("Tick budget must be positive");
+        }
+        this.budgetNanos = tickBudget.compareTo(UNLIMITED_BUDGET) >= 0 ? Long.MAX_VALUE : tickBudget.toNanos();
+    }
+
+    public Duration getTickBudget() {
+        return Duration.ofNanos(this.budgetNanos);
+    }
+
+    /**
+     * Reports queue age and task count of every drain that ran something.
+     */
+    public void setMetrics(LoomMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public boolean isEmpty() {
+        return this.getPendingCount() == 0;
+    }
+
+    public int getPendingCount() {
+        return (int) Math.max(0L, this.offered.sum() - this.polled.get() - this.superseded.get());
+    }
+
+    /**
+     * Total number of coalesced tasks replaced by a newer task with the same key.
+     */
+    public long getSupersededTasks() {
+        return this.superseded.get();
+    }
+
+    /**
+     * Ticks whose budget ran out while tasks were still queued.
+     */
+    public long getOverrunTicks() {
+        return this.overrunTicks.get();
+    }
+
+    /**
+     * Total number of tasks carried over to a later tick because the budget ran out.
+     */
+    public long getCarriedOverTasks() {
+        return this.carriedOverTasks.get();
+    }
+
+    /**
+     * How long the queue had been non-empty when the last drain started.
+     * Equals the oldest task's wait unless tasks were carried over from earlier ticks.
+     */
+    public Duration getLastQueueAge() {
+        return Duration.ofNanos(this.lastQueueAgeNanos);
+    }
+
+    public Duration getMaxQueueAge() {
+        return Duration.ofNanos(this.maxQueueAgeNanos);
+    }
+
+    /**
+     * Total number of tasks that went to a lane's linked overflow queue because its ring was full.
+     */
+    public long getSpilledTasks() {
+        long spilled = 0L;
+        for (Lane lane : this.lanes) {
+            spilled += lane.spilled.sum();
+        }
+        return spilled;
+    }
+
+    /**
+     * What {@link #offer(Runnable, DispatchPriority)} does when a lane is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Queue the task in an unbounded linked overflow queue. Nothing is lost, but every
+         * spilled task allocates a node until the ring drains.
+         */
+        SPILL,
+
+        /**
+         * Park the producer until the ring has room. Only virtual threads are parked;
+         * platform threads (and interrupted virtual threads) spill instead.
+         */
+        BLOCK,
+
+        /**
+         * Throw {@link RejectedExecutionException}.
+         */
+        REJECT
+    }
+
+    private static final class Lane {
+
+        private static final long MIN_BACKOFF_NANOS = 10_000L;
+        private static final long MAX_BACKOFF_NANOS = 1_000_000L;
+
+        private final MpscArrayQueue<Runnable> ring;
+        private final Queue<Runnable> overflow = new ConcurrentLinkedQueue<>();
+        private final OverflowPolicy policy;
+        private final LongAdder spilled = new LongAdder();
+
+        Lane(int capacity, OverflowPolicy policy) {
+            this.ring = new MpscArrayQueue<>(Math.min(INITIAL_LANE_CAPACITY, capacity), capacity);
+            this.policy = policy;
+        }
+
+        void offer(Runnable task) {
+            // once spilling, keep spilling until the consumer catches up, so order holds
+            if (this.overflow.isEmpty() && this.ring.offer(task)) {
+                return;
+            }
+
+            switch (this.policy) {
+                case SPILL -> this.spill(task);
+                case BLOCK -> this.block(task);
+                case REJECT -> throw new RejectedExecutionException("Dispatch lane is full (" + this.ring.capacity() + " tasks)");
+            }
+        }
+
+        private void block(Runnable task) {
+            Thread thread = Thread.currentThread();
+            if (!thread.isVirtual()) {
+                this.spill(task);
+                return;
+            }
+
+            long backoff = MIN_BACKOFF_NANOS;
+            while (!this.overflow.isEmpty() || !this.ring.offer(task)) {
+                if (thread.isInterrupted()) {
+                    this.spill(task);
+                    return;
+                }
+                LockSupport.parkNanos(this, backoff);
+                backoff = Math.min(MAX_BACKOFF_NANOS, backoff * 2);
+            }
+        }
+
+        private void spill(Runnable task) {
+            this.overflow.offer(task);
+            this.spilled.increment();
+        }
+
+        Runnable poll() {
+            Runnable task = this.ring.poll();
+            return task != null ? task : this.overflow.poll();
+        }
+
+        boolean isEmpty() {
+            return this.ring.isEmpty() && this.overflow.isEmpty();
+        }
+    }
+
+    private record CoalescedTask(Object key, Runnable task) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Runs tasks with the same key one at a time, in submit order, on VTs; different keys run in
+ * parallel. Replaces a global {@code synchronized} around per-player saves and loads, which
+ * pins VTs and makes every player wait for every other one.
+ * <p>
+ * Each busy key has a lane: a lock-free queue and a counter of queued plus running tasks.
+ * The submit that takes the counter from zero starts one VT that runs the lane until it is
+ * empty, then retires it; idle keys keep no state. If the executor shuts down before that VT
+ * starts, the submit fails the lane's tasks and retires it instead. Create with
+ * {@link LoomScheduler#newKeyedSerialExecutor(String)}.
+ */
+public final class KeyedSerialExecutor<K> {
+
+    // counter value of a lane that emptied and left the map, submits must use a new one
+    private static final int RETIRED = -1;
+
+    private final Map<K, Lane> lanes = new ConcurrentHashMap<>();
+    private final MainThreadDispatcher dispatcher;
+    private final VirtualThreadExecutor executor;
+
+    KeyedSerialExecutor(String name, MainThreadDispatcher dispatcher, VirtualThreadExecutor executor, LoomMetrics metrics) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Executor name must not be blank");
+        }
+        this.dispatcher = dispatcher;
+        this.executor = executor;
+        metrics.gauge("loom.serial." + name + ".keys", this::getActiveKeys);
+        metrics.gauge("loom.serial." + name + ".depth.max", this::getMaxQueueDepth);
+    }
+
+    /**
+     * Calls the task once every earlier task with an equal key has finished.
+     */
+    public <T> LoomFuture<T> submit(K key, Callable<T> task) {
+        Pipeline pipeline = new Pipeline();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (this.executor.isShutdown()) {
+            future.completeExceptionally(new IllegalStateException("Executor shut down"));
+            return new LoomFuture<>(future, this.dispatcher, this.executor, pipeline);
+        }
+
+        Callable<T> stage = pipeline.async(LoomEvents.submitted(task));
+        this.enqueue(key, new Job(() -> {
+            try {
+                future.complete(stage.call());
+            }
+            catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, future::completeExceptionally));
+        return new LoomFuture<>(future, this.dispatcher, this.executor, pipeline);
+    }
+
+    public LoomFuture<Void> run(K key, Runnable task) {
+        return this.submit(key, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    private void enqueue(K key, Job job) {
+        while (true) {
+            Lane lane = this.lanes.computeIfAbsent(key, Lane::new);
+            int depth = lane.depth.get();
+            if (depth == RETIRED) {
+                // help the drainer that retired it, then retry with a fresh lane
+                this.lanes.remove(key, lane);
+                continue;
+            }
+            if (!lane.depth.compareAndSet(depth, depth + 1)) {
+                continue;
+            }
+
+            lane.queue.offer(job);
+            if (depth == 0) {
+                try {
+                    this.executor.executor().execute(() -> this.drain(lane, null));
+                }
+                catch (RejectedExecutionException exception) {
+                    // shut down after the check in submit; nothing will run the lane, fail it here
+                    this.drain(lane, new IllegalStateException("Executor shut down", exception));
+                }
+            }
+            return;
+        }
+    }
+
+    // one drainer per lane at a time: only the submit that took the counter from zero starts one;
+    // with a rejection, the lane's jobs fail with it instead of running
+    private void drain(Lane lane, Throwable rejection) {
+        while (true) {
+            Job job;
+            // counted before offered, the submitter is between the two
+            while ((job = lane.queue.poll()) == null) {
+                Thread.yield();
+            }
+
+            if (rejection == null) {
+                job.task().run();
+            }
+            else {
+                job.rejected().accept(rejection);
+            }
+
+            if (lane.depth.decrementAndGet() == 0) {
+                // either the lane retires, or a new submit won the zero and started the next drainer
+                if (lane.depth.compareAndSet(0, RETIRED)) {
+                    this.lanes.remove(lane.key, lane);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Tasks queued or running under the key.
+     */
+    public int getQueueDepth(K key) {
+        Lane lane = this.lanes.get(key);
+        return lane == null ? 0 : Math.max(0, lane.depth.get());
+    }
+
+    /**
+     * Queue depth of every busy key.
+     */
+    public Map<K, Integer> getQueueDepths() {
+        return this.lanes.values().stream()
+            .filter(lane -> lane.depth.get() > 0)
+            .collect(Collectors.toMap(lane -> lane.key, lane -> Math.max(0, lane.depth.get()), (first, second) -> first));
+    }
+
+    /**
+     * Keys with queued or running tasks.
+     */
+    public int getActiveKeys() {
+        return this.lanes.size();
+    }
+
+    public int getMaxQueueDepth() {
+        int max = 0;
+        for (Lane lane : this.lanes.values()) {
+            max = Math.max(max, lane.depth.get());
+        }
+        return max;
+    }
+
+    private record Job(Runnable task, Consumer<Throwable> rejected) {
+    }
+
+    private final class Lane {
+
+        private final K key;
+        private final Queue<Job> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+
+        Lane(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for scheduled work, shown next to GC and
+ * {@code jdk.VirtualThreadPinned}: {@code jfr print --events eternalcode.loom.* recording.jfr}.
+ * <p>
+ * Tasks are only wrapped, and events only built, while a recording has the event enabled.
+ * Until Flight Recorder is initialized the event classes are not even loaded, which would
+ * take a few hundred milliseconds on the first scheduled task. Work submitted before a
+ * recording started is not reported.
+ */
+final class LoomEvents {
+
+    // nanoTime may be negative, so no time stamp can be used as the marker
+    private static final long NOT_WAITING = Long.MIN_VALUE;
+
+    private LoomEvents() {
+    }
+
+    /**
+     * Task that starts as soon as possible; the event records how long it waited.
+     */
+    static Runnable submitted(Runnable task, boolean async) {
+        if (!FlightRecorder.isInitialized() || !Types.TASK.isEnabled()) {
+            return task;
+        }
+        return wrap(task, async, false, System.nanoTime());
+    }
+
+    static <T> Supplier<T> submitted(Supplier<T> supplier, boolean async) {
+        if (!FlightRecorder.isInitialized() || !Types.TASK.isEnabled()) {
+            return supplier;
+        }
+
+        long submitted = System.nanoTime();
+        return () -> {
+            TaskEvent event = begin(submitted);
+            try {
+                return supplier.get();
+            }
+            finally {
+                commit(event, supplier, async, false);
+            }
+        };
+    }
+
+    static <T> Callable<T> submitted(Callable<T> callable) {
+        if (!FlightRecorder.isInitialized() || !Types.TASK.isEnabled()) {
+            return callable;
+        }
+
+        long submitted = System.nanoTime();
+        return () -> {
+            TaskEvent event = begin(submitted);
+            try {
+                return callable.call();
+            }
+            finally {
+                commit(event, callable, true, false);
+            }
+        };
+    }
+
+    /**
+     * Delayed or repeating task; the requested delay is not counted as waiting.
+     */
+    static Runnable scheduled(Runnable task, boolean async, boolean repeating) {
+        if (!FlightRecorder.isInitialized() || !Types.TASK.isEnabled()) {
+            return task;
+        }
+        return wrap(task, async, repeating, NOT_WAITING);
+    }
+
+    private static Runnable wrap(Runnable task, boolean async, boolean repeating, long submitted) {
+        return () -> {
+            TaskEvent event = begin(submitted);
+            try {
+                task.run();
+            }
+            finally {
+                commit(event, task, async, repeating);
+            }
+        };
+    }
+
+    private static TaskEvent begin(long submitted) {
+        TaskEvent event = new TaskEvent();
+        event.queueWait = submitted == NOT_WAITING ? 0L : Math.max(0L, System.nanoTime() - submitted);
+        event.begin();
+        return event;
+    }
+
+    private static void commit(TaskEvent event, Object task, boolean async, boolean repeating) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        event.task = task.getClass().getName();
+        event.async = async;
+        event.repeating = repeating;
+        event.commit();
+    }
+
+    /**
+     * Sync stage of a {@link LoomFuture}; the event spans dispatch to start on the main thread.
+     */
+    static Runnable syncHop(Runnable stage) {
+        if (!FlightRecorder.isInitialized() || !Types.SYNC_HOP.isEnabled()) {
+            return stage;
+        }
+
+        SyncHopEvent event = new SyncHopEvent();
+        event.begin();
+        return () -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = stage.getClass().getName();
+                event.commit();
+            }
+            stage.run();
+        };
+    }
+
+    /**
+     * @return {@code null} unless drain events are enabled
+     */
+    static DrainEvent beginDrain() {
+        if (!FlightRecorder.isInitialized() || !Types.DRAIN.isEnabled()) {
+            return null;
+        }
+
+        DrainEvent event = new DrainEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Drains that ran nothing are dropped, an idle server would report one every tick.
+     */
+    static void endDrain(DrainEvent event, int tasks, long queueAgeNanos, int carriedOver) {
+        if (event == null || tasks == 0) {
+            return;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.tasks = tasks;
+            event.queueAge = queueAgeNanos;
+            event.carriedOver = carriedOver;
+            event.commit();
+        }
+    }
+
+    static void timerMisfire(long lagNanos, boolean repeating) {
+        if (!FlightRecorder.isInitialized() || !Types.TIMER_MISFIRE.isEnabled()) {
+            return;
+        }
+
+        TimerMisfireEvent event = new TimerMisfireEvent();
+        event.lag = lagNanos;
+        event.repeating = repeating;
+        event.commit();
+    }
+
+    // loaded on first use, i.e. only once Flight Recorder is up
+    private static final class Types {
+
+        static final EventType TASK = EventType.getEventType(TaskEvent.class);
+        static final EventType SYNC_HOP = EventType.getEventType(SyncHopEvent.class);
+        static final EventType DRAIN = EventType.getEventType(DrainEvent.class);
+        static final EventType TIMER_MISFIRE = EventType.getEventType(TimerMisfireEvent.class);
+    }
+
+    @Name("eternalcode.loom.Task")
+    @Label("Loom Task")
+    @Category({"EternalCode", "Loom"})
+    @Description("A scheduled task ran; the duration is its run time")
+    static final class TaskEvent extends Event {
+
+        @Label("Task Class")
+        String task;
+
+        @Label("Async")
+        @Description("Ran on a virtual thread rather than the main thread")
+        boolean async;
+
+        @Label("Repeating")
+        boolean repeating;
+
+        @Label("Queue Wait")
+        @Description("Submit to start; zero for delayed and repeating tasks")
+        @Timespan
+        long queueWait;
+    }
+
+    @Name("eternalcode.loom.SyncHop")
+    @Label("Loom Sync Hop")
+    @Category({"EternalCode", "Loom"})
+    @Description("A LoomFuture sync stage waited for the main thread; the duration is the hop latency")
+    static final class SyncHopEvent extends Event {
+
+        @Label("Stage Class")
+        String stage;
+    }
+
+    @Name("eternalcode.loom.Drain")
+    @Label("Loom Dispatcher Drain")
+    @Category({"EternalCode", "Loom"})
+    @Description("The main thread ran queued sync tasks; the duration is the drain time")
+    static final class DrainEvent extends Event {
+
+        @Label("Tasks")
+        int tasks;
+
+        @Label("Queue Age")
+        @Description("How long the queue had been non-empty when the drain started")
+        @Timespan
+        long queueAge;
+
+        @Label("Carried Over")
+        @Description("Tasks left for the next tick because the budget ran out")
+        int carriedOver;
+    }
+
+    @Name("eternalcode.loom.TimerMisfire")
+    @Label("Loom Timer Misfire")
+    @Category({"EternalCode", "Loom"})
+    @Description("A delayed or repeating task fired more than one timer tick late")
+    static final class TimerMisfireEvent extends Event {
+
+        @Label("Lag")
+        @Timespan
+        long lag;
+
+        @Label("Repeating")
+        boolean repeating;
+    }
+}
@@ -11,108 +11,198 @@ import java.util.function.Function;
 /**
  * Future wrapper with context switching between VT (async) and main thread
  * (sync).
+ * <p>
+ * All stages derived from one root share its cancellation: {@link #cancel()} on any of them
+ * stops the whole chain, upstream and downstream, and interrupts the VT running a stage.
  */
 public class LoomFuture<T> implements LoomTask {
 
     private final CompletableFuture<T> future;
     private final MainThreadDispatcher dispatcher;
     private final VirtualThreadExecutor executor;
+    private final Pipeline pipeline;
     private volatile boolean cancelled = false;
 
     LoomFuture(CompletableFuture<T> future, MainThreadDispatcher dispatcher, VirtualThreadExecutor executor) {
+        this(future, dispatcher, executor, new Pipeline());
+    }
+
+    LoomFuture(CompletableFuture<T> future, MainThreadDispatcher dispatcher, VirtualThreadExecutor executor, Pipeline pipeline) {
         this.future = future;
         this.dispatcher = dispatcher;
         this.executor = executor;
+        this.pipeline = pipeline;
+    }
+
+    private <R> LoomFuture<R> next(CompletableFuture<R> next) {
+        return new LoomFuture<>(next, this.dispatcher, this.executor, this.pipeline);
     }
 
     public <R> LoomFuture<R> thenApply(Function<? super T, ? extends R> mapper) {
-        CompletableFuture<R> next = this.future.thenApplyAsync(mapper, this.executor.executor());
-        return new LoomFuture<>(next, this.dispatcher, this.executor);
+        CompletableFuture<R> next = this.future.thenApplyAsync(this.pipeline.async(mapper), this.executor.executor());
+        return this.next(next);
     }
 
     public LoomFuture<Void> thenAccept(Consumer<? super T> consumer) {
-        CompletableFuture<Void> next = this.future.thenAcceptAsync(consumer, this.executor.executor());
-        return new LoomFuture<>(next, this.dispatcher, this.executor);
+        CompletableFuture<Void> next = this.future.thenApplyAsync(this.pipeline.async(value -> {
+            consumer.accept(value);
+            return null;
+        }), this.executor.executor());
+        return this.next(next);
     }
 
     public LoomFuture<Void> thenRun(Runnable action) {
-        CompletableFuture<Void> next = this.future.thenRunAsync(action, this.executor.executor());
-        return new LoomFuture<>(next, this.dispatcher, this.executor);
+        CompletableFuture<Void> next = this.future.thenApplyAsync(this.pipeline.async(ignored -> {
+            action.run();
+            return null;
+        }), this.executor.executor());
+        return this.next(next);
     }
 
     public <R> LoomFuture<R> thenCompose(Function<? super T, ? extends LoomFuture<R>> mapper) {
         CompletableFuture<R> next = this.future.thenComposeAsync(
-            t -> mapper.apply(t).toCompletableFuture(),
+            this.pipeline.async(t -> {
+                LoomFuture<R> inner = mapper.apply(t);
+                Runnable removeHook = this.pipeline.onCancel(inner::cancel);
+                // a long chain composes many inner futures, keep only the live ones reachable
+                inner.toCompletableFuture().whenComplete((result, error) -> removeHook.run());
+                return inner.toCompletableFuture();
+            }),
             this.executor.executor());
-        return new LoomFuture<>(next, this.dispatcher, this.executor);
+        return this.next(next);
+    }
+
+    /**
+     * Like {@link #thenApply(Function)}, but runs on whichever thread completed this future
+     * (or the caller, if already complete) instead of a new VT.
+     * Only for cheap, non-blocking transforms - a slow mapper stalls that thread,
+     * which may be the main thread.
+     */
+    public <R> LoomFuture<R> thenApplyInline(Function<? super T, ? extends R> mapper) {
+        CompletableFuture<R> next = this.future.thenApply(this.pipeline.guarded(mapper));
+        return this.next(next);
+    }
+
+    /**
+     * Inline variant of {@link #thenAccept(Consumer)}, see {@link #thenApplyInline(Function)}.
+     */
+    public LoomFuture<Void> thenAcceptInline(Consumer<? super T> consumer) {
+        CompletableFuture<Void> next = this.future.thenApply(this.pipeline.guarded(value -> {
+            consumer.accept(value);
+            return null;
+        }));
+        return this.next(next);
+    }
+
+    /**
+     * Inline variant of {@link #thenRun(Runnable)}, see {@link #thenApplyInline(Function)}.
+     */
+    public LoomFuture<Void> thenRunInline(Runnable action) {
+        CompletableFuture<Void> next = this.future.thenApply(this.pipeline.guarded(ignored -> {
+            action.run();
+            return null;
+        }));
+        return this.next(next);
+    }
+
+    /**
+     * Like {@link #thenApply(Function)}, but on the CPU-bound compute pool instead of a VT,
+     * see {@link LoomScheduler#computeAsync(java.util.function.Supplier)}.
+     */
+    public <R> LoomFuture<R> thenApplyCompute(Function<? super T, ? extends R> mapper) {
+        CompletableFuture<R> next = this.future.thenApplyAsync(this.pipeline.async(mapper), this.executor.compute());
+        return this.next(next);
     }
 
     public <R> LoomFuture<R> thenApplySync(Function<? super T, ? extends R> mapper) {
         CompletableFuture<R> next = new CompletableFuture<>();
 
-        this.future.whenCompleteAsync(
-            (result, error) -> {
-                if (error != null) {
-                    next.completeExceptionally(error);
-                    return;
+        this.whenCompleteOnMainThread(
+            next, result -> {
+                try {
+                    next.complete(mapper.apply(result));
+                }
+                catch (Throwable t) {
+                    next.completeExceptionally(t);
                 }
-                this.dispatcher.dispatch(() -> {
-                    try {
-                        next.complete(mapper.apply(result));
-                    }
-                    catch (Throwable t) {
-                        next.completeExceptionally(t);
-                    }
-                });
-            }, this.executor.executor());
+            });
 
-        return new LoomFuture<>(next, this.dispatcher, this.executor);
+        return this.next(next);
     }
 
     public LoomFuture<Void> thenAcceptSync(Consumer<? super T> consumer) {
         CompletableFuture<Void> next = new CompletableFuture<>();
 
-        this.future.whenCompleteAsync(
-            (result, error) -> {
-                if (error != null) {
-                    next.completeExceptionally(error);
-                    return;
+        this.whenCompleteOnMainThread(
+            next, result -> {
+                try {
+                    consumer.accept(result);
+                    next.complete(null);
+                }
+                catch (Throwable t) {
+                    next.completeExceptionally(t);
                 }
-                this.dispatcher.dispatch(() -> {
-                    try {
-                        consumer.accept(result);
-                        next.complete(null);
-                    }
-                    catch (Throwable t) {
-                        next.completeExceptionally(t);
-                    }
-                });
-            }, this.executor.executor());
+            });
 
-        return new LoomFuture<>(next, this.dispatcher, this.executor);
+        return this.next(next);
     }
 
     public LoomFuture<Void> thenRunSync(Runnable action) {
         CompletableFuture<Void> next = new CompletableFuture<>();
 
-        this.future.whenCompleteAsync(
-            (result, error) -> {
-                if (error != null) {
-                    next.completeExceptionally(error);
+        this.whenCompleteOnMainThread(
+            next, result -> {
+                try {
+                    action.run();
+                    next.complete(null);
+                }
+                catch (Throwable t) {
+                    next.completeExceptionally(t);
+                }
+            });
+
+        return this.next(next);
+    }
+
+    /**
+     * Runs the stage on the main thread once this future completes. Failures skip the stage.
+     * <p>
+     * The callback is registered without an executor, so it runs on whichever thread completed
+     * the future. If that is already the main thread (e.g. the previous sync stage), the stage
+     * runs inline in the same tick; otherwise it is dispatched directly, without a VT hop.
+     * A chain of sync stages therefore costs one dispatch, not one per stage.
+     * A stage whose pipeline was cancelled while it waited for the main thread does not run,
+     * and one the dispatcher rejects (e.g. a full {@link DispatchQueue.OverflowPolicy#REJECT} lane)
+     * fails with that rejection.
+     */
+    private void whenCompleteOnMainThread(CompletableFuture<?> next, Consumer<? super T> stage) {
+        this.future.whenComplete((result, error) -> {
+            if (error != null) {
+                next.completeExceptionally(error);
+                return;
+            }
+            this.runOnMainThread(next, () -> {
+                if (this.pipeline.isCancelled()) {
+                    next.cancel(false);
                     return;
                 }
-                this.dispatcher.dispatch(() -> {
-                    try {
-                        action.run();
-                        next.complete(null);
-                    }
-                    catch (Throwable t) {
-                        next.completeExceptionally(t);
-                    }
-                });
-            }, this.executor.executor());
+                stage.accept(result);
+            });
+        });
+    }
 
-        return new LoomFuture<>(next, this.dispatcher, this.executor);
+    // runs in a whenComplete callback, where CompletableFuture would swallow a rejected dispatch
+    private void runOnMainThread(CompletableFuture<?> next, Runnable task) {
+        try {
+            if (this.dispatcher.isMainThread()) {
+                task.run();
+                return;
+            }
+            this.dispatcher.dispatch(LoomEvents.syncHop(task));
+        }
+        catch (RuntimeException exception) {
+            next.completeExceptionally(exception);
+        }
     }
 
 
@@ -126,7 +216,7 @@ public class LoomFuture<T> implements LoomTask {
 
     public LoomFuture<T> exceptionallyRecover(Function<Throwable, T> handler) {
         CompletableFuture<T> next = this.future.exceptionally(handler);
-        return new LoomFuture<>(next, this.dispatcher, this.executor);
+        return this.next(next);
     }
 
     public LoomFuture<T> whenComplete(BiConsumer<? super T, ? super Throwable> handler) {
@@ -134,22 +224,41 @@ public class LoomFuture<T> implements LoomTask {
         return this;
     }
 
+    /**
+     * Runs the handler on the main thread once this future completes. The returned future
+     * completes like this one after the handler ran, or fails if the handler throws or the
+     * dispatcher rejects it.
+     */
     public LoomFuture<T> whenCompleteSync(BiConsumer<? super T, ? super Throwable> handler) {
-        this.future.whenCompleteAsync(
-            (result, error) -> {
-                this.dispatcher.dispatch(() -> handler.accept(result, error));
-            }, this.executor.executor());
-        return this;
+        CompletableFuture<T> next = new CompletableFuture<>();
+
+        this.future.whenComplete((result, error) -> this.runOnMainThread(next, () -> {
+            try {
+                handler.accept(result, error);
+            }
+            catch (Throwable t) {
+                next.completeExceptionally(t);
+                return;
+            }
+            if (error != null) {
+                next.completeExceptionally(error);
+            }
+            else {
+                next.complete(result);
+            }
+        }));
+
+        return this.next(next);
     }
 
     public LoomFuture<T> timeout(Duration timeout) {
         CompletableFuture<T> next = this.future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
-        return new LoomFuture<>(next, this.dispatcher, this.executor);
+        return this.next(next);
     }
 
     public LoomFuture<T> timeoutFallback(Duration timeout, T fallback) {
         CompletableFuture<T> next = this.future.completeOnTimeout(fallback, timeout.toMillis(), TimeUnit.MILLISECONDS);
-        return new LoomFuture<>(next, this.dispatcher, this.executor);
+        return this.next(next);
     }
 
     public CompletableFuture<T> toCompletableFuture() {
@@ -157,9 +266,15 @@ public class LoomFuture<T> implements LoomTask {
     }
 
 
+    /**
+     * Cancels the whole chain this future belongs to. That includes sibling branches: two
+     * stages added to the same future share its chain, so cancelling one branch cancels the other.
+     * Work that must survive a cancelled sibling belongs in a chain of its own, started from the scheduler.
+     */
     @Override
     public void cancel() {
         this.cancelled = true;
+        this.pipeline.cancel();
         this.future.cancel(true);
     }
 
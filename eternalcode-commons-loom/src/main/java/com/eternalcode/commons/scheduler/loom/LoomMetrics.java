@@ -0,0 +1,92 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Sink for scheduler timings. Every method has a no-op default, so an adapter
+ * (Micrometer, a plugin's own stats command) only overrides what it needs.
+ * <p>
+ * With {@link #NOOP} nothing is timed, so the hot path is unchanged.
+ * Calls come from VTs, the main thread and the timer thread, so implementations
+ * must be thread-safe and cheap. {@link LoomMetricsRecorder} is a ready-made one.
+ */
+public interface LoomMetrics {
+
+    LoomMetrics NOOP = new LoomMetrics() {
+    };
+
+    /**
+     * Gauge with the number of delayed and repeating tasks waiting on the timer.
+     */
+    String PENDING_DELAYED = "loom.delayed.pending";
+
+    /**
+     * Gauge with the compute workers running a task.
+     */
+    String COMPUTE_ACTIVE = "loom.compute.active";
+
+    /**
+     * Gauge with the compute tasks waiting for a worker.
+     */
+    String COMPUTE_QUEUED = "loom.compute.queued";
+
+    /**
+     * A VT started running, {@code waitNanos} after it was submitted.
+     */
+    default void asyncStarted(long waitNanos) {
+    }
+
+    /**
+     * A VT finished after running for {@code runNanos}.
+     */
+    default void asyncFinished(long runNanos) {
+    }
+
+    /**
+     * A {@link LoomScheduler#computeAsync(java.util.function.Supplier) compute task} waited
+     * {@code waitNanos} for a worker and ran for {@code runNanos}.
+     */
+    default void computeTask(long waitNanos, long runNanos) {
+    }
+
+    /**
+     * A dispatched sync task ran on the main thread.
+     *
+     * @param waitNanos time from dispatch until it started
+     * @param runNanos  time it ran
+     */
+    default void syncTask(long waitNanos, long runNanos) {
+    }
+
+    /**
+     * A {@link DispatchQueue} drained {@code tasks} tasks; the queue had been non-empty for
+     * {@code queueAgeNanos} when the drain started.
+     */
+    default void syncDrained(long queueAgeNanos, int tasks) {
+    }
+
+    /**
+     * A delayed or repeating task fired {@code lagNanos} after its deadline.
+     */
+    default void timerFired(long lagNanos) {
+    }
+
+    /**
+     * A {@link LoomScheduler#retryAsync(java.util.concurrent.Callable, RetryPolicy) retried call}
+     * finished after {@code attempts} attempts, successfully or for good.
+     */
+    default void retryFinished(int attempts, boolean succeeded) {
+    }
+
+    /**
+     * A {@link WriteBehindBatcher} handed {@code items} items to its sink, which took {@code flushNanos}.
+     */
+    default void batchFlushed(String name, int items, long flushNanos, boolean succeeded) {
+    }
+
+    /**
+     * Registers a value the sink may read whenever it wants, e.g. {@link #PENDING_DELAYED}.
+     */
+    default void gauge(String name, LongSupplier value) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory {@link LoomMetrics}: striped counters plus a {@link LatencyHistogram} per timing.
+ * <p>
+ * Tells apart the two usual causes of slow sync work: a high {@link #getSyncWait()} or
+ * {@link #getSyncQueueAge()} means tick queueing, a high {@link #getSyncRun()} means the task itself.
+ */
+public final class LoomMetricsRecorder implements LoomMetrics {
+
+    private final LatencyHistogram asyncWait = new LatencyHistogram();
+    private final LatencyHistogram asyncRun = new LatencyHistogram();
+    private final LatencyHistogram computeWait = new LatencyHistogram();
+    private final LatencyHistogram computeRun = new LatencyHistogram();
+    private final LatencyHistogram syncWait = new LatencyHistogram();
+    private final LatencyHistogram syncRun = new LatencyHistogram();
+    private final LatencyHistogram syncQueueAge = new LatencyHistogram();
+    private final LatencyHistogram timerLag = new LatencyHistogram();
+    private final LatencyHistogram batchFlush = new LatencyHistogram();
+
+    private final LongAdder asyncStarted = new LongAdder();
+    private final LongAdder asyncFinished = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder retryFailures = new LongAdder();
+    private final LongAdder batchedItems = new LongAdder();
+    private final LongAdder batchFailures = new LongAdder();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    @Override
+    public void asyncStarted(long waitNanos) {
+        this.asyncStarted.increment();
+        this.asyncWait.record(waitNanos);
+    }
+
+    @Override
+    public void asyncFinished(long runNanos) {
+        this.asyncFinished.increment();
+        this.asyncRun.record(runNanos);
+    }
+
+    @Override
+    public void computeTask(long waitNanos, long runNanos) {
+        this.computeWait.record(waitNanos);
+        this.computeRun.record(runNanos);
+    }
+
+    @Override
+    public void syncTask(long waitNanos, long runNanos) {
+        this.syncWait.record(waitNanos);
+        this.syncRun.record(runNanos);
+    }
+
+    @Override
+    public void syncDrained(long queueAgeNanos, int tasks) {
+        this.syncQueueAge.record(queueAgeNanos);
+    }
+
+    @Override
+    public void timerFired(long lagNanos) {
+        this.timerLag.record(lagNanos);
+    }
+
+    @Override
+    public void retryFinished(int attempts, boolean succeeded) {
+        this.retries.add(attempts - 1L);
+        if (!succeeded) {
+            this.retryFailures.increment();
+        }
+    }
+
+    @Override
+    public void batchFlushed(String name, int items, long flushNanos, boolean succeeded) {
+        this.batchFlush.record(flushNanos);
+        this.batchedItems.add(items);
+        if (!succeeded) {
+            this.batchFailures.increment();
+        }
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier value) {
+        this.gauges.put(name, value);
+    }
+
+    /**
+     * Submit to start of a VT.
+     */
+    public LatencyHistogram getAsyncWait() {
+        return this.asyncWait;
+    }
+
+    public LatencyHistogram getAsyncRun() {
+        return this.asyncRun;
+    }
+
+    /**
+     * Submit to start of a compute task, high when the CPU-bound lane is saturated.
+     */
+    public LatencyHistogram getComputeWait() {
+        return this.computeWait;
+    }
+
+    public LatencyHistogram getComputeRun() {
+        return this.computeRun;
+    }
+
+    /**
+     * Dispatch to start of a sync task.
+     */
+    public LatencyHistogram getSyncWait() {
+        return this.syncWait;
+    }
+
+    public LatencyHistogram getSyncRun() {
+        return this.syncRun;
+    }
+
+    /**
+     * How long the sync queue had been non-empty at each drain.
+     */
+    public LatencyHistogram getSyncQueueAge() {
+        return this.syncQueueAge;
+    }
+
+    /**
+     * How late delayed and repeating tasks fired.
+     */
+    public LatencyHistogram getTimerLag() {
+        return this.timerLag;
+    }
+
+    /**
+     * Sink time of write-behind flushes, all batchers together.
+     */
+    public LatencyHistogram getBatchFlush() {
+        return this.batchFlush;
+    }
+
+    /**
+     * VTs started but not finished yet.
+     */
+    public long getInFlightAsync() {
+        return Math.max(0L, this.asyncStarted.sum() - this.asyncFinished.sum());
+    }
+
+    /**
+     * Attempts after the first, summed over all retried calls.
+     */
+    public long getRetryCount() {
+        return this.retries.sum();
+    }
+
+    /**
+     * Retried calls that still failed after their last attempt.
+     */
+    public long getRetryFailureCount() {
+        return this.retryFailures.sum();
+    }
+
+    /**
+     * Items handed to write-behind sinks, including those of failed flushes.
+     */
+    public long getBatchedItemCount() {
+        return this.batchedItems.sum();
+    }
+
+    /**
+     * Write-behind flushes whose sink threw; their items are lost.
+     */
+    public long getBatchFailureCount() {
+        return this.batchFailures.sum();
+    }
+
+    /**
+     * @throws IllegalArgumentException if no gauge with that name was registered
+     */
+    public long getGauge(String name) {
+        LongSupplier gauge = this.gauges.get(name);
+        if (gauge == null) {
+            throw new IllegalArgumentException("Unknown gauge: " + name);
+        }
+        return gauge.getAsLong();
+    }
+}
@@ -1,6 +1,9 @@
 package com.eternalcode.commons.scheduler.loom;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -22,18 +25,114 @@ public interface LoomScheduler {
 
     <T> LoomFuture<T> callAsync(Callable<T> callable);
 
+    /**
+     * Runs CPU-bound work (pathfinding, schematic math, large sorts) on a work-stealing pool with
+     * one platform thread per core, so it does not hold VT carriers that I/O continuations need.
+     * Never block in it. Chain {@code thenApplySync} to get the result onto the main thread;
+     * cancelling interrupts the worker, which a long loop can check to stop early.
+     */
+    <T> LoomFuture<T> computeAsync(Supplier<T> supplier);
+
+    /**
+     * Executor running tasks with the same key (player UUID, island id) one at a time in submit
+     * order, and different keys in parallel. The name prefixes its gauges,
+     * e.g. {@code loom.serial.<name>.depth.max}.
+     */
+    <K> KeyedSerialExecutor<K> newKeyedSerialExecutor(String name);
+
+    /**
+     * Write-behind batcher handing items to the sink as lists on VT, once the policy's batch size
+     * or max latency is reached. Graceful {@code shutdown} writes what is left; {@link #shutdownNow()} drops it.
+     * The name prefixes its gauge, {@code loom.batch.<name>.queued}.
+     */
+    <T> WriteBehindBatcher<T> newWriteBehindBatcher(String name, WriteBehindPolicy policy, Consumer<List<T>> sink);
+
+    /**
+     * Loader merging {@code load(key)} calls made within the policy's window into one call of the
+     * batch function on VT. The function gets the distinct keys and returns the values it found.
+     */
+    <K, V> BatchLoader<K, V> newBatchLoader(BatchPolicy policy, Function<Set<K>, ? extends Map<K, V>> batchFunction);
+
+    /**
+     * Calls on VT, retrying failures as the policy says. Between attempts no VT is held,
+     * the backoff is a timer. Fails with the last error once attempts, deadline or the
+     * retry predicate say stop.
+     */
+    <T> LoomFuture<T> retryAsync(Callable<T> callable, RetryPolicy policy);
+
+    /**
+     * Fire-and-forget {@link #runAsync(Runnable)}: no handle, no future. An exception goes to
+     * the VT's uncaught exception handler instead of being kept in an unread future.
+     */
+    void execute(Runnable task);
+
+    /**
+     * Registers a bulkhead for the name-based async methods, of this scheduler and every other
+     * one on the same {@link VirtualThreadExecutor} (e.g. Folia's per-entity schedulers).
+     *
+     * @throws IllegalStateException if a bulkhead with the same name is already registered
+     */
+    Bulkhead registerBulkhead(Bulkhead bulkhead);
+
+    /**
+     * @throws IllegalArgumentException if no bulkhead with that name is registered
+     */
+    Bulkhead getBulkhead(String name);
+
+    /**
+     * Runs on VT once the named bulkhead has a free slot; fails with
+     * {@link java.util.concurrent.RejectedExecutionException} if it stays full.
+     */
+    LoomTask runAsync(String bulkhead, Runnable task);
+
+    <T> LoomFuture<T> supplyAsync(String bulkhead, Supplier<T> supplier);
+
+    <T> LoomFuture<T> callAsync(String bulkhead, Callable<T> callable);
+
     LoomTask runAsyncLater(Runnable task, Duration delay);
 
     LoomTask runAsyncTimer(Runnable task, Duration delay, Duration period);
 
+    /**
+     * Repeats on VT; the policy decides what happens when a run outlasts the period.
+     */
+    LoomTimer runAsyncTimer(Runnable task, Duration delay, Duration period, TimerPolicy policy);
+
     LoomTask runSync(Runnable task);
 
+    /**
+     * Runs on main thread in the given lane. {@link DispatchPriority#CRITICAL} tasks
+     * run before queued normal and background work.
+     */
+    LoomTask runSync(Runnable task, DispatchPriority priority);
+
+    /**
+     * Fire-and-forget {@link #runSync(Runnable)}: only the task itself is queued.
+     * An exception goes to the dispatcher's error handler.
+     */
+    void executeSync(Runnable task);
+
+    void executeSync(Runnable task, DispatchPriority priority);
+
+    /**
+     * Runs on main thread, collapsing redundant work: if another task with an equal key
+     * is still waiting, it is replaced (and its handle cancelled) so only the latest runs.
+     */
+    LoomTask runSyncCoalesced(Object key, Runnable task);
+
     <T> LoomFuture<T> supplySync(Supplier<T> supplier);
 
+    <T> LoomFuture<T> supplySync(Supplier<T> supplier, DispatchPriority priority);
+
     LoomTask runSyncLater(Runnable task, Duration delay);
 
     LoomTask runSyncTimer(Runnable task, Duration delay, Duration period);
 
+    /**
+     * Repeats on main thread; a run counts as finished once the dispatched task has run.
+     */
+    LoomTimer runSyncTimer(Runnable task, Duration delay, Duration period, TimerPolicy policy);
+
 
     /**
      * Async work -> sync consumption. Common pattern shortcut.
@@ -42,14 +141,56 @@ public interface LoomScheduler {
 
     <T, R> LoomTask runAsyncThenSync(Supplier<T> asyncSupplier, Function<T, R> transformer, Consumer<R> syncConsumer);
 
+    /**
+     * Runs the body on a VT with a new {@link LoomScope} for structured fan-out.
+     * Subtasks still running when the policy triggers, the deadline passes or the returned
+     * future is cancelled are interrupted. Subtasks never outlive the body.
+     */
+    <T> LoomFuture<T> supplyScoped(LoomScope.Policy policy, Duration deadline, LoomScope.Body<T> body);
+
+    <T> LoomFuture<T> supplyScoped(LoomScope.Policy policy, LoomScope.Body<T> body);
+
+    /**
+     * Trailing call: runs the task on VT once no call with an equal key came for the delay.
+     * Earlier tasks of a burst are dropped. Keys are compared with equals, e.g. a record
+     * of player UUID and event type.
+     */
+    void debounceAsync(Object key, Duration delay, Runnable task);
+
+    void debounceSync(Object key, Duration delay, Runnable task);
+
+    /**
+     * Leading call: runs the task on VT unless a call with an equal key ran less than the
+     * period ago, in which case it is dropped.
+     *
+     * @return whether the task was started
+     */
+    boolean throttleAsync(Object key, Duration period, Runnable task);
+
+    boolean throttleSync(Object key, Duration period, Runnable task);
+
     /**
      * Non-blocking delay. Does NOT hold any thread.
      */
     LoomFuture<Void> delay(Duration duration);
 
+    /**
+     * Completes once the permits are taken from the limiter. Waiting happens on the delay timer,
+     * no thread is held: {@code scheduler.acquire(webhookLimit, 1).thenRun(() -> webhook.send(message))}.
+     */
+    LoomFuture<Void> acquire(RateLimiter limiter, int permits);
+
+    LoomFuture<Void> acquire(RateLimiter limiter);
+
     boolean isMainThread();
 
     boolean shutdown(Duration timeout);
 
+    /**
+     * Phased shutdown that reports the async tasks still running after the drain budget.
+     * See {@link VirtualThreadExecutor#shutdown(ShutdownPlan)}.
+     */
+    ShutdownReport shutdown(ShutdownPlan plan);
+
     void shutdownNow();
 }
@@ -2,9 +2,15 @@ package com.eternalcode.commons.scheduler.loom;
 
 import com.eternalcode.commons.scheduler.loom.VirtualThreadExecutor.DelayedTask;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -15,130 +21,419 @@ import java.util.function.Supplier;
  */
 public class LoomSchedulerImpl implements LoomScheduler {
 
+    private static final Duration TICK = Duration.ofMillis(50);
+
     private final VirtualThreadExecutor vtExecutor;
     private final MainThreadDispatcher dispatcher;
+    private final LoomMetrics metrics;
     private final AtomicBoolean shutdown = new AtomicBoolean(false);
 
     public LoomSchedulerImpl(MainThreadDispatcher dispatcher) {
-        this.dispatcher = dispatcher;
-        this.vtExecutor = new VirtualThreadExecutor();
+        this(dispatcher, new VirtualThreadExecutor(), LoomMetrics.NOOP);
     }
 
     public LoomSchedulerImpl(MainThreadDispatcher dispatcher, VirtualThreadExecutor vtExecutor) {
-        this.dispatcher = dispatcher;
+        this(dispatcher, vtExecutor, LoomMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics receives async and sync task timings, timer lag and the pending delayed gauge
+     */
+    public LoomSchedulerImpl(MainThreadDispatcher dispatcher, LoomMetrics metrics) {
+        this(dispatcher, new VirtualThreadExecutor(VirtualThreadExecutor.DEFAULT_TICK_RESOLUTION, metrics), metrics);
+    }
+
+    /**
+     * @param vtExecutor should report to the same metrics, see {@link VirtualThreadExecutor#VirtualThreadExecutor(Duration, LoomMetrics)}
+     */
+    public LoomSchedulerImpl(MainThreadDispatcher dispatcher, VirtualThreadExecutor vtExecutor, LoomMetrics metrics) {
+        this.dispatcher = metrics == LoomMetrics.NOOP ? dispatcher : new MeteredDispatcher(dispatcher, metrics);
         this.vtExecutor = vtExecutor;
+        this.metrics = metrics;
+        metrics.gauge(LoomMetrics.PENDING_DELAYED, vtExecutor::pendingDelayed);
+        metrics.gauge(LoomMetrics.COMPUTE_ACTIVE, () -> vtExecutor.compute().getActiveCount());
+        metrics.gauge(LoomMetrics.COMPUTE_QUEUED, () -> vtExecutor.compute().getQueuedCount());
     }
 
     @Override
     public LoomTask runAsync(Runnable task) {
-        if (this.shutdown.get()) {
+        if (this.isShutdown()) {
             return LoomTask.EMPTY;
         }
-        Future<?> future = this.vtExecutor.submit(task);
+        Future<?> future = this.vtExecutor.submit(LoomEvents.submitted(task, true));
         return new SimpleLoomTask(future, true, false);
     }
 
+    @Override
+    public void execute(Runnable task) {
+        if (this.isShutdown()) {
+            return;
+        }
+        this.vtExecutor.execute(LoomEvents.submitted(task, true));
+    }
+
     @Override
     public <T> LoomFuture<T> supplyAsync(Supplier<T> supplier) {
-        if (this.shutdown.get()) {
+        if (this.isShutdown()) {
             CompletableFuture<T> failed = new CompletableFuture<>();
             failed.completeExceptionally(new IllegalStateException("Scheduler shut down"));
             return new LoomFuture<>(failed, this.dispatcher, this.vtExecutor);
         }
-        CompletableFuture<T> future = CompletableFuture.supplyAsync(supplier, this.vtExecutor.executor());
-        return new LoomFuture<>(future, this.dispatcher, this.vtExecutor);
+        Pipeline pipeline = new Pipeline();
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(pipeline.async(LoomEvents.submitted(supplier, true)), this.vtExecutor.executor());
+        return new LoomFuture<>(future, this.dispatcher, this.vtExecutor, pipeline);
+    }
+
+    @Override
+    public <T> LoomFuture<T> computeAsync(Supplier<T> supplier) {
+        if (this.isShutdown()) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("Scheduler shut down"));
+            return new LoomFuture<>(failed, this.dispatcher, this.vtExecutor);
+        }
+        Pipeline pipeline = new Pipeline();
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(pipeline.async(LoomEvents.submitted(supplier, true)), this.vtExecutor.compute());
+        return new LoomFuture<>(future, this.dispatcher, this.vtExecutor, pipeline);
     }
 
     @Override
     public <T> LoomFuture<T> callAsync(Callable<T> callable) {
-        if (this.shutdown.get()) {
+        return this.submitCallable(LoomEvents.submitted(callable));
+    }
+
+    private <T> LoomFuture<T> submitCallable(Callable<T> callable) {
+        if (this.isShutdown()) {
             CompletableFuture<T> failed = new CompletableFuture<>();
             failed.completeExceptionally(new IllegalStateException("Scheduler shut down"));
             return new LoomFuture<>(failed, this.dispatcher, this.vtExecutor);
         }
+        Pipeline pipeline = new Pipeline();
+        Callable<T> stage = pipeline.async(callable);
         CompletableFuture<T> future = new CompletableFuture<>();
-        this.vtExecutor.submit(() -> {
+        Future<?> submitted = this.vtExecutor.submit(() -> {
             try {
-                future.complete(callable.call());
+                future.complete(stage.call());
             }
             catch (Throwable t) {
                 future.completeExceptionally(t);
             }
         });
-        return new LoomFuture<>(future, this.dispatcher, this.vtExecutor);
+        failIfNotSubmitted(submitted, future);
+        return new LoomFuture<>(future, this.dispatcher, this.vtExecutor, pipeline);
+    }
+
+    // the task catches everything, so a failed submit future means it never ran: shut down after the check
+    private static void failIfNotSubmitted(Future<?> submitted, CompletableFuture<?> future) {
+        if (submitted.state() == Future.State.FAILED) {
+            future.completeExceptionally(new IllegalStateException("Scheduler shut down", submitted.exceptionNow()));
+        }
+    }
+
+    @Override
+    public <K> KeyedSerialExecutor<K> newKeyedSerialExecutor(String name) {
+        return new KeyedSerialExecutor<>(name, this.dispatcher, this.vtExecutor, this.metrics);
+    }
+
+    @Override
+    public <T> WriteBehindBatcher<T> newWriteBehindBatcher(String name, WriteBehindPolicy policy, Consumer<List<T>> sink) {
+        if (this.isShutdown()) {
+            throw new IllegalStateException("Scheduler shut down");
+        }
+        WriteBehindBatcher<T> batcher = new WriteBehindBatcher<>(name, policy, sink, this.dispatcher, this.vtExecutor, this.metrics);
+        this.vtExecutor.register(batcher);
+        return batcher;
+    }
+
+    @Override
+    public <K, V> BatchLoader<K, V> newBatchLoader(BatchPolicy policy, Function<Set<K>, ? extends Map<K, V>> batchFunction) {
+        return new BatchLoader<>(policy, batchFunction, this.dispatcher, this.vtExecutor);
+    }
+
+    @Override
+    public <T> LoomFuture<T> retryAsync(Callable<T> callable, RetryPolicy policy) {
+        if (this.isShutdown()) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("Scheduler shut down"));
+            return new LoomFuture<>(failed, this.dispatcher, this.vtExecutor);
+        }
+
+        Pipeline pipeline = new Pipeline();
+        Retry<T> retry = new Retry<>(pipeline.async(LoomEvents.submitted(callable)), policy, pipeline);
+        // one hook for the whole run, not one per backoff
+        pipeline.onCancel(retry::cancel);
+        retry.attempt(1);
+        return new LoomFuture<>(retry.future, this.dispatcher, this.vtExecutor, pipeline);
+    }
+
+    // this scheduler, or on Folia the shared executor under it
+    private boolean isShutdown() {
+        return this.shutdown.get() || this.vtExecutor.isShutdown();
+    }
+
+    private final class Retry<T> {
+
+        private final Callable<T> callable;
+        private final RetryPolicy policy;
+        private final Pipeline pipeline;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final boolean hasDeadline;
+        private final long deadlineNanos;
+        // the backoff being waited out, cancelled with the pipeline
+        private volatile CompletableFuture<Void> backoff;
+
+        Retry(Callable<T> callable, RetryPolicy policy, Pipeline pipeline) {
+            this.callable = callable;
+            this.policy = policy;
+            this.pipeline = pipeline;
+            Duration deadline = policy.getDeadline();
+            this.hasDeadline = deadline != null;
+            this.deadlineNanos = deadline == null ? Long.MAX_VALUE : System.nanoTime() + deadline.toNanos();
+        }
+
+        void attempt(int attempt) {
+            try {
+                // not vtExecutor.execute(), which drops the task once shut down
+                LoomSchedulerImpl.this.vtExecutor.executor().execute(() -> this.run(attempt));
+            }
+            catch (RejectedExecutionException exception) {
+                this.future.completeExceptionally(new IllegalStateException("Scheduler shut down", exception));
+            }
+        }
+
+        private void run(int attempt) {
+            if (this.future.isDone()) {
+                return;
+            }
+
+            T result;
+            try {
+                result = this.callable.call();
+            }
+            catch (Throwable error) {
+                long backoff = this.policy.backoffNanos(attempt);
+                boolean pastDeadline = this.hasDeadline && System.nanoTime() + backoff - this.deadlineNanos > 0;
+                if (attempt >= this.policy.getMaxAttempts() || pastDeadline || this.pipeline.isCancelled()
+                    || LoomSchedulerImpl.this.isShutdown() || !this.policy.isRetryable(error)) {
+                    LoomSchedulerImpl.this.metrics.retryFinished(attempt, false);
+                    this.future.completeExceptionally(error);
+                    return;
+                }
+
+                CompletableFuture<Void> delay = LoomSchedulerImpl.this.vtExecutor.delay(Duration.ofNanos(backoff));
+                this.backoff = delay;
+                if (this.pipeline.isCancelled()) {
+                    // cancelled after the check above, the hook may have missed this delay
+                    delay.cancel(false);
+                }
+                delay.whenComplete((ignored, failure) -> {
+                    if (failure == null) {
+                        this.attempt(attempt + 1);
+                        return;
+                    }
+                    // shut down during the backoff, or cancelled
+                    LoomSchedulerImpl.this.metrics.retryFinished(attempt, false);
+                    this.future.completeExceptionally(new IllegalStateException("Scheduler shut down during retry backoff", error));
+                });
+                return;
+            }
+
+            LoomSchedulerImpl.this.metrics.retryFinished(attempt, true);
+            this.future.complete(result);
+        }
+
+        void cancel() {
+            this.future.cancel(true);
+            CompletableFuture<Void> delay = this.backoff;
+            if (delay != null) {
+                delay.cancel(false);
+            }
+        }
+    }
+
+    @Override
+    public Bulkhead registerBulkhead(Bulkhead bulkhead) {
+        this.vtExecutor.register(bulkhead);
+        return bulkhead;
+    }
+
+    @Override
+    public Bulkhead getBulkhead(String name) {
+        return this.vtExecutor.bulkhead(name);
+    }
+
+    @Override
+    public LoomTask runAsync(String bulkhead, Runnable task) {
+        Bulkhead target = this.getBulkhead(bulkhead);
+        Runnable event = LoomEvents.submitted(task, true);
+        if (this.isShutdown()) {
+            return LoomTask.EMPTY;
+        }
+        Future<?> future = this.vtExecutor.submit(() -> target.call(Executors.callable(event)));
+        return new SimpleLoomTask(future, true, false);
+    }
+
+    @Override
+    public <T> LoomFuture<T> supplyAsync(String bulkhead, Supplier<T> supplier) {
+        return callAsync(bulkhead, supplier::get);
+    }
+
+    @Override
+    public <T> LoomFuture<T> callAsync(String bulkhead, Callable<T> callable) {
+        Bulkhead target = this.getBulkhead(bulkhead);
+        Callable<T> task = LoomEvents.submitted(callable);
+        return this.submitCallable(() -> target.call(task));
     }
 
     @Override
     public LoomTask runAsyncLater(Runnable task, Duration delay) {
-        if (this.shutdown.get()) {
+        if (this.isShutdown()) {
             return LoomTask.EMPTY;
         }
-        VirtualThreadExecutor.DelayedTask dt = this.vtExecutor.submitDelayed(task, delay);
+        VirtualThreadExecutor.DelayedTask dt = this.vtExecutor.submitDelayed(LoomEvents.scheduled(task, true, false), delay);
         return new DelayedLoomTask(dt, true, false);
     }
 
     @Override
     public LoomTask runAsyncTimer(Runnable task, Duration delay, Duration period) {
-        if (this.shutdown.get()) {
-            return LoomTask.EMPTY;
+        return runAsyncTimer(task, delay, period, TimerPolicy.CONCURRENT);
+    }
+
+    @Override
+    public LoomTimer runAsyncTimer(Runnable task, Duration delay, Duration period, TimerPolicy policy) {
+        if (this.isShutdown()) {
+            return LoomTimer.EMPTY;
         }
-        VirtualThreadExecutor.DelayedTask dt = this.vtExecutor.submitRepeating(task, delay, period);
-        return new DelayedLoomTask(dt, true, true);
+        return this.vtExecutor.scheduleTimer(LoomEvents.scheduled(task, true, true), delay, period, policy, this.vtExecutor.executor(), true);
     }
 
     @Override
     public LoomTask runSync(Runnable task) {
-        if (this.shutdown.get()) {
+        return runSync(task, DispatchPriority.NORMAL);
+    }
+
+    @Override
+    public LoomTask runSync(Runnable task, DispatchPriority priority) {
+        if (this.isShutdown()) {
             return LoomTask.EMPTY;
         }
+        Runnable event = LoomEvents.submitted(task, false);
         CompletableFuture<Void> future = new CompletableFuture<>();
         this.dispatcher.dispatch(() -> {
             try {
-                task.run();
+                event.run();
                 future.complete(null);
             }
             catch (Throwable t) {
                 future.completeExceptionally(t);
             }
-        });
+        }, priority);
+        return new SimpleLoomTask(future, false, false);
+    }
+
+    @Override
+    public void executeSync(Runnable task) {
+        this.executeSync(task, DispatchPriority.NORMAL);
+    }
+
+    @Override
+    public void executeSync(Runnable task, DispatchPriority priority) {
+        if (this.isShutdown()) {
+            return;
+        }
+        this.dispatcher.dispatch(LoomEvents.submitted(task, false), priority);
+    }
+
+    @Override
+    public LoomTask runSyncCoalesced(Object key, Runnable task) {
+        if (this.isShutdown()) {
+            return LoomTask.EMPTY;
+        }
+        // a superseded FutureTask is cancelled by the dispatcher, so its handle reports it
+        FutureTask<Void> future = new FutureTask<>(LoomEvents.submitted(task, false), null);
+        this.dispatcher.dispatchCoalesced(key, future);
         return new SimpleLoomTask(future, false, false);
     }
 
     @Override
     public <T> LoomFuture<T> supplySync(Supplier<T> supplier) {
-        if (this.shutdown.get()) {
+        return supplySync(supplier, DispatchPriority.NORMAL);
+    }
+
+    @Override
+    public <T> LoomFuture<T> supplySync(Supplier<T> supplier, DispatchPriority priority) {
+        if (this.isShutdown()) {
             CompletableFuture<T> failed = new CompletableFuture<>();
             failed.completeExceptionally(new IllegalStateException("Scheduler shut down"));
             return new LoomFuture<>(failed, this.dispatcher, this.vtExecutor);
         }
+        Supplier<T> event = LoomEvents.submitted(supplier, false);
+        Pipeline pipeline = new Pipeline();
         CompletableFuture<T> future = new CompletableFuture<>();
         this.dispatcher.dispatch(() -> {
             try {
-                future.complete(supplier.get());
+                pipeline.checkNotCancelled();
+                future.complete(event.get());
             }
             catch (Throwable t) {
                 future.completeExceptionally(t);
             }
-        });
-        return new LoomFuture<>(future, this.dispatcher, this.vtExecutor);
+        }, priority);
+        return new LoomFuture<>(future, this.dispatcher, this.vtExecutor, pipeline);
     }
 
     @Override
     public LoomTask runSyncLater(Runnable task, Duration delay) {
-        if (this.shutdown.get()) {
+        if (this.isShutdown()) {
             return LoomTask.EMPTY;
         }
-        DelayedTask dt = this.vtExecutor.submitDelayed(() -> this.dispatcher.dispatch(task), delay);
+        Runnable event = LoomEvents.scheduled(task, false, false);
+        if (this.dispatcher.supportsTickScheduling()) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            this.dispatcher.dispatchLater(() -> {
+                // cancelled, or the scheduler shut down meanwhile
+                if (future.isDone() || this.isShutdown()) {
+                    return;
+                }
+                try {
+                    event.run();
+                    future.complete(null);
+                }
+                catch (Throwable t) {
+                    future.completeExceptionally(t);
+                    throw t;
+                }
+            }, () -> future.cancel(false), toTicks(delay));
+            return new SimpleLoomTask(future, false, false);
+        }
+        DelayedTask dt = this.vtExecutor.submitDelayed(() -> this.dispatcher.dispatch(event), delay);
         return new DelayedLoomTask(dt, false, false);
     }
 
     @Override
     public LoomTask runSyncTimer(Runnable task, Duration delay, Duration period) {
-        if (this.shutdown.get()) {
+        if (this.isShutdown()) {
             return LoomTask.EMPTY;
         }
-        DelayedTask dt = this.vtExecutor.submitRepeating(() -> this.dispatcher.dispatch(task), delay, period);
-        return new DelayedLoomTask(dt, false, true);
+        if (this.dispatcher.supportsTickScheduling()) {
+            Runnable event = LoomEvents.scheduled(task, false, true);
+            TickTimerLoomTask timer = new TickTimerLoomTask(this.vtExecutor.tickTimers());
+            MainThreadDispatcher.Cancellable handle = this.dispatcher.dispatchTimer(() -> {
+                if (!timer.isCancelled()) {
+                    event.run();
+                }
+            }, toTicks(delay), toTicks(period));
+            timer.attach(handle);
+            return timer;
+        }
+        return runSyncTimer(task, delay, period, TimerPolicy.CONCURRENT);
+    }
+
+    @Override
+    public LoomTimer runSyncTimer(Runnable task, Duration delay, Duration period, TimerPolicy policy) {
+        if (this.isShutdown()) {
+            return LoomTimer.EMPTY;
+        }
+        return this.vtExecutor.scheduleTimer(LoomEvents.scheduled(task, false, true), delay, period, policy, this.dispatcher::dispatch, false);
     }
 
     @Override
@@ -153,11 +448,143 @@ public class LoomSchedulerImpl implements LoomScheduler {
         return supplyAsync(asyncSupplier).thenApply(transformer).thenAcceptSync(syncConsumer);
     }
 
+    @Override
+    public <T> LoomFuture<T> supplyScoped(LoomScope.Policy policy, Duration deadline, LoomScope.Body<T> body) {
+        if (this.isShutdown()) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("Scheduler shut down"));
+            return new LoomFuture<>(failed, this.dispatcher, this.vtExecutor);
+        }
+
+        LoomScope scope = new LoomScope(policy, deadline, this.vtExecutor.executor());
+        Pipeline pipeline = new Pipeline();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> owner = this.vtExecutor.submit(() -> {
+            // completed after close, so the result is seen once the subtasks are done
+            T result;
+            try {
+                result = body.run(scope);
+            }
+            catch (Throwable t) {
+                scope.close();
+                future.completeExceptionally(t);
+                return;
+            }
+            scope.close();
+            future.complete(result);
+        });
+        failIfNotSubmitted(owner, future);
+
+        // e.g. player quit - stop the whole fan-out, not just the result
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                scope.cancel();
+                owner.cancel(true);
+            }
+        });
+        // a later stage cancelled the chain
+        pipeline.onCancel(() -> future.cancel(true));
+        return new LoomFuture<>(future, this.dispatcher, this.vtExecutor, pipeline);
+    }
+
+    @Override
+    public <T> LoomFuture<T> supplyScoped(LoomScope.Policy policy, LoomScope.Body<T> body) {
+        return supplyScoped(policy, null, body);
+    }
+
     @Override
     public LoomFuture<Void> delay(Duration duration) {
         return new LoomFuture<>(this.vtExecutor.delay(duration), this.dispatcher, this.vtExecutor);
     }
 
+    @Override
+    public void debounceAsync(Object key, Duration delay, Runnable task) {
+        if (this.isShutdown()) {
+            return;
+        }
+        this.vtExecutor.debouncer().debounce(key, delay, LoomEvents.scheduled(task, true, false), this.vtExecutor::execute);
+    }
+
+    @Override
+    public void debounceSync(Object key, Duration delay, Runnable task) {
+        if (this.isShutdown()) {
+            return;
+        }
+        this.vtExecutor.debouncer().debounce(key, delay, LoomEvents.scheduled(task, false, false), this.dispatcher::dispatch);
+    }
+
+    @Override
+    public boolean throttleAsync(Object key, Duration period, Runnable task) {
+        if (this.isShutdown()) {
+            return false;
+        }
+        return this.vtExecutor.debouncer().throttle(key, period, LoomEvents.submitted(task, true), this.vtExecutor::execute);
+    }
+
+    @Override
+    public boolean throttleSync(Object key, Duration period, Runnable task) {
+        if (this.isShutdown()) {
+            return false;
+        }
+        return this.vtExecutor.debouncer().throttle(key, period, LoomEvents.submitted(task, false), this.dispatcher::dispatch);
+    }
+
+    @Override
+    public LoomFuture<Void> acquire(RateLimiter limiter, int permits) {
+        if (this.isShutdown()) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("Scheduler shut down"));
+            return new LoomFuture<>(failed, this.dispatcher, this.vtExecutor);
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        this.tryAcquire(limiter, permits, future);
+        return new LoomFuture<>(future, this.dispatcher, this.vtExecutor);
+    }
+
+    @Override
+    public LoomFuture<Void> acquire(RateLimiter limiter) {
+        return this.acquire(limiter, 1);
+    }
+
+    // on the caller first, then on a VT after each wait: completing the future runs the
+    // caller's stages, which must not hold up the timer thread
+    private void tryAcquire(RateLimiter limiter, int permits, CompletableFuture<Void> future) {
+        if (future.isDone()) {
+            // cancelled while waiting
+            return;
+        }
+
+        try {
+            if (limiter.tryAcquire(permits)) {
+                future.complete(null);
+                return;
+            }
+            if (this.isShutdown()) {
+                future.completeExceptionally(new IllegalStateException("Scheduler shut down"));
+                return;
+            }
+
+            Duration wait = Duration.ofNanos(limiter.nanosUntilAvailable(permits));
+            this.vtExecutor.delay(wait).whenComplete((ignored, failure) -> {
+                if (failure != null) {
+                    // shut down during the wait
+                    future.completeExceptionally(new IllegalStateException("Scheduler shut down", failure));
+                    return;
+                }
+                try {
+                    this.vtExecutor.executor().execute(() -> this.tryAcquire(limiter, permits, future));
+                }
+                catch (RejectedExecutionException exception) {
+                    future.completeExceptionally(new IllegalStateException("Scheduler shut down", exception));
+                }
+            });
+        }
+        catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
     @Override
     public boolean isMainThread() {
         return this.dispatcher.isMainThread();
@@ -171,12 +598,90 @@ public class LoomSchedulerImpl implements LoomScheduler {
         return this.vtExecutor.shutdown(timeout);
     }
 
+    @Override
+    public ShutdownReport shutdown(ShutdownPlan plan) {
+        this.shutdown.set(true);
+        return this.vtExecutor.shutdown(plan);
+    }
+
     @Override
     public void shutdownNow() {
         this.shutdown.set(true);
         this.vtExecutor.shutdownNow();
     }
 
+    /**
+     * Whole ticks for the platform scheduler, rounded up so a task never runs early; at least
+     * one tick so a timer never degrades into a one-shot task or a busy loop.
+     */
+    static long toTicks(Duration duration) {
+        long ticks = duration.dividedBy(TICK);
+        if (TICK.multipliedBy(ticks).compareTo(duration) < 0) {
+            ticks++;
+        }
+        return Math.max(1L, ticks);
+    }
+
+    /**
+     * Times dispatched sync tasks. Coalesced tasks pass through unwrapped, the queue
+     * has to see the original task to cancel a superseded {@link Future}.
+     */
+    private record MeteredDispatcher(MainThreadDispatcher delegate, LoomMetrics metrics) implements MainThreadDispatcher {
+
+        @Override
+        public void dispatch(Runnable task) {
+            this.delegate.dispatch(this.metered(task));
+        }
+
+        @Override
+        public void dispatch(Runnable task, DispatchPriority priority) {
+            this.delegate.dispatch(this.metered(task), priority);
+        }
+
+        private Runnable metered(Runnable task) {
+            long dispatched = System.nanoTime();
+            return () -> {
+                long start = System.nanoTime();
+                try {
+                    task.run();
+                }
+                finally {
+                    this.metrics.syncTask(start - dispatched, System.nanoTime() - start);
+                }
+            };
+        }
+
+        @Override
+        public void dispatchCoalesced(Object key, Runnable task) {
+            this.delegate.dispatchCoalesced(key, task);
+        }
+
+        @Override
+        public boolean isMainThread() {
+            return this.delegate.isMainThread();
+        }
+
+        @Override
+        public void dispatchLater(Runnable task, long ticks) {
+            this.delegate.dispatchLater(task, ticks);
+        }
+
+        @Override
+        public void dispatchLater(Runnable task, Runnable retired, long ticks) {
+            this.delegate.dispatchLater(task, retired, ticks);
+        }
+
+        @Override
+        public Cancellable dispatchTimer(Runnable task, long delay, long period) {
+            return this.delegate.dispatchTimer(task, delay, period);
+        }
+
+        @Override
+        public boolean supportsTickScheduling() {
+            return this.delegate.supportsTickScheduling();
+        }
+    }
+
     private static final class SimpleLoomTask implements LoomTask {
         private final Future<?> future;
         private final boolean async;
@@ -228,6 +733,68 @@ public class LoomSchedulerImpl implements LoomScheduler {
         }
     }
 
+    /**
+     * Repeating task on the dispatcher's native tick scheduler.
+     */
+    private static final class TickTimerLoomTask implements LoomTask {
+        private final Set<LoomTask> registry;
+        private volatile MainThreadDispatcher.Cancellable handle;
+        private volatile boolean cancelled = false;
+
+        TickTimerLoomTask(Set<LoomTask> registry) {
+            this.registry = registry;
+            registry.add(this);
+        }
+
+        void attach(MainThreadDispatcher.Cancellable handle) {
+            this.handle = handle;
+            // cancelled before the platform returned the handle
+            if (this.cancelled) {
+                handle.cancel();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.registry.remove(this);
+            MainThreadDispatcher.Cancellable current = this.handle;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return !this.cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return this.cancelled;
+        }
+
+        @Override
+        public boolean async() {
+            return false;
+        }
+
+        @Override
+        public boolean repeating() {
+            return true;
+        }
+
+        @Override
+        public Future<?> asFuture() {
+            return null;
+        }
+    }
+
     private record DelayedLoomTask(DelayedTask task, boolean async, boolean repeating) implements LoomTask {
 
         @Override
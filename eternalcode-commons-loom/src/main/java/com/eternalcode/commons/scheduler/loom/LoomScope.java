@@ -0,0 +1,409 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Structured fork/join scope - each {@link #fork(Callable)} runs on its own VT.
+ * <p>
+ * Modeled on {@code StructuredTaskScope} (still a preview API in Java 21). When the
+ * {@link Policy} condition is met, the deadline passes or the scope is cancelled, the scope
+ * shuts down and interrupts every subtask still running, so siblings do not run to completion.
+ * The scope closes once the body returns and waits for the interrupted subtasks to finish, up to
+ * its deadline.
+ * <p>
+ * Created by {@link LoomScheduler#supplyScoped(Policy, Duration, Body)}; the body forks,
+ * calls {@link #join()} and reads the {@link Subtask}s:
+ * <pre>{@code
+ * scheduler.supplyScoped(LoomScope.Policy.SHUTDOWN_ON_FAILURE, Duration.ofSeconds(2), scope -> {
+ *     LoomScope.Subtask<Balance> balance = scope.fork(() -> economy.load(uuid));
+ *     LoomScope.Subtask<List<Home>> homes = scope.fork(() -> homeRepository.load(uuid));
+ *     scope.join();
+ *     return new Profile(balance.get(), homes.get());
+ * }).thenAcceptSync(profile -> ...);
+ * }</pre>
+ */
+public final class LoomScope {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final Policy policy;
+    private final ExecutorService executor;
+    private final long deadlineNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = this.lock.newCondition();
+
+    // guarded by lock
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private int running = 0;
+    private boolean shutdown = false;
+    private boolean cancelled = false;
+    private boolean timedOut = false;
+    private Throwable firstFailure;
+    private Subtask<?> firstSuccess;
+
+    LoomScope(Policy policy, Duration deadline, ExecutorService executor) {
+        this.policy = policy;
+        this.executor = executor;
+        this.deadlineNanos = deadline == null ? NO_DEADLINE : System.nanoTime() + deadline.toNanos();
+    }
+
+    /**
+     * Starts the task on a new VT. After shutdown the task is not started and its
+     * subtask stays {@link Subtask.State#UNAVAILABLE}.
+     */
+    public <T> Subtask<T> fork(Callable<? extends T> task) {
+        Subtask<T> subtask = new Subtask<>(this, task);
+
+        this.lock.lock();
+        try {
+            if (this.shutdown) {
+                return subtask;
+            }
+            this.subtasks.add(subtask);
+            this.running++;
+        }
+        finally {
+            this.lock.unlock();
+        }
+
+        try {
+            subtask.future = this.executor.submit(subtask::run);
+        }
+        catch (RejectedExecutionException exception) {
+            if (subtask.claim()) {
+                this.complete(subtask, null, exception);
+            }
+            return subtask;
+        }
+
+        // shutdown raced the submit and could not see the future yet
+        this.lock.lock();
+        try {
+            if (this.shutdown) {
+                this.stopLocked(subtask);
+            }
+        }
+        finally {
+            this.lock.unlock();
+        }
+        return subtask;
+    }
+
+    /**
+     * Waits until all subtasks are done or the scope shuts down.
+     *
+     * @throws ExecutionException  with {@link Policy#SHUTDOWN_ON_FAILURE}, if a subtask failed;
+     *                             with {@link Policy#SHUTDOWN_ON_SUCCESS}, if every subtask failed
+     * @throws TimeoutException    if the deadline passed first
+     * @throws CancellationException if the scope was cancelled
+     */
+    public void join() throws InterruptedException, ExecutionException, TimeoutException {
+        this.lock.lock();
+        try {
+            while (this.running > 0 && !this.shutdown) {
+                if (this.deadlineNanos == NO_DEADLINE) {
+                    this.changed.await();
+                    continue;
+                }
+
+                long remaining = this.deadlineNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    this.timedOut = true;
+                    this.shutdownLocked(null);
+                    break;
+                }
+                this.changed.awaitNanos(remaining);
+            }
+
+            if (this.timedOut) {
+                throw new TimeoutException("Scope deadline exceeded");
+            }
+            if (this.cancelled) {
+                throw new CancellationException("Scope was cancelled");
+            }
+            if (this.policy == Policy.SHUTDOWN_ON_FAILURE && this.firstFailure != null) {
+                throw new ExecutionException(this.firstFailure);
+            }
+            if (this.policy == Policy.SHUTDOWN_ON_SUCCESS && this.firstSuccess == null && this.firstFailure != null) {
+                throw new ExecutionException(this.firstFailure);
+            }
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Result of the first successful subtask, for {@link Policy#SHUTDOWN_ON_SUCCESS}.
+     * Call after {@link #join()}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T result() {
+        this.lock.lock();
+        try {
+            if (this.firstSuccess == null) {
+                throw new IllegalStateException("No subtask completed successfully");
+            }
+            return (T) this.firstSuccess.get();
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels the scope: interrupts running subtasks, later forks are not started and
+     * {@link #join()} throws {@link CancellationException}.
+     */
+    public void cancel() {
+        this.lock.lock();
+        try {
+            if (!this.shutdown) {
+                this.cancelled = true;
+                this.shutdownLocked(null);
+            }
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    public boolean isShutdown() {
+        this.lock.lock();
+        try {
+            return this.shutdown;
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Shuts down without marking the scope cancelled, then waits for the interrupted subtasks to
+     * finish, up to the deadline. Called when the body returns, so no subtask outlives its scope;
+     * one that ignores the interrupt is left running once the deadline passed.
+     */
+    void close() {
+        boolean interrupted = false;
+        this.lock.lock();
+        try {
+            if (!this.shutdown) {
+                this.shutdownLocked(null);
+            }
+
+            while (this.running > 0) {
+                try {
+                    if (this.deadlineNanos == NO_DEADLINE) {
+                        this.changed.await();
+                        continue;
+                    }
+                    long remaining = this.deadlineNanos - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    this.changed.awaitNanos(remaining);
+                }
+                catch (InterruptedException exception) {
+                    // e.g. the scoped future was cancelled; keep waiting, the subtasks are interrupted already
+                    interrupted = true;
+                }
+            }
+        }
+        finally {
+            this.lock.unlock();
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Subtasks still running, counting interrupted ones that did not return yet.
+     */
+    int runningCount() {
+        this.lock.lock();
+        try {
+            return this.running;
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void complete(Subtask<?> subtask, Object value, Throwable error) {
+        this.lock.lock();
+        try {
+            this.running--;
+
+            // late results after shutdown are dropped, like interrupted ones
+            if (!this.shutdown) {
+                if (error != null) {
+                    subtask.fail(error);
+                    if (this.firstFailure == null) {
+                        this.firstFailure = error;
+                    }
+                    if (this.policy == Policy.SHUTDOWN_ON_FAILURE) {
+                        this.shutdownLocked(subtask);
+                    }
+                }
+                else {
+                    subtask.succeed(value);
+                    if (this.policy == Policy.SHUTDOWN_ON_SUCCESS) {
+                        this.firstSuccess = subtask;
+                        this.shutdownLocked(subtask);
+                    }
+                }
+            }
+
+            this.changed.signalAll();
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void shutdownLocked(Subtask<?> trigger) {
+        this.shutdown = true;
+
+        for (Subtask<?> subtask : this.subtasks) {
+            if (subtask != trigger && subtask.state == Subtask.State.UNAVAILABLE) {
+                this.stopLocked(subtask);
+            }
+        }
+        this.changed.signalAll();
+    }
+
+    // lock held; a subtask that never started is done now, a running one once its VT sees the interrupt
+    private void stopLocked(Subtask<?> subtask) {
+        if (subtask.claim()) {
+            this.running--;
+            this.changed.signalAll();
+        }
+        Future<?> future = subtask.future;
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * When a scope shuts down on its own.
+     */
+    public enum Policy {
+
+        /**
+         * First failure cancels the siblings; {@link #join()} rethrows it.
+         */
+        SHUTDOWN_ON_FAILURE,
+
+        /**
+         * First success cancels the siblings; read it with {@link #result()}.
+         */
+        SHUTDOWN_ON_SUCCESS
+    }
+
+    /**
+     * Scope body run on a VT by {@link LoomScheduler#supplyScoped(Policy, Duration, Body)}.
+     */
+    @FunctionalInterface
+    public interface Body<T> {
+
+        T run(LoomScope scope) throws Exception;
+    }
+
+    /**
+     * Handle for a forked task.
+     */
+    public static final class Subtask<T> {
+
+        public enum State {
+            UNAVAILABLE,
+            SUCCESS,
+            FAILED
+        }
+
+        private final LoomScope scope;
+        private final Callable<? extends T> task;
+        private volatile Future<?> future;
+        // taken by the VT that runs the task, or by a shutdown that stops it before it started
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        // written under the scope lock
+        private volatile State state = State.UNAVAILABLE;
+        private volatile T value;
+        private volatile Throwable exception;
+
+        private Subtask(LoomScope scope, Callable<? extends T> task) {
+            this.scope = scope;
+            this.task = task;
+        }
+
+        private boolean claim() {
+            return this.claimed.compareAndSet(false, true);
+        }
+
+        private void run() {
+            if (!this.claim()) {
+                return;
+            }
+
+            T result;
+            try {
+                result = this.task.call();
+            }
+            catch (Throwable throwable) {
+                this.scope.complete(this, null, throwable);
+                return;
+            }
+            this.scope.complete(this, result, null);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void succeed(Object value) {
+            this.value = (T) value;
+            this.state = State.SUCCESS;
+        }
+
+        private void fail(Throwable exception) {
+            this.exception = exception;
+            this.state = State.FAILED;
+        }
+
+        public State state() {
+            return this.state;
+        }
+
+        /**
+         * @throws IllegalStateException if the subtask did not complete successfully
+         */
+        public T get() {
+            if (this.state != State.SUCCESS) {
+                throw new IllegalStateException("Subtask result unavailable: " + this.state);
+            }
+            return this.value;
+        }
+
+        /**
+         * @throws IllegalStateException if the subtask did not fail
+         */
+        public Throwable exception() {
+            if (this.state != State.FAILED) {
+                throw new IllegalStateException("Subtask did not fail: " + this.state);
+            }
+            return this.exception;
+        }
+    }
+}
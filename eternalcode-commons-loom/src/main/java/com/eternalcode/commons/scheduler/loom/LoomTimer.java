@@ -0,0 +1,81 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.concurrent.Future;
+
+/**
+ * Handle for a repeating task. Counts what its {@link TimerPolicy} did with slow runs,
+ * so a timer that can't keep up (e.g. autosave) is visible.
+ */
+public interface LoomTimer extends LoomTask {
+
+    LoomTimer EMPTY = new LoomTimer() {
+        @Override
+        public TimerPolicy policy() {
+            return TimerPolicy.CONCURRENT;
+        }
+
+        @Override
+        public long completedRuns() {
+            return 0L;
+        }
+
+        @Override
+        public long skippedRuns() {
+            return 0L;
+        }
+
+        @Override
+        public long overlappingRuns() {
+            return 0L;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return true;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return true;
+        }
+
+        @Override
+        public boolean async() {
+            return false;
+        }
+
+        @Override
+        public boolean repeating() {
+            return true;
+        }
+
+        @Override
+        public Future<?> asFuture() {
+            return null;
+        }
+    };
+
+    TimerPolicy policy();
+
+    long completedRuns();
+
+    /**
+     * Periods dropped because a run was still going
+     * ({@link TimerPolicy#SKIP_IF_RUNNING}, or {@link TimerPolicy#catchUp(int)} past its limit).
+     */
+    long skippedRuns();
+
+    /**
+     * Runs started while an earlier run was still going ({@link TimerPolicy#CONCURRENT}).
+     */
+    long overlappingRuns();
+}
@@ -40,10 +40,43 @@ public interface MainThreadDispatcher {
     default void dispatchLater(Runnable task, long ticks) {
         dispatch(task);
     }
+
+    /**
+     * Like {@link #dispatchLater(Runnable, long)}, but runs {@code retired} instead of the task if
+     * the platform drops it, e.g. a Folia entity removed before the delay ran out.
+     */
+    default void dispatchLater(Runnable task, Runnable retired, long ticks) {
+        dispatchLater(task, ticks);
+    }
     default Cancellable dispatchTimer(Runnable task, long delay, long period) {
         throw new UnsupportedOperationException("dispatchTimer not implemented");
     }
 
+    /**
+     * Whether {@link #dispatchLater(Runnable, long)} and {@link #dispatchTimer(Runnable, long, long)}
+     * run on the platform's own tick scheduler. If so, sync delays and timers use them directly
+     * instead of a wall-clock timer plus a dispatch.
+     */
+    default boolean supportsTickScheduling() {
+        return false;
+    }
+
+    /**
+     * Dispatches into the given lane. Dispatchers without their own queue ignore the priority.
+     */
+    default void dispatch(Runnable task, DispatchPriority priority) {
+        dispatch(task);
+    }
+
+    /**
+     * Dispatches keyed work where only the latest task per key matters.
+     * Queued dispatchers run just the newest task per key at the next drain;
+     * dispatchers without a queue run every task.
+     */
+    default void dispatchCoalesced(Object key, Runnable task) {
+        dispatch(task);
+    }
+
     @FunctionalInterface
     interface Cancellable {
         void cancel();
@@ -0,0 +1,235 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/**
+ * Bounded, growable multi-producer single-consumer array queue.
+ * <p>
+ * Starts with a small ring and doubles it on demand up to the max capacity, so steady
+ * state traffic allocates nothing per element. When a ring fills up a producer links a
+ * bigger one behind it and leaves a jump marker for the consumer.
+ * Follows the JCTools {@code MpscGrowableArrayQueue} design; indexes are kept doubled so
+ * the low bit can flag a resize in progress.
+ * <p>
+ * {@link #offer(Object)} is safe from any thread; {@link #poll()} only from the single consumer.
+ */
+final class MpscArrayQueue<E> {
+
+    private static final Object JUMP = new Object();
+
+    private static final int CONTINUE_TO_CAS = 0;
+    private static final int RETRY = 1;
+    private static final int QUEUE_FULL = 2;
+    private static final int QUEUE_RESIZE = 3;
+
+    private static final VarHandle ARRAY = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle PRODUCER_INDEX;
+    private static final VarHandle PRODUCER_LIMIT;
+    private static final VarHandle CONSUMER_INDEX;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PRODUCER_INDEX = lookup.findVarHandle(MpscArrayQueue.class, "producerIndex", long.class);
+            PRODUCER_LIMIT = lookup.findVarHandle(MpscArrayQueue.class, "producerLimit", long.class);
+            CONSUMER_INDEX = lookup.findVarHandle(MpscArrayQueue.class, "consumerIndex", long.class);
+        }
+        catch (ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    // doubled, like every index below
+    private final long maxQueueCapacity;
+
+    // published to other producers through the release store of producerIndex
+    private long producerMask;
+    private Object[] producerBuffer;
+    private volatile long producerIndex;
+    private volatile long producerLimit;
+
+    // consumer thread only
+    private long consumerMask;
+    private Object[] consumerBuffer;
+    private volatile long consumerIndex;
+
+    MpscArrayQueue(int initialCapacity, int maxCapacity) {
+        int initial = roundToPowerOfTwo(Math.max(2, initialCapacity));
+        int max = roundToPowerOfTwo(Math.max(initial, maxCapacity));
+
+        long mask = (initial - 1L) << 1;
+        Object[] buffer = new Object[initial + 1];
+
+        this.producerBuffer = buffer;
+        this.producerMask = mask;
+        this.consumerBuffer = buffer;
+        this.consumerMask = mask;
+        this.maxQueueCapacity = ((long) max) << 1;
+        this.producerLimit = mask;
+    }
+
+    /**
+     * @return false if the queue is at max capacity
+     */
+    boolean offer(E element) {
+        Objects.requireNonNull(element, "element");
+
+        long mask;
+        Object[] buffer;
+        long pIndex;
+
+        while (true) {
+            long limit = (long) PRODUCER_LIMIT.getVolatile(this);
+            pIndex = (long) PRODUCER_INDEX.getVolatile(this);
+
+            // odd index - another producer is resizing
+            if ((pIndex & 1) == 1) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            mask = this.producerMask;
+            buffer = this.producerBuffer;
+
+            if (limit <= pIndex) {
+                int result = this.offerSlowPath(mask, pIndex, limit);
+                if (result == RETRY) {
+                    continue;
+                }
+                if (result == QUEUE_FULL) {
+                    return false;
+                }
+                if (result == QUEUE_RESIZE) {
+                    this.resize(mask, buffer, pIndex, element);
+                    return true;
+                }
+            }
+
+            if (PRODUCER_INDEX.compareAndSet(this, pIndex, pIndex + 2)) {
+                break;
+            }
+        }
+
+        ARRAY.setRelease(buffer, offset(pIndex, mask), element);
+        return true;
+    }
+
+    private int offerSlowPath(long mask, long pIndex, long producerLimit) {
+        long cIndex = (long) CONSUMER_INDEX.getVolatile(this);
+        long bufferCapacity = mask + 2 == this.maxQueueCapacity ? this.maxQueueCapacity : mask;
+
+        if (cIndex + bufferCapacity > pIndex) {
+            return PRODUCER_LIMIT.compareAndSet(this, producerLimit, cIndex + bufferCapacity) ? CONTINUE_TO_CAS : RETRY;
+        }
+        if (this.maxQueueCapacity - (pIndex - cIndex) <= 0) {
+            return QUEUE_FULL;
+        }
+        // claim the resize by setting the low bit
+        return PRODUCER_INDEX.compareAndSet(this, pIndex, pIndex + 1) ? QUEUE_RESIZE : RETRY;
+    }
+
+    private void resize(long oldMask, Object[] oldBuffer, long pIndex, E element) {
+        int newLength = 2 * (oldBuffer.length - 1) + 1;
+        Object[] newBuffer = new Object[newLength];
+        long newMask = (newLength - 2L) << 1;
+
+        this.producerBuffer = newBuffer;
+        this.producerMask = newMask;
+
+        ARRAY.setRelease(newBuffer, offset(pIndex, newMask), element);
+        ARRAY.setRelease(oldBuffer, nextBufferOffset(oldMask), newBuffer);
+
+        long cIndex = (long) CONSUMER_INDEX.getVolatile(this);
+        long available = this.maxQueueCapacity - (pIndex - cIndex);
+
+        PRODUCER_LIMIT.setRelease(this, pIndex + Math.min(newMask, available));
+        PRODUCER_INDEX.setRelease(this, pIndex + 2);
+        // consumer follows the jump only after the element is in the new buffer
+        ARRAY.setRelease(oldBuffer, offset(pIndex, oldMask), JUMP);
+    }
+
+    @SuppressWarnings("unchecked")
+    E poll() {
+        Object[] buffer = this.consumerBuffer;
+        long cIndex = (long) CONSUMER_INDEX.getOpaque(this);
+        long mask = this.consumerMask;
+        int offset = offset(cIndex, mask);
+
+        Object element = ARRAY.getVolatile(buffer, offset);
+        if (element == null) {
+            long pIndex = (long) PRODUCER_INDEX.getVolatile(this);
+            if ((cIndex - pIndex) / 2 == 0) {
+                return null;
+            }
+            // index claimed but element not visible yet
+            do {
+                Thread.onSpinWait();
+                element = ARRAY.getVolatile(buffer, offset);
+            }
+            while (element == null);
+        }
+
+        if (element == JUMP) {
+            Object[] next = this.nextBuffer(buffer, mask);
+            return this.pollNewBuffer(next, cIndex);
+        }
+
+        ARRAY.setRelease(buffer, offset, null);
+        CONSUMER_INDEX.setRelease(this, cIndex + 2);
+        return (E) element;
+    }
+
+    private Object[] nextBuffer(Object[] buffer, long mask) {
+        int offset = nextBufferOffset(mask);
+        Object[] next = (Object[]) ARRAY.getVolatile(buffer, offset);
+
+        this.consumerBuffer = next;
+        this.consumerMask = (next.length - 2L) << 1;
+        ARRAY.setRelease(buffer, offset, null);
+        return next;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E pollNewBuffer(Object[] buffer, long cIndex) {
+        int offset = offset(cIndex, this.consumerMask);
+        Object element = ARRAY.getVolatile(buffer, offset);
+        if (element == null) {
+            throw new IllegalStateException("New buffer must hold the element that caused the resize");
+        }
+
+        ARRAY.setRelease(buffer, offset, null);
+        CONSUMER_INDEX.setRelease(this, cIndex + 2);
+        return (E) element;
+    }
+
+    boolean isEmpty() {
+        return (long) CONSUMER_INDEX.getVolatile(this) == (long) PRODUCER_INDEX.getVolatile(this);
+    }
+
+    int size() {
+        long cIndex = (long) CONSUMER_INDEX.getVolatile(this);
+        long pIndex = (long) PRODUCER_INDEX.getVolatile(this);
+        return (int) Math.max(0L, (pIndex - cIndex) >> 1);
+    }
+
+    int capacity() {
+        return (int) (this.maxQueueCapacity >> 1);
+    }
+
+    private static int offset(long index, long mask) {
+        return (int) ((index & mask) >> 1);
+    }
+
+    private static int nextBufferOffset(long mask) {
+        return (int) (mask >> 1) + 1;
+    }
+
+    private static int roundToPowerOfTwo(int value) {
+        if (value > 1 << 30) {
+            throw new IllegalArgumentException("Capacity too large: " + value);
+        }
+        return 1 << (Integer.SIZE - Integer.numberOfLeadingZeros(value - 1));
+    }
+}
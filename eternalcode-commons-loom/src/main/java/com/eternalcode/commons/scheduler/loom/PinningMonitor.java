@@ -0,0 +1,227 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Finds code that pins virtual threads to their carrier.
+ * <p>
+ * On JDK 21 a VT that blocks inside {@code synchronized} (or a native frame) keeps its
+ * carrier thread; with enough of them all async work runs one at a time. This monitor
+ * streams {@code jdk.VirtualThreadPinned} from Flight Recorder and groups the pinning by
+ * the call site that submitted the pinned task, with the frame that pinned (e.g.
+ * {@code Lazy.get}) as detail. Submit sites are only known for tasks submitted while
+ * {@link VirtualThreadExecutor#setTrackSubmitSites(boolean) submit sites are tracked}; other
+ * pinning is grouped by the frame that pinned.
+ * <p>
+ * Optional and off by default: {@code PinningMonitor monitor = PinningMonitor.start(Duration.ofMillis(20));}
+ * then {@link #report(int)} from a debug command and {@link #close()} on disable.
+ */
+public final class PinningMonitor implements AutoCloseable {
+
+    /**
+     * JDK default threshold for {@code jdk.VirtualThreadPinned}.
+     */
+    public static final Duration DEFAULT_THRESHOLD = Duration.ofMillis(20);
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+    static final String UNKNOWN_SITE = "<unknown>";
+    static final String OTHER_SITES = "<other>";
+    static final int MAX_SITES = 1024;
+    static final int MAX_SUBMIT_SITES = 4096;
+
+    // submit sites of VTs started while a monitor runs, by thread id; kept after the VT ends,
+    // its events reach the stream later. Thread ids are never reused.
+    private static final Map<Long, String> SUBMIT_SITES = Collections.synchronizedMap(new RecentSites());
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+
+    private final RecordingStream stream;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private PinningMonitor(Duration threshold) {
+        this.stream = new RecordingStream();
+        this.stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        this.stream.onEvent(EVENT, this::record);
+    }
+
+    /**
+     * Starts streaming pinned events that lasted at least the threshold.
+     */
+    public static PinningMonitor start(Duration threshold) {
+        if (threshold.isNegative()) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+
+        PinningMonitor monitor = new PinningMonitor(threshold);
+        RUNNING.incrementAndGet();
+        monitor.stream.startAsync();
+        return monitor;
+    }
+
+    public static PinningMonitor start() {
+        return start(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Whether a monitor runs, so submitted VTs should report their submit site.
+     */
+    static boolean isRunning() {
+        return RUNNING.get() > 0;
+    }
+
+    static void submitted(Thread thread, String submitSite) {
+        SUBMIT_SITES.put(thread.threadId(), submitSite);
+    }
+
+    // stream thread
+    private void record(RecordedEvent event) {
+        this.events.increment();
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String pinnedAt = UNKNOWN_SITE;
+        if (stackTrace != null) {
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                if (isCallerFrame(frame)) {
+                    pinnedAt = format(frame);
+                    break;
+                }
+            }
+        }
+
+        RecordedThread thread = event.getThread();
+        String submitSite = thread == null ? null : SUBMIT_SITES.get(thread.getJavaThreadId());
+        String site = submitSite != null ? submitSite : pinnedAt;
+
+        String key = this.sites.size() >= MAX_SITES && !this.sites.containsKey(site) ? OTHER_SITES : site;
+        String pinnedFrame = pinnedAt;
+        this.sites.computeIfAbsent(key, ignored -> new Site(key, pinnedFrame))
+            .add(event.getDuration().toNanos());
+    }
+
+    private static boolean isCallerFrame(RecordedFrame frame) {
+        if (!frame.isJavaFrame() || frame.getMethod() == null) {
+            return false;
+        }
+
+        String type = frame.getMethod().getType().getName();
+        return !type.startsWith("java.")
+            && !type.startsWith("jdk.")
+            && !type.startsWith("sun.")
+            // generated method reference class, the lambda body frame is more useful
+            && !type.contains("$$Lambda");
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    /**
+     * Call sites ordered by total pinned time, worst first.
+     */
+    public List<Offender> getTopOffenders(int limit) {
+        return this.sites.values().stream()
+            .map(Site::snapshot)
+            .sorted(Comparator.comparing(Offender::totalDuration).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    /**
+     * Human-readable table of the worst call sites, for a debug command or log.
+     */
+    public String report(int limit) {
+        StringBuilder builder = new StringBuilder("Virtual thread pinning (")
+            .append(this.getPinnedCount())
+            .append(" events)");
+
+        for (Offender offender : this.getTopOffenders(limit)) {
+            builder.append('\n')
+                .append(offender.site())
+                .append(" x").append(offender.count())
+                .append(" total ").append(offender.totalDuration().toMillis()).append("ms")
+                .append(" max ").append(offender.maxDuration().toMillis()).append("ms")
+                .append(" (pinned at ").append(offender.pinnedAt()).append(')');
+        }
+        return builder.toString();
+    }
+
+    public long getPinnedCount() {
+        return this.events.sum();
+    }
+
+    public void reset() {
+        this.sites.clear();
+        this.events.reset();
+    }
+
+    @Override
+    public void close() {
+        this.stream.close();
+        if (this.closed.compareAndSet(false, true) && RUNNING.decrementAndGet() == 0) {
+            SUBMIT_SITES.clear();
+        }
+    }
+
+    /**
+     * @param site          submit site of the pinned tasks if tracked, otherwise {@code pinnedAt}
+     * @param pinnedAt      innermost frame outside the JDK that pinned, of the first event at this site
+     * @param count         pinned events at this site
+     * @param totalDuration summed pinned time
+     * @param maxDuration   longest single pin
+     */
+    public record Offender(String site, String pinnedAt, long count, Duration totalDuration, Duration maxDuration) {
+    }
+
+    private static final class RecentSites extends LinkedHashMap<Long, String> {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return this.size() > MAX_SUBMIT_SITES;
+        }
+    }
+
+    private static final class Site {
+
+        private final String site;
+        private final String pinnedAt;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        Site(String site, String pinnedAt) {
+            this.site = site;
+            this.pinnedAt = pinnedAt;
+        }
+
+        void add(long nanos) {
+            this.count.increment();
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Offender snapshot() {
+            return new Offender(
+                this.site,
+                this.pinnedAt,
+                this.count.sum(),
+                Duration.ofNanos(this.totalNanos.sum()),
+                Duration.ofNanos(this.maxNanos.get()));
+        }
+    }
+}
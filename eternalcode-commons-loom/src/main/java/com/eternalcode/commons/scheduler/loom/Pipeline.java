@@ -0,0 +1,141 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cancellation shared by every stage of one {@link LoomFuture} chain.
+ * <p>
+ * Cancelling any stage cancels the pipeline: stages that have not started fail with
+ * {@link CancellationException} instead of running, the VT running an async stage is
+ * interrupted, and futures composed into the chain are cancelled as well. The main
+ * thread is never interrupted, a sync stage just does not start.
+ */
+final class Pipeline {
+
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    // VTs inside an async stage right now; usually one, more after a fork in the chain
+    private final Map<Thread, Boolean> running = new ConcurrentHashMap<>();
+    private final Queue<Runnable> cancelHooks = new ConcurrentLinkedQueue<>();
+
+    boolean isCancelled() {
+        return this.cancelled.get();
+    }
+
+    void cancel() {
+        if (!this.cancelled.compareAndSet(false, true)) {
+            return;
+        }
+
+        // under the entry's lock, so a thread that already left its stage is never interrupted
+        for (Thread thread : this.running.keySet()) {
+            this.running.computeIfPresent(thread, (target, value) -> {
+                target.interrupt();
+                return value;
+            });
+        }
+        this.runCancelHooks();
+    }
+
+    /**
+     * Runs the hook once the pipeline is cancelled, right away if it already is.
+     *
+     * @return removes the hook, for one that is no longer needed before the pipeline ends
+     */
+    Runnable onCancel(Runnable hook) {
+        this.cancelHooks.add(hook);
+        if (this.cancelled.get()) {
+            this.runCancelHooks();
+        }
+        return () -> this.cancelHooks.remove(hook);
+    }
+
+    private void runCancelHooks() {
+        Runnable hook;
+        while ((hook = this.cancelHooks.poll()) != null) {
+            hook.run();
+        }
+    }
+
+    void checkNotCancelled() {
+        if (this.cancelled.get()) {
+            throw new CancellationException("Pipeline cancelled");
+        }
+    }
+
+    /**
+     * Stage on the thread that completed the previous one, possibly the main thread: skipped, never interrupted.
+     */
+    <T, R> Function<T, R> guarded(Function<? super T, ? extends R> stage) {
+        return value -> {
+            this.checkNotCancelled();
+            return stage.apply(value);
+        };
+    }
+
+    /**
+     * Stage on its own VT: skipped once cancelled, interrupted if cancelled while running.
+     */
+    <T, R> Function<T, R> async(Function<? super T, ? extends R> stage) {
+        return value -> {
+            this.enter();
+            try {
+                return stage.apply(value);
+            }
+            finally {
+                this.exit();
+            }
+        };
+    }
+
+    <T> Supplier<T> async(Supplier<T> supplier) {
+        return () -> {
+            this.enter();
+            try {
+                return supplier.get();
+            }
+            finally {
+                this.exit();
+            }
+        };
+    }
+
+    <T> Callable<T> async(Callable<T> callable) {
+        return () -> {
+            this.enter();
+            try {
+                return callable.call();
+            }
+            finally {
+                this.exit();
+            }
+        };
+    }
+
+    private void enter() {
+        this.checkNotCancelled();
+        Thread current = Thread.currentThread();
+        this.running.put(current, Boolean.TRUE);
+
+        // cancelled between the check and the put, after cancel() looked at the map
+        if (this.cancelled.get()) {
+            this.running.remove(current);
+            throw new CancellationException("Pipeline cancelled");
+        }
+    }
+
+    private void exit() {
+        this.running.remove(Thread.currentThread());
+        if (this.cancelled.get()) {
+            // the VT may go on to complete other futures inline, they must not see our interrupt
+            Thread.interrupted();
+        }
+    }
+}
@@ -1,15 +1,15 @@
 package com.eternalcode.commons.scheduler.loom;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Test dispatcher - queues tasks for manual execution.
+ * Tasks run by {@link DispatchPriority} lane, same order as the platform dispatchers.
  */
 public final class QueuedDispatcher implements MainThreadDispatcher {
 
-    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final DispatchQueue queue = new DispatchQueue(error -> {
+    });
     private final AtomicInteger dispatchCount = new AtomicInteger(0);
     private final AtomicInteger executeCount = new AtomicInteger(0);
     private volatile Thread mainThread = null;
@@ -21,12 +21,23 @@ public final class QueuedDispatcher implements MainThreadDispatcher {
 
     @Override
     public void dispatch(Runnable task) {
+        dispatch(task, DispatchPriority.NORMAL);
+    }
+
+    @Override
+    public void dispatch(Runnable task, DispatchPriority priority) {
         this.dispatchCount.incrementAndGet();
         if (this.executeImmediately && isMainThread()) {
             executeTask(task);
             return;
         }
-        this.queue.offer(task);
+        this.queue.offer(task, priority);
+    }
+
+    @Override
+    public void dispatchCoalesced(Object key, Runnable task) {
+        this.dispatchCount.incrementAndGet();
+        this.queue.offerCoalesced(key, task);
     }
 
     @Override
@@ -93,7 +104,7 @@ public final class QueuedDispatcher implements MainThreadDispatcher {
     }
 
     public int getPendingCount() {
-        return this.queue.size();
+        return this.queue.getPendingCount();
     }
 
     public int getDispatchCount() {
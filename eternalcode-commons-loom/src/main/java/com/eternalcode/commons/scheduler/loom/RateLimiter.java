@@ -0,0 +1,65 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how often a resource is used, e.g. 5 Discord webhook calls per 2 seconds.
+ * <p>
+ * Permits are counted with a single compare-and-set, there is no lock to queue on. Waiting is
+ * up to the caller: {@link LoomScheduler#acquire(RateLimiter, int)} waits on the delay timer
+ * without holding a thread, {@link #acquire(int)} parks the calling VT.
+ */
+public interface RateLimiter {
+
+    /**
+     * Token bucket holding up to {@code permits} permits, refilled at {@code permits} per {@code period}.
+     */
+    static RateLimiter tokenBucket(int permits, Duration period) {
+        return tokenBucket(permits, period, permits);
+    }
+
+    /**
+     * Token bucket refilled at {@code permits} per {@code period} that allows bursts of up to {@code burst}.
+     */
+    static RateLimiter tokenBucket(int permits, Duration period, int burst) {
+        return new TokenBucketRateLimiter(permits, period, burst, System::nanoTime);
+    }
+
+    /**
+     * At most about {@code limit} permits in any {@code window}, e.g. an API's "100 requests per minute".
+     */
+    static RateLimiter slidingWindow(int limit, Duration window) {
+        return new SlidingWindowRateLimiter(limit, window, System::nanoTime);
+    }
+
+    /**
+     * Takes the permits if they are available right now.
+     *
+     * @throws IllegalArgumentException if permits is not positive or more than the limiter ever allows at once
+     */
+    boolean tryAcquire(int permits);
+
+    default boolean tryAcquire() {
+        return this.tryAcquire(1);
+    }
+
+    /**
+     * Estimated wait until {@link #tryAcquire(int)} may succeed, zero if it would now.
+     * Other callers may take the permits first, so the wait is a hint, not a reservation.
+     */
+    long nanosUntilAvailable(int permits);
+
+    /**
+     * Blocks until the permits are taken. Meant for VTs, which park without holding their carrier.
+     */
+    default void acquire(int permits) throws InterruptedException {
+        while (!this.tryAcquire(permits)) {
+            TimeUnit.NANOSECONDS.sleep(Math.max(1L, this.nanosUntilAvailable(permits)));
+        }
+    }
+
+    default void acquire() throws InterruptedException {
+        this.acquire(1);
+    }
+}
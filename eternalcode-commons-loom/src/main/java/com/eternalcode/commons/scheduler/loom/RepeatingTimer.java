@@ -0,0 +1,217 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Repeating task on the {@link TimingWheel} that applies a {@link TimerPolicy}.
+ * <p>
+ * The wheel only decides when a run starts; the run itself is handed to the launcher
+ * (a new VT, or the main thread dispatcher). {@code inFlight} counts the running run
+ * plus periods waiting to catch up, so the wheel thread and the finishing run agree
+ * on the backlog without a lock.
+ */
+final class RepeatingTimer implements LoomTimer {
+
+    private final TimingWheel wheel;
+    private final TimingWheel.Owner owner;
+    private final Executor launcher;
+    private final Runnable task;
+    private final Duration period;
+    private final TimerPolicy policy;
+    private final boolean async;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder overlapping = new LongAdder();
+
+    private final AtomicReference<TimingWheel.Timeout> timeout = new AtomicReference<>();
+    private volatile boolean cancelled = false;
+
+    RepeatingTimer(TimingWheel wheel, Executor launcher, Runnable task, Duration period, TimerPolicy policy, boolean async) {
+        this(wheel, null, launcher, task, period, policy, async);
+    }
+
+    RepeatingTimer(
+        TimingWheel wheel, TimingWheel.Owner owner, Executor launcher,
+        Runnable task, Duration period, TimerPolicy policy, boolean async) {
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+
+        this.wheel = wheel;
+        this.owner = owner;
+        this.launcher = launcher;
+        this.task = task;
+        this.period = period;
+        this.policy = policy;
+        this.async = async;
+    }
+
+    void start(Duration delay) {
+        TimingWheel.Timeout first = this.policy.mode() == TimerPolicy.Mode.FIXED_DELAY
+            ? this.wheel.schedule(this::fire, delay, this.owner)
+            : this.wheel.scheduleAtFixedRate(this::fire, delay, this.period, this.owner);
+
+        // a fast first run may already have scheduled the next one
+        this.timeout.compareAndSet(null, first);
+        if (this.cancelled) {
+            first.cancel();
+        }
+    }
+
+    // wheel thread
+    private void fire() {
+        if (this.cancelled) {
+            return;
+        }
+
+        switch (this.policy.mode()) {
+            case CONCURRENT -> {
+                if (this.inFlight.getAndIncrement() > 0) {
+                    this.overlapping.increment();
+                }
+                this.launch();
+            }
+            case FIXED_DELAY -> {
+                this.inFlight.incrementAndGet();
+                this.launch();
+            }
+            case SKIP_IF_RUNNING, CATCH_UP -> this.fireLimited(1 + this.policy.maxCatchUp());
+        }
+    }
+
+    private void fireLimited(int limit) {
+        while (true) {
+            int current = this.inFlight.get();
+            if (current >= limit) {
+                this.skipped.increment();
+                return;
+            }
+            if (this.inFlight.compareAndSet(current, current + 1)) {
+                if (current == 0) {
+                    this.launch();
+                }
+                // otherwise the running run picks it up when it finishes
+                return;
+            }
+        }
+    }
+
+    private void launch() {
+        try {
+            this.launcher.execute(this::run);
+        }
+        catch (RejectedExecutionException exception) {
+            this.inFlight.set(0);
+        }
+    }
+
+    private void run() {
+        try {
+            this.task.run();
+        }
+        finally {
+            this.completed.increment();
+            this.finished();
+        }
+    }
+
+    private void finished() {
+        int remaining = this.inFlight.decrementAndGet();
+
+        switch (this.policy.mode()) {
+            case FIXED_DELAY -> this.scheduleNext();
+            case SKIP_IF_RUNNING, CATCH_UP -> {
+                if (remaining == 0) {
+                    return;
+                }
+                if (this.cancelled) {
+                    this.inFlight.set(0);
+                    return;
+                }
+                this.launch();
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void scheduleNext() {
+        if (this.cancelled) {
+            return;
+        }
+
+        TimingWheel.Timeout next = this.wheel.schedule(this::fire, this.period, this.owner);
+        this.timeout.set(next);
+        // cancel raced the reschedule
+        if (this.cancelled) {
+            next.cancel();
+        }
+    }
+
+    @Override
+    public TimerPolicy policy() {
+        return this.policy;
+    }
+
+    @Override
+    public long completedRuns() {
+        return this.completed.sum();
+    }
+
+    @Override
+    public long skippedRuns() {
+        return this.skipped.sum();
+    }
+
+    @Override
+    public long overlappingRuns() {
+        return this.overlapping.sum();
+    }
+
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+        TimingWheel.Timeout current = this.timeout.get();
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return !this.isDone();
+    }
+
+    @Override
+    public boolean isDone() {
+        return this.cancelled || this.wheel.isStopped() || TimingWheel.Owner.isClosed(this.owner);
+    }
+
+    @Override
+    public boolean async() {
+        return this.async;
+    }
+
+    @Override
+    public boolean repeating() {
+        return true;
+    }
+
+    @Override
+    public Future<?> asFuture() {
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * When and how often {@link LoomScheduler#retryAsync(java.util.concurrent.Callable, RetryPolicy)} tries again.
+ * <p>
+ * Backoff is exponential with full jitter: before attempt {@code n + 1} it waits a random time
+ * between zero and {@code min(maxBackoff, initialBackoff * multiplier^(n - 1))}, so clients that
+ * failed together do not retry together. The wait is a timer, no VT is held.
+ */
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final double multiplier;
+    private final Predicate<Throwable> retryOn;
+    private final Duration deadline;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffNanos = builder.initialBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+        this.multiplier = builder.multiplier;
+        this.retryOn = builder.retryOn;
+        this.deadline = builder.deadline;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * @return {@code null} if only the attempt count limits retries
+     */
+    public Duration getDeadline() {
+        return this.deadline;
+    }
+
+    boolean isRetryable(Throwable error) {
+        return this.retryOn.test(error);
+    }
+
+    /**
+     * Random wait after the given failed attempt, counted from 1.
+     */
+    long backoffNanos(int attempt) {
+        double exponential = this.initialBackoffNanos * Math.pow(this.multiplier, attempt - 1);
+        long ceiling = (long) Math.min(this.maxBackoffNanos, exponential);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public static class Builder {
+
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        private double multiplier = 2.0;
+        private Predicate<Throwable> retryOn = error -> error instanceof Exception;
+        private Duration deadline;
+
+        private Builder() {
+        }
+
+        /**
+         * Attempts including the first one; 1 disables retrying.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("Max attempts must be positive");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder initialBackoff(Duration initialBackoff) {
+            if (initialBackoff.isNegative()) {
+                throw new IllegalArgumentException("Initial backoff must not be negative");
+            }
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        public Builder maxBackoff(Duration maxBackoff) {
+            if (maxBackoff.isNegative()) {
+                throw new IllegalArgumentException("Max backoff must not be negative");
+            }
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        public Builder multiplier(double multiplier) {
+            if (!(multiplier >= 1.0)) {
+                throw new IllegalArgumentException("Multiplier must be at least 1");
+            }
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * Which failures are worth another attempt; by default every {@link Exception}, no {@link Error}.
+         */
+        public Builder retryOn(Predicate<Throwable> retryOn) {
+            if (retryOn == null) {
+                throw new IllegalArgumentException("Retry predicate must not be null");
+            }
+            this.retryOn = retryOn;
+            return this;
+        }
+
+        /**
+         * Overall time budget from the first attempt. No retry is scheduled to start after it;
+         * an attempt already running is not cut short.
+         */
+        public Builder deadline(Duration deadline) {
+            if (deadline.isNegative()) {
+                throw new IllegalArgumentException("Deadline must not be negative");
+            }
+            this.deadline = deadline;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One delay timer thread and one compute pool for every scheduler that opts in, instead of one
+ * of each per scheduler.
+ * <p>
+ * {@link #acquire()} hands out a new {@link VirtualThreadExecutor} on the shared timer and pool
+ * and counts the reference. Each executor keeps its own virtual threads, so shutting one down
+ * (a plugin disabling) cancels only its own tasks, delayed tasks and compute tasks; the timer
+ * thread and the pool stop once the last executor is shut down, and the next acquire starts
+ * fresh ones.
+ * <p>
+ * The registry is static, so it is shared by everything that loads this class from the same
+ * class loader, e.g. plugins depending on one library plugin. Copies shaded and relocated
+ * into each plugin are separate classes; to share a thread anyway, the first copy publishes a
+ * {@link #newTimerThread() timer thread} under a JDK type (the Bukkit and Folia schedulers use the
+ * {@code ServicesManager} with {@link ScheduledExecutorService}), and every copy that finds it
+ * passes it to {@link #acquire(LoomMetrics, ScheduledExecutorService)}, which ticks the copy's
+ * wheel on that thread.
+ */
+public final class SharedLoomRuntime {
+
+    static final String THREAD_NAME = "LoomSharedDelayTimer";
+
+    private static final Duration IDLE_KEEP_ALIVE = Duration.ofSeconds(30);
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    // guarded by LOCK
+    private static TimingWheel timer;
+    private static ComputePool compute;
+    private static int references;
+
+    private SharedLoomRuntime() {
+    }
+
+    public static VirtualThreadExecutor acquire() {
+        return acquire(LoomMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics receives this executor's VT timings and the lag of its delayed tasks
+     */
+    public static VirtualThreadExecutor acquire(LoomMetrics metrics) {
+        return acquire(metrics, null);
+    }
+
+    /**
+     * Like {@link #acquire(LoomMetrics)}, but a timer started by this call is ticked on the given
+     * thread, usually one published by another copy, instead of a thread of its own.
+     *
+     * @param timerThread from {@link #newTimerThread()}, possibly of another copy; null for an own thread
+     */
+    public static VirtualThreadExecutor acquire(LoomMetrics metrics, ScheduledExecutorService timerThread) {
+        LOCK.lock();
+        try {
+            if (timer == null) {
+                timer = timerThread == null
+                    ? new TimingWheel(THREAD_NAME, VirtualThreadExecutor.DEFAULT_TICK_RESOLUTION)
+                    : new TimingWheel(timerThread, VirtualThreadExecutor.DEFAULT_TICK_RESOLUTION);
+                compute = new ComputePool(LoomMetrics.NOOP);
+            }
+            references++;
+
+            TimingWheel shared = timer;
+            return new VirtualThreadExecutor(shared, compute, metrics, () -> release(shared));
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    private static void release(TimingWheel released) {
+        LOCK.lock();
+        try {
+            // a timer from an earlier generation, already stopped
+            if (timer != released) {
+                return;
+            }
+            if (--references == 0) {
+                timer.stop();
+                timer = null;
+                // every share is shut down already, nothing of theirs is left to wait for
+                compute.shutdown();
+                compute = null;
+            }
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Single timer thread for wheels of any copy, to publish under {@link ScheduledExecutorService}.
+     * The thread exits when idle and starts again on demand, so it is never shut down; a copy
+     * that disables leaves it working for the others. A plain JDK executor, so the copies still
+     * ticking on it do not keep the class loader of the copy that created it.
+     */
+    public static ScheduledExecutorService newTimerThread() {
+        ScheduledThreadPoolExecutor timerThread = new ScheduledThreadPoolExecutor(1, Thread.ofPlatform().name(THREAD_NAME).daemon(true).factory());
+        timerThread.setKeepAliveTime(IDLE_KEEP_ALIVE.toNanos(), TimeUnit.NANOSECONDS);
+        timerThread.allowCoreThreadTimeOut(true);
+        timerThread.setRemoveOnCancelPolicy(true);
+        return timerThread;
+    }
+
+    /**
+     * Whether the service is a timer thread from {@link #newTimerThread()} of any copy: a plain
+     * {@link ScheduledThreadPoolExecutor} whose threads carry the shared timer's name.
+     */
+    public static boolean isTimerThread(Object service) {
+        if (service == null || service.getClass() != ScheduledThreadPoolExecutor.class) {
+            return false;
+        }
+        // an unstarted probe thread, the factory keeps no name of its own to compare
+        Thread probe = ((ScheduledThreadPoolExecutor) service).getThreadFactory().newThread(() -> {
+        });
+        return probe != null && THREAD_NAME.equals(probe.getName());
+    }
+
+    /**
+     * Executors currently using the shared timer and compute pool.
+     */
+    public static int getReferenceCount() {
+        LOCK.lock();
+        try {
+            return references;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+}
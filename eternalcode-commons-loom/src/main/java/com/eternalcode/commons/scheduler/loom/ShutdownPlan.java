@@ -0,0 +1,70 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+
+/**
+ * Budgets for a phased {@link VirtualThreadExecutor#shutdown(ShutdownPlan)}.
+ * <p>
+ * New work is rejected and pending timers are cancelled right away. In-flight VTs then get
+ * the drain budget to finish on their own; whatever is still running is reported and
+ * interrupted, and gets the interrupt budget to exit.
+ */
+public final class ShutdownPlan {
+
+    public static final ShutdownPlan DEFAULT = builder().build();
+
+    private final Duration drainTimeout;
+    private final Duration interruptTimeout;
+
+    private ShutdownPlan(Builder builder) {
+        this.drainTimeout = builder.drainTimeout;
+        this.interruptTimeout = builder.interruptTimeout;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Duration getDrainTimeout() {
+        return this.drainTimeout;
+    }
+
+    public Duration getInterruptTimeout() {
+        return this.interruptTimeout;
+    }
+
+    public static class Builder {
+
+        private Duration drainTimeout = Duration.ofSeconds(5);
+        private Duration interruptTimeout = Duration.ofSeconds(1);
+
+        private Builder() {
+        }
+
+        /**
+         * How long in-flight tasks may keep running before they are reported and interrupted.
+         */
+        public Builder drainTimeout(Duration drainTimeout) {
+            if (drainTimeout.isNegative()) {
+                throw new IllegalArgumentException("Drain timeout must not be negative");
+            }
+            this.drainTimeout = drainTimeout;
+            return this;
+        }
+
+        /**
+         * How long interrupted tasks get to exit; zero interrupts without waiting.
+         */
+        public Builder interruptTimeout(Duration interruptTimeout) {
+            if (interruptTimeout.isNegative()) {
+                throw new IllegalArgumentException("Interrupt timeout must not be negative");
+            }
+            this.interruptTimeout = interruptTimeout;
+            return this;
+        }
+
+        public ShutdownPlan build() {
+            return new ShutdownPlan(this);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a {@link VirtualThreadExecutor#shutdown(ShutdownPlan)}.
+ *
+ * @param drained    whether every task finished within the drain budget
+ * @param terminated whether every VT finished, during the drain or after the interrupt
+ * @param elapsed    time spent in the whole shutdown
+ * @param stuckTasks tasks still running when the drain budget ran out; empty after a clean drain, and
+ *                   unless {@link VirtualThreadExecutor#setTrackRunningTasks(boolean) running tasks are tracked}
+ */
+public record ShutdownReport(boolean drained, boolean terminated, Duration elapsed, List<StuckTask> stuckTasks) {
+
+    public boolean isClean() {
+        return this.drained;
+    }
+
+    /**
+     * Multi-line description of the stuck tasks for the server log; one line when the drain was clean.
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder("Loom shutdown took ")
+            .append(this.elapsed.toMillis()).append("ms");
+
+        if (this.isClean()) {
+            return builder.append(", all tasks finished").toString();
+        }
+
+        if (this.stuckTasks.isEmpty()) {
+            builder.append(", tasks still running after the drain");
+            if (!this.terminated) {
+                builder.append(", some ignored the interrupt");
+            }
+            return builder.append("; run with -D").append(VirtualThreadExecutor.TRACK_RUNNING_TASKS_PROPERTY)
+                .append("=true to list them").toString();
+        }
+
+        builder.append(", ").append(this.stuckTasks.size()).append(" task(s) still running after the drain");
+        if (!this.terminated) {
+            builder.append(", some ignored the interrupt");
+        }
+
+        for (StuckTask task : this.stuckTasks) {
+            builder.append('\n')
+                .append(task.thread())
+                .append(" running ").append(task.running().toMillis()).append("ms")
+                .append(task.exited() ? ", exited after interrupt" : ", still running")
+                .append("\n  submitted at ").append(task.submitSite() != null ? task.submitSite() : "<unknown>");
+
+            for (StackTraceElement element : task.stackTrace()) {
+                builder.append("\n    at ").append(element);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param thread      name or id of the virtual thread
+     * @param submitSite  first caller frame outside the scheduler; {@code null} for timer tasks and unless
+     *                    {@link VirtualThreadExecutor#setTrackSubmitSites(boolean) submit sites are tracked}
+     * @param running     time since the task was submitted
+     * @param stackTrace  where the VT was when the drain budget ran out
+     * @param exited      whether it finished after being interrupted
+     */
+    public record StuckTask(String thread, String submitSite, Duration running, List<StackTraceElement> stackTrace, boolean exited) {
+    }
+}
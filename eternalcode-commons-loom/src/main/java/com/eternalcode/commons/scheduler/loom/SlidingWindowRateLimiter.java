@@ -0,0 +1,104 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding window counter: the count of the current fixed window plus the previous window's
+ * count weighted by how much of it still overlaps the sliding window. Two counters instead
+ * of a timestamp per permit, exact when traffic is even and close otherwise.
+ * <p>
+ * Both counters and the window index are one immutable state swapped by compare-and-set.
+ */
+final class SlidingWindowRateLimiter implements RateLimiter {
+
+    private final int limit;
+    private final long windowNanos;
+    private final LongSupplier clock;
+    private final long origin;
+
+    private final AtomicReference<Window> state = new AtomicReference<>(new Window(0L, 0, 0));
+
+    SlidingWindowRateLimiter(int limit, Duration window, LongSupplier clock) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+
+        this.limit = limit;
+        this.windowNanos = window.toNanos();
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        this.checkPermits(permits);
+
+        while (true) {
+            long now = this.clock.getAsLong() - this.origin;
+            Window current = this.state.get();
+            Window window = current.roll(now / this.windowNanos);
+            if (this.estimate(window, now) + permits > this.limit) {
+                return false;
+            }
+            if (this.state.compareAndSet(current, new Window(window.index(), window.previous(), window.current() + permits))) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public long nanosUntilAvailable(int permits) {
+        this.checkPermits(permits);
+
+        long now = this.clock.getAsLong() - this.origin;
+        long index = now / this.windowNanos;
+        Window window = this.state.get().roll(index);
+        if (this.estimate(window, now) + permits <= this.limit) {
+            return 0L;
+        }
+
+        long windowStart = index * this.windowNanos;
+        if (window.current() + permits > this.limit) {
+            // the current count has to become the previous one and fade enough
+            long nextStart = windowStart + this.windowNanos;
+            return nextStart - now + this.fadeNanos(window.current(), this.limit - permits);
+        }
+        return Math.max(0L, windowStart + this.fadeNanos(window.previous(), this.limit - window.current() - permits) - now);
+    }
+
+    // time into a window until a previous count of 'previous' weighs no more than 'room'
+    private long fadeNanos(int previous, int room) {
+        if (previous <= room) {
+            return 0L;
+        }
+        double fraction = 1.0 - (double) room / previous;
+        return (long) Math.ceil(fraction * this.windowNanos);
+    }
+
+    private double estimate(Window window, long now) {
+        double elapsed = (double) (now - window.index() * this.windowNanos) / this.windowNanos;
+        return window.previous() * (1.0 - elapsed) + window.current();
+    }
+
+    private void checkPermits(int permits) {
+        if (permits <= 0 || permits > this.limit) {
+            throw new IllegalArgumentException("Permits must be between 1 and the limit of " + this.limit);
+        }
+    }
+
+    private record Window(long index, int previous, int current) {
+
+        Window roll(long now) {
+            // a caller that read the clock just before another one rolled the window
+            if (now <= this.index) {
+                return this;
+            }
+            return new Window(now, now == this.index + 1 ? this.current : 0, 0);
+        }
+    }
+}
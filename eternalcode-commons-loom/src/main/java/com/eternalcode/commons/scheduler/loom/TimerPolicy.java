@@ -0,0 +1,65 @@
+package com.eternalcode.commons.scheduler.loom;
+
+/**
+ * What a repeating timer does when a run takes longer than its period.
+ */
+public final class TimerPolicy {
+
+    /**
+     * Start a run every period, even if earlier runs are still going. Overlaps are counted.
+     * This is the default.
+     */
+    public static final TimerPolicy CONCURRENT = new TimerPolicy(Mode.CONCURRENT, 0);
+
+    /**
+     * Drop a period while the previous run is still going. Dropped periods are counted.
+     */
+    public static final TimerPolicy SKIP_IF_RUNNING = new TimerPolicy(Mode.SKIP_IF_RUNNING, 0);
+
+    /**
+     * Schedule the next run one period after the previous run finished. Never overlaps or skips.
+     */
+    public static final TimerPolicy FIXED_DELAY = new TimerPolicy(Mode.FIXED_DELAY, 0);
+
+    private final Mode mode;
+    private final int maxCatchUp;
+
+    private TimerPolicy(Mode mode, int maxCatchUp) {
+        this.mode = mode;
+        this.maxCatchUp = maxCatchUp;
+    }
+
+    /**
+     * Never overlap; periods missed while a run is going are run back-to-back afterwards,
+     * at most {@code maxCatchUp} of them. Missed periods past that limit are skipped and counted.
+     */
+    public static TimerPolicy catchUp(int maxCatchUp) {
+        if (maxCatchUp < 0) {
+            throw new IllegalArgumentException("Max catch-up must not be negative");
+        }
+        return new TimerPolicy(Mode.CATCH_UP, maxCatchUp);
+    }
+
+    Mode mode() {
+        return this.mode;
+    }
+
+    /**
+     * How many missed periods may wait for the current run, 0 unless {@link #catchUp(int)}.
+     */
+    public int maxCatchUp() {
+        return this.maxCatchUp;
+    }
+
+    @Override
+    public String toString() {
+        return this.mode == Mode.CATCH_UP ? "CATCH_UP(" + this.maxCatchUp + ")" : this.mode.name();
+    }
+
+    enum Mode {
+        CONCURRENT,
+        SKIP_IF_RUNNING,
+        FIXED_DELAY,
+        CATCH_UP
+    }
+}
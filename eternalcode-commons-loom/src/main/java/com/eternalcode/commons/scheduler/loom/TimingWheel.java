@@ -0,0 +1,611 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical hashed timing wheel.
+ * <p>
+ * Schedule and cancel are O(1). One platform thread advances the wheel tick by tick
+ * and runs expired tasks inline, so tasks must be short hand-offs (submit to a VT,
+ * complete a future). Cancelled timeouts are unlinked from their slot on the next tick
+ * instead of staying queued until their deadline.
+ * <p>
+ * Each level has 64 slots; level {@code n} slots span {@code 64^n} ticks. Timeouts are
+ * cascaded one level down when the wheel reaches their slot.
+ * <p>
+ * Several executors may share one wheel; each schedules under its own {@link Owner}, and
+ * {@link #close(Owner)} drops that owner's timeouts without touching the others.
+ * <p>
+ * A timeout dropped by {@link #stop()} or {@link #close(Owner)}, or scheduled after either, never
+ * runs its task; it runs its {@code dropped} callback instead, so a future waiting on it can fail
+ * rather than hang.
+ * <p>
+ * Instead of its own thread, a wheel can be driven by a single-threaded
+ * {@link ScheduledExecutorService}: each tick is a task on it that schedules the next one, and an
+ * idle wheel schedules nothing until a timeout is added. Several wheels can share that thread,
+ * e.g. loom copies in different class loaders, see {@link SharedLoomRuntime}.
+ */
+final class TimingWheel {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    // 11 levels x 6 bits covers the whole long tick range
+    private static final int LEVELS = (Long.SIZE + WHEEL_BITS - 1) / WHEEL_BITS;
+    private static final long MAX_DEADLINE = Long.MAX_VALUE / 2;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Bucket[][] wheels = new Bucket[LEVELS][WHEEL_SIZE];
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Thread worker;
+    private final ScheduledExecutorService driver;
+    // driven wheel with no tick scheduled, the next add, close or stop schedules one
+    private final AtomicBoolean idle = new AtomicBoolean(false);
+    private final LoomMetrics metrics;
+
+    private volatile boolean stopped = false;
+    private volatile boolean sleeping = false;
+    private volatile boolean purgeRequested = false;
+
+    // worker thread, or the driver's thread, only
+    private long currentTick = 0;
+    private long size = 0;
+
+    TimingWheel(String threadName, Duration tickResolution) {
+        this(threadName, tickResolution, LoomMetrics.NOOP);
+    }
+
+    TimingWheel(String threadName, Duration tickResolution, LoomMetrics metrics) {
+        if (tickResolution.isNegative() || tickResolution.isZero()) {
+            throw new IllegalArgumentException("Tick resolution must be positive");
+        }
+
+        this.tickNanos = tickResolution.toNanos();
+        this.startNanos = System.nanoTime();
+        this.metrics = metrics;
+
+        for (Bucket[] wheel : this.wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new Bucket();
+            }
+        }
+
+        this.driver = null;
+        this.worker = Thread.ofPlatform()
+            .name(threadName)
+            .daemon(true)
+            .unstarted(this::run);
+        this.worker.start();
+    }
+
+    /**
+     * Wheel ticked by tasks on the driver, which must run them one at a time.
+     */
+    TimingWheel(ScheduledExecutorService driver, Duration tickResolution) {
+        if (tickResolution.isNegative() || tickResolution.isZero()) {
+            throw new IllegalArgumentException("Tick resolution must be positive");
+        }
+
+        this.tickNanos = tickResolution.toNanos();
+        this.startNanos = System.nanoTime();
+        this.metrics = LoomMetrics.NOOP;
+
+        for (Bucket[] wheel : this.wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new Bucket();
+            }
+        }
+
+        this.driver = driver;
+        this.worker = null;
+        this.idle.set(true);
+    }
+
+    Timeout schedule(Runnable task, Duration delay) {
+        return this.schedule(task, delay, null);
+    }
+
+    Timeout schedule(Runnable task, Duration delay, Owner owner) {
+        return this.schedule(task, delay, owner, null);
+    }
+
+    /**
+     * @param dropped runs instead of the task if the wheel stops or the owner closes first, may be null
+     */
+    Timeout schedule(Runnable task, Duration delay, Owner owner, Runnable dropped) {
+        return this.add(new Timeout(this, owner, task, dropped, this.deadline(delay.toNanos()), 0L));
+    }
+
+    Timeout scheduleAtFixedRate(Runnable task, Duration delay, Duration period) {
+        return this.scheduleAtFixedRate(task, delay, period, null);
+    }
+
+    Timeout scheduleAtFixedRate(Runnable task, Duration delay, Duration period, Owner owner) {
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        return this.add(new Timeout(this, owner, task, null, this.deadline(delay.toNanos()), period.toNanos()));
+    }
+
+    /**
+     * Drops every timeout of the owner and rejects new ones; other owners keep running.
+     */
+    void close(Owner owner) {
+        owner.closed = true;
+        this.purgeRequested = true;
+        this.wake();
+    }
+
+    long pending() {
+        return this.pending.get();
+    }
+
+    boolean isStopped() {
+        return this.stopped;
+    }
+
+    /**
+     * Stops the worker; every timeout still waiting is dropped.
+     */
+    void stop() {
+        this.stopped = true;
+        this.wake();
+    }
+
+    private void wake() {
+        if (this.driver == null) {
+            LockSupport.unpark(this.worker);
+        }
+        else if (this.idle.compareAndSet(true, false)) {
+            this.drive(0L);
+        }
+    }
+
+    private Timeout add(Timeout timeout) {
+        if (this.stopped || Owner.isClosed(timeout.owner)) {
+            timeout.state = Timeout.CANCELLED;
+            timeout.runDropped();
+            return timeout;
+        }
+
+        this.pending.incrementAndGet();
+        if (timeout.owner != null) {
+            timeout.owner.pending.incrementAndGet();
+        }
+        this.scheduled.offer(timeout);
+
+        if (this.stopped) {
+            // stopped after the check, the worker may have dropped everything already
+            timeout.drop();
+        }
+        else if (this.driver != null) {
+            this.wake();
+        }
+        else if (this.sleeping) {
+            LockSupport.unpark(this.worker);
+        }
+        return timeout;
+    }
+
+    private long deadline(long delayNanos) {
+        long deadline = System.nanoTime() - this.startNanos + Math.max(0L, delayNanos);
+        if (deadline < 0 || deadline > MAX_DEADLINE) {
+            return MAX_DEADLINE;
+        }
+        return deadline;
+    }
+
+    private long elapsedTicks() {
+        return (System.nanoTime() - this.startNanos) / this.tickNanos;
+    }
+
+    private long expirationTick(long deadline) {
+        return (deadline + this.tickNanos - 1) / this.tickNanos;
+    }
+
+    private void run() {
+        while (!this.stopped) {
+            this.step();
+            this.await();
+        }
+        this.dropAll();
+    }
+
+    // one driven tick; schedules the next, or goes idle
+    private void tick() {
+        if (!this.stopped) {
+            this.step();
+        }
+        if (this.stopped) {
+            this.dropAll();
+            return;
+        }
+
+        if (this.size == 0) {
+            this.idle.set(true);
+            // an add, close or stop between the step and going idle saw no idle wheel to wake
+            if ((!this.scheduled.isEmpty() || this.purgeRequested || this.stopped) && this.idle.compareAndSet(true, false)) {
+                this.drive(0L);
+            }
+            return;
+        }
+
+        long nextTick = (this.currentTick + 1) * this.tickNanos;
+        this.drive(nextTick - (System.nanoTime() - this.startNanos));
+    }
+
+    private void drive(long delayNanos) {
+        try {
+            this.driver.schedule(this::tick, Math.max(0L, delayNanos), TimeUnit.NANOSECONDS);
+        }
+        catch (RejectedExecutionException exception) {
+            // the driver shut down, nothing will tick this wheel again
+            this.stopped = true;
+            this.dropAll();
+        }
+    }
+
+    private void step() {
+        long target = this.elapsedTicks();
+        if (this.size == 0 && target > this.currentTick) {
+            // nothing to expire in between, skip the idle ticks
+            this.currentTick = target;
+        }
+
+        this.removeCancelled();
+        this.transferScheduled();
+        if (this.purgeRequested) {
+            this.purgeRequested = false;
+            this.purgeClosed();
+        }
+
+        while (this.currentTick < target && !this.stopped) {
+            this.currentTick++;
+            this.advance(this.currentTick);
+        }
+    }
+
+    private void dropAll() {
+        for (Bucket[] wheel : this.wheels) {
+            for (Bucket bucket : wheel) {
+                Timeout timeout;
+                while ((timeout = bucket.poll()) != null) {
+                    timeout.drop();
+                }
+            }
+        }
+        this.size = 0;
+
+        Timeout timeout;
+        while ((timeout = this.scheduled.poll()) != null) {
+            timeout.drop();
+        }
+        this.cancelled.clear();
+    }
+
+    private void await() {
+        if (this.size == 0) {
+            this.sleeping = true;
+            if (this.scheduled.isEmpty() && !this.stopped) {
+                LockSupport.park(this);
+            }
+            this.sleeping = false;
+            return;
+        }
+
+        long nextTick = (this.currentTick + 1) * this.tickNanos;
+        long sleepNanos = nextTick - (System.nanoTime() - this.startNanos);
+        if (sleepNanos > 0) {
+            LockSupport.parkNanos(this, sleepNanos);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = this.cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+                this.size--;
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        Timeout timeout;
+        while ((timeout = this.scheduled.poll()) != null) {
+            if (timeout.state != Timeout.WAITING) {
+                continue;
+            }
+            if (Owner.isClosed(timeout.owner)) {
+                timeout.drop();
+                continue;
+            }
+
+            long expirationTick = this.expirationTick(timeout.deadline);
+            if (expirationTick <= this.currentTick) {
+                this.expire(timeout);
+                continue;
+            }
+            this.insert(timeout, expirationTick);
+        }
+    }
+
+    private void purgeClosed() {
+        for (Bucket[] wheel : this.wheels) {
+            for (Bucket bucket : wheel) {
+                Timeout timeout = bucket.head;
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    if (Owner.isClosed(timeout.owner)) {
+                        bucket.remove(timeout);
+                        this.size--;
+                        timeout.drop();
+                    }
+                    timeout = next;
+                }
+            }
+        }
+    }
+
+    private void insert(Timeout timeout, long expirationTick) {
+        long diff = expirationTick ^ this.currentTick;
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(diff)) / WHEEL_BITS;
+        int slot = (int) (expirationTick >>> (level * WHEEL_BITS)) & WHEEL_MASK;
+
+        timeout.expirationTick = expirationTick;
+        this.wheels[level][slot].add(timeout);
+        this.size++;
+    }
+
+    private void advance(long tick) {
+        int topLevel = Math.min(LEVELS - 1, Long.numberOfTrailingZeros(tick) / WHEEL_BITS);
+        for (int level = topLevel; level > 0; level--) {
+            this.cascade(level, (int) (tick >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+        }
+
+        Bucket bucket = this.wheels[0][(int) tick & WHEEL_MASK];
+        Timeout timeout;
+        while ((timeout = bucket.poll()) != null) {
+            this.size--;
+            this.expire(timeout);
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        Bucket bucket = this.wheels[level][slot];
+        Timeout timeout;
+        while ((timeout = bucket.poll()) != null) {
+            this.size--;
+            this.insert(timeout, Math.max(timeout.expirationTick, this.currentTick));
+        }
+    }
+
+    private void expire(Timeout timeout) {
+        if (Owner.isClosed(timeout.owner)) {
+            timeout.drop();
+            return;
+        }
+
+        if (timeout.period == 0L) {
+            if (!Timeout.STATE.compareAndSet(timeout, Timeout.WAITING, Timeout.EXPIRED)) {
+                return;
+            }
+            timeout.released();
+            this.runTask(timeout);
+            return;
+        }
+
+        if (timeout.state != Timeout.WAITING) {
+            return;
+        }
+
+        this.runTask(timeout);
+        if (timeout.state != Timeout.WAITING) {
+            return;
+        }
+
+        timeout.deadline = Math.min(MAX_DEADLINE, timeout.deadline + timeout.period);
+        this.insert(timeout, Math.max(this.currentTick + 1, this.expirationTick(timeout.deadline)));
+    }
+
+    private void runTask(Timeout timeout) {
+        long lag = Math.max(0L, System.nanoTime() - this.startNanos - timeout.deadline);
+        // a shared wheel reports to the metrics of the executor that scheduled the timeout
+        LoomMetrics metrics = timeout.owner != null ? timeout.owner.metrics : this.metrics;
+        if (metrics != LoomMetrics.NOOP) {
+            metrics.timerFired(lag);
+        }
+        if (lag > this.tickNanos) {
+            LoomEvents.timerMisfire(lag, timeout.period != 0L);
+        }
+
+        try {
+            timeout.task.run();
+        }
+        catch (Throwable throwable) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+        }
+    }
+
+    /**
+     * Handle for a scheduled timeout.
+     */
+    static final class Timeout {
+
+        static final int WAITING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel wheel;
+        private final Owner owner;
+        private final Runnable task;
+        private final Runnable dropped;
+        private final long period;
+        private volatile int state = WAITING;
+
+        // worker thread only
+        private long deadline;
+        private long expirationTick;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, Owner owner, Runnable task, Runnable dropped, long deadline, long period) {
+            this.wheel = wheel;
+            this.owner = owner;
+            this.task = task;
+            this.dropped = dropped;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        boolean cancel() {
+            if (!STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                return false;
+            }
+            this.released();
+            this.wheel.cancelled.offer(this);
+            return true;
+        }
+
+        /**
+         * Cancelled by stop or close rather than by the caller; not in a bucket any more.
+         */
+        private void drop() {
+            if (!STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                return;
+            }
+            this.released();
+            this.runDropped();
+        }
+
+        private void runDropped() {
+            if (this.dropped == null) {
+                return;
+            }
+            try {
+                this.dropped.run();
+            }
+            catch (Throwable throwable) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+            }
+        }
+
+        private void released() {
+            this.wheel.pending.decrementAndGet();
+            if (this.owner != null) {
+                this.owner.pending.decrementAndGet();
+            }
+        }
+
+        boolean isCancelled() {
+            return this.state == CANCELLED;
+        }
+
+        boolean isExpired() {
+            return this.state == EXPIRED;
+        }
+
+        boolean isPeriodic() {
+            return this.period != 0L;
+        }
+    }
+
+    /**
+     * Group of timeouts that can be cancelled together, e.g. one plugin's.
+     */
+    static final class Owner {
+
+        private final AtomicLong pending = new AtomicLong();
+        private final LoomMetrics metrics;
+        private volatile boolean closed = false;
+
+        Owner() {
+            this(LoomMetrics.NOOP);
+        }
+
+        /**
+         * @param metrics receives the lag of this owner's timeouts
+         */
+        Owner(LoomMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        static boolean isClosed(Owner owner) {
+            return owner != null && owner.closed;
+        }
+
+        long pending() {
+            return this.pending.get();
+        }
+
+        boolean isClosed() {
+            return this.closed;
+        }
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = this.tail;
+            timeout.next = null;
+
+            if (this.tail == null) {
+                this.head = timeout;
+            }
+            else {
+                this.tail.next = timeout;
+            }
+            this.tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                this.head = timeout.next;
+            }
+            else {
+                timeout.prev.next = timeout.next;
+            }
+
+            if (timeout.next == null) {
+                this.tail = timeout.prev;
+            }
+            else {
+                timeout.next.prev = timeout.prev;
+            }
+
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        Timeout poll() {
+            Timeout timeout = this.head;
+            if (timeout != null) {
+                this.remove(timeout);
+            }
+            return timeout;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket as a generic cell rate algorithm (GCRA): the whole bucket is one
+ * "theoretical arrival time", the moment the bucket would be full again. Taking {@code n}
+ * permits pushes it {@code n} intervals forward, which is allowed while it stays within one
+ * burst of now.
+ */
+final class TokenBucketRateLimiter implements RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int burst;
+    private final LongSupplier clock;
+    private final long origin;
+
+    // relative to origin, so the arithmetic never wraps
+    private final AtomicLong arrival = new AtomicLong();
+
+    TokenBucketRateLimiter(int permits, Duration period, int burst, LongSupplier clock) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Permits must be positive");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be positive");
+        }
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+
+        this.intervalNanos = Math.max(1L, period.toNanos() / permits);
+        this.burstNanos = this.intervalNanos * burst;
+        this.burst = burst;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        this.checkPermits(permits);
+
+        while (true) {
+            long now = this.clock.getAsLong() - this.origin;
+            long arrival = this.arrival.get();
+            long next = Math.max(arrival, now) + permits * this.intervalNanos;
+            if (next - now > this.burstNanos) {
+                return false;
+            }
+            if (this.arrival.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public long nanosUntilAvailable(int permits) {
+        this.checkPermits(permits);
+
+        long now = this.clock.getAsLong() - this.origin;
+        long next = Math.max(this.arrival.get(), now) + permits * this.intervalNanos;
+        return Math.max(0L, next - now - this.burstNanos);
+    }
+
+    private void checkPermits(int permits) {
+        if (permits <= 0 || permits > this.burst) {
+            throw new IllegalArgumentException("Permits must be between 1 and the burst of " + this.burst);
+        }
+    }
+}
@@ -1,53 +1,258 @@
 package com.eternalcode.commons.scheduler.loom;
 
+import java.security.ProtectionDomain;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Wraps newVirtualThreadPerTaskExecutor for async tasks.
- * Uses ScheduledExecutorService only for delay timing - actual work goes to VT.
+ * Uses a hashed {@link TimingWheel} only for delay timing - actual work goes to VT.
  */
 public final class VirtualThreadExecutor {
 
+    /**
+     * Default timer tick. Delays fire at most one tick late, never early.
+     */
+    public static final Duration DEFAULT_TICK_RESOLUTION = Duration.ofMillis(1);
+
+    static final String PARALLELISM_PROPERTY = "jdk.virtualThreadScheduler.parallelism";
+    static final String TRACK_SUBMIT_SITES_PROPERTY = "eternalcode.loom.trackSubmitSites";
+    static final String TRACK_RUNNING_TASKS_PROPERTY = "eternalcode.loom.trackRunningTasks";
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final String LOOM_PACKAGE = VirtualThreadExecutor.class.getPackageName();
+    private static final ProtectionDomain LOOM_DOMAIN = VirtualThreadExecutor.class.getProtectionDomain();
+    private static final String CARRIER_GROUP = "CarrierThreads";
+
+    // set when loom creates its first VT; the JDK has read the carrier parallelism by then
+    private static volatile boolean virtualThreadsCreated = false;
+
+    // started VTs while tracking is on, for the stuck-task report of a phased shutdown
+    private final Map<Thread, RunningTask> running = new ConcurrentHashMap<>();
+    private volatile boolean trackRunningTasks = Boolean.getBoolean(TRACK_RUNNING_TASKS_PROPERTY);
+    private volatile boolean trackSubmitSites = Boolean.getBoolean(TRACK_SUBMIT_SITES_PROPERTY);
+
     private final ExecutorService virtualExecutor;
-    private final ScheduledExecutorService delayScheduler;
+    private final ComputePool computePool;
+    private final TimingWheel delayTimer;
+    // set when the timer is shared, see SharedLoomRuntime
+    private final TimingWheel.Owner owner;
+    private final Runnable releaseTimer;
     private final AtomicBoolean shutdown = new AtomicBoolean(false);
+    // flushed by a graceful shutdown, whichever scheduler created them
+    private final Set<WriteBehindBatcher<?>> batchers = ConcurrentHashMap.newKeySet();
+    // bulkheads, debounce/throttle keys and native tick timers, shared by every scheduler on this executor
+    private final Set<LoomTask> tickTimers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Debouncer debouncer = new Debouncer(this);
 
     public VirtualThreadExecutor() {
-        this.virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
-        this.delayScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "LoomDelayTimer");
-            t.setDaemon(true);
-            return t;
-        });
+        this(DEFAULT_TICK_RESOLUTION);
+    }
+
+    public VirtualThreadExecutor(Duration tickResolution) {
+        this(tickResolution, LoomMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics receives submit-to-start wait and run time of every VT, and timer lag
+     */
+    public VirtualThreadExecutor(Duration tickResolution, LoomMetrics metrics) {
+        this.virtualExecutor = Executors.newThreadPerTaskExecutor(new TaskThreadFactory(metrics));
+        this.computePool = new ComputePool(metrics);
+        this.delayTimer = new TimingWheel("LoomDelayTimer", tickResolution, metrics);
+        this.owner = null;
+        this.releaseTimer = null;
+    }
+
+    /**
+     * Executor on a timer and compute pool shared with other executors. Shutdown cancels only this
+     * executor's delayed and compute tasks and then calls {@code releaseTimer} instead of stopping
+     * the timer and the pool. The lag of this executor's delayed tasks still goes to {@code metrics}.
+     */
+    VirtualThreadExecutor(TimingWheel sharedTimer, ComputePool sharedCompute, LoomMetrics metrics, Runnable releaseTimer) {
+        this.virtualExecutor = Executors.newThreadPerTaskExecutor(new TaskThreadFactory(metrics));
+        this.computePool = sharedCompute.share(metrics);
+        this.delayTimer = sharedTimer;
+        this.owner = new TimingWheel.Owner(metrics);
+        this.releaseTimer = releaseTimer;
+    }
+
+    /**
+     * Sets how many carrier threads run virtual threads; the JDK default is one per CPU core.
+     * <p>
+     * There is one VT scheduler per JVM, so this applies to every VT, not just this executor.
+     * The JDK reads {@code jdk.virtualThreadScheduler.parallelism} once, when the first VT is
+     * created anywhere, usually while a server starts; only a value set on the command line is
+     * certain to be in time. This call works only before that (e.g. in the first plugin's onLoad()),
+     * and reports when it comes too late: check the result, or {@link #getCarrierParallelism()}.
+     *
+     * @return whether the value was set; false if one was already configured, or if virtual
+     * threads were created already and the scheduler runs with the parallelism it read then
+     */
+    public static boolean configureCarrierParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        if (System.getProperty(PARALLELISM_PROPERTY) != null) {
+            return false;
+        }
+        if (virtualThreadsCreated || runningCarrierPool() != null) {
+            return false;
+        }
+        System.setProperty(PARALLELISM_PROPERTY, Integer.toString(parallelism));
+        return true;
+    }
+
+    /**
+     * Carrier threads the VT scheduler runs with, taken from the scheduler while it has a carrier
+     * alive. Before the first VT, or with every carrier retired while idle, it is the configured
+     * value the scheduler starts or started with.
+     */
+    public static int getCarrierParallelism() {
+        ForkJoinPool carriers = runningCarrierPool();
+        if (carriers != null) {
+            return carriers.getParallelism();
+        }
+        return Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    // the JDK's VT scheduler, found through a live carrier thread; null if none is running.
+    // Enumerates the thread groups, which takes no stacks.
+    private static ForkJoinPool runningCarrierPool() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+
+        // spare slots for threads started meanwhile, enumerate drops what does not fit
+        Thread[] threads = new Thread[root.activeCount() + 16];
+        int count = root.enumerate(threads, true);
+        for (int i = 0; i < count; i++) {
+            Thread thread = threads[i];
+            ThreadGroup group = thread.getThreadGroup();
+            if (thread instanceof ForkJoinWorkerThread carrier && group != null && CARRIER_GROUP.equals(group.getName())) {
+                return carrier.getPool();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Keeps a map of running VTs, so a {@link ShutdownReport} can list the stuck ones with their
+     * stacks. Costs a map entry per task, so it is off by default and the report only says that
+     * tasks were left; {@code -Deternalcode.loom.trackRunningTasks=true} turns it on without a code
+     * change. Applies to tasks submitted afterwards.
+     */
+    public void setTrackRunningTasks(boolean trackRunningTasks) {
+        this.trackRunningTasks = trackRunningTasks;
+    }
+
+    /**
+     * Records where each async task was submitted from, shown in the {@link ShutdownReport}; implies
+     * {@link #setTrackRunningTasks(boolean)}. Costs a stack walk per task, so it is off by default;
+     * {@code -Deternalcode.loom.trackSubmitSites=true} turns it on without a code change. Delayed and
+     * repeating tasks are submitted by the timer and have no site.
+     */
+    public void setTrackSubmitSites(boolean trackSubmitSites) {
+        this.trackSubmitSites = trackSubmitSites;
+    }
+
+    void register(WriteBehindBatcher<?> batcher) {
+        this.batchers.add(batcher);
+    }
+
+    void register(Bulkhead bulkhead) {
+        if (this.bulkheads.putIfAbsent(bulkhead.getName(), bulkhead) != null) {
+            throw new IllegalStateException("Bulkhead already registered: " + bulkhead.getName());
+        }
+    }
+
+    Bulkhead bulkhead(String name) {
+        Bulkhead bulkhead = this.bulkheads.get(name);
+        if (bulkhead == null) {
+            throw new IllegalArgumentException("Unknown bulkhead: " + name);
+        }
+        return bulkhead;
     }
 
     ExecutorService executor() {
         return this.virtualExecutor;
     }
 
+    ComputePool compute() {
+        return this.computePool;
+    }
+
+    /**
+     * Timers on the platform's tick scheduler; any shutdown of this executor cancels them.
+     */
+    Set<LoomTask> tickTimers() {
+        return this.tickTimers;
+    }
+
+    Debouncer debouncer() {
+        return this.debouncer;
+    }
+
+    /**
+     * Once shut down the task is not run and the returned future has failed with
+     * {@link IllegalStateException}; check {@link Future#state()} to tell.
+     */
     public Future<?> submit(Runnable task) {
+        return this.submit(Executors.callable(task));
+    }
+
+    public <T> Future<T> submit(Callable<T> callable) {
         if (this.shutdown.get()) {
-            return CompletableFuture.completedFuture(null);
+            return shutDown(null);
+        }
+        try {
+            return this.virtualExecutor.submit(callable);
+        }
+        catch (RejectedExecutionException exception) {
+            // shut down between the check and the submit
+            return shutDown(exception);
         }
-        return this.virtualExecutor.submit(task);
     }
 
-    public <T> Future<T> submit(Callable<T> callable) {
+    private static <T> Future<T> shutDown(Throwable cause) {
+        CompletableFuture<T> f = new CompletableFuture<>();
+        f.completeExceptionally(new IllegalStateException("Executor shut down", cause));
+        return f;
+    }
+
+    /**
+     * Runs the task on a VT without a {@link Future}; an exception goes to the thread's
+     * uncaught exception handler. Dropped once shut down.
+     */
+    public void execute(Runnable task) {
         if (this.shutdown.get()) {
-            CompletableFuture<T> f = new CompletableFuture<>();
-            f.completeExceptionally(new IllegalStateException("Executor shut down"));
-            return f;
+            return;
+        }
+        try {
+            this.virtualExecutor.execute(task);
+        }
+        catch (RejectedExecutionException ignored) {
+            // shut down between the check and the execute
         }
-        return this.virtualExecutor.submit(callable);
     }
 
     public DelayedTask submitDelayed(Runnable task, Duration delay) {
@@ -55,15 +260,9 @@ public final class VirtualThreadExecutor {
             return DelayedTask.EMPTY;
         }
 
-        AtomicBoolean cancelled = new AtomicBoolean(false);
-        ScheduledFuture<?> sf = this.delayScheduler.schedule(
-            () -> {
-                if (!cancelled.get() && !this.shutdown.get()) {
-                    this.virtualExecutor.submit(task);
-                }
-            }, delay.toMillis(), TimeUnit.MILLISECONDS);
+        TimingWheel.Timeout timeout = this.delayTimer.schedule(() -> this.handOff(task), delay, this.owner);
 
-        return new DelayedTask(sf, cancelled);
+        return new DelayedTask(timeout);
     }
 
     public DelayedTask submitRepeating(Runnable task, Duration delay, Duration period) {
@@ -71,40 +270,156 @@ public final class VirtualThreadExecutor {
             return DelayedTask.EMPTY;
         }
 
-        AtomicBoolean cancelled = new AtomicBoolean(false);
-        ScheduledFuture<?> sf = this.delayScheduler.scheduleAtFixedRate(
-            () -> {
-                if (!cancelled.get() && !this.shutdown.get()) {
-                    this.virtualExecutor.submit(task);
-                }
-            }, delay.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+        TimingWheel.Timeout timeout = this.delayTimer.scheduleAtFixedRate(() -> this.handOff(task), delay, period, this.owner);
+
+        return new DelayedTask(timeout);
+    }
+
+    /**
+     * Runs the task on the timer thread itself, for bookkeeping that only hands work off.
+     */
+    void scheduleOnTimer(Runnable task, Duration delay) {
+        this.delayTimer.schedule(task, delay, this.owner);
+    }
+
+    /**
+     * Like {@link #scheduleOnTimer(Runnable, Duration)}, but runs {@code dropped} instead of the
+     * task if shutdown cancels it first, or right away if already shut down.
+     */
+    void scheduleOnTimer(Runnable task, Duration delay, Runnable dropped) {
+        this.delayTimer.schedule(task, delay, this.owner, dropped);
+    }
 
-        return new DelayedTask(sf, cancelled);
+    /**
+     * Repeating task whose runs are started by the launcher, following the policy.
+     */
+    RepeatingTimer scheduleTimer(Runnable task, Duration delay, Duration period, TimerPolicy policy, Executor launcher, boolean async) {
+        RepeatingTimer timer = new RepeatingTimer(this.delayTimer, this.owner, launcher, task, period, policy, async);
+        timer.start(delay);
+        return timer;
     }
 
+    private void handOff(Runnable task) {
+        if (this.shutdown.get()) {
+            return;
+        }
+        try {
+            this.virtualExecutor.submit(task);
+        }
+        catch (RejectedExecutionException ignored) {
+            // shut down between the check and the submit
+        }
+    }
+
+    /**
+     * Future completed after the duration, on the timer thread. Fails with
+     * {@link RejectedExecutionException} if the executor is shut down before that, or already was.
+     */
     public CompletableFuture<Void> delay(Duration duration) {
         CompletableFuture<Void> f = new CompletableFuture<>();
-        this.delayScheduler.schedule(() -> f.complete(null), duration.toMillis(), TimeUnit.MILLISECONDS);
+        if (this.shutdown.get()) {
+            f.completeExceptionally(new RejectedExecutionException("Executor shut down"));
+            return f;
+        }
+
+        TimingWheel.Timeout timeout = this.delayTimer.schedule(
+            () -> f.complete(null),
+            duration,
+            this.owner,
+            () -> f.completeExceptionally(new RejectedExecutionException("Executor shut down")));
+        // drop the timer slot as soon as the future is cancelled instead of at its deadline
+        f.whenComplete((ignored, error) -> {
+            if (error != null) {
+                timeout.cancel();
+            }
+        });
         return f;
     }
 
+    /**
+     * Number of delayed and repeating tasks still waiting on the timer.
+     */
+    public long pendingDelayed() {
+        return this.owner != null ? this.owner.pending() : this.delayTimer.pending();
+    }
+
     public boolean isShutdown() {
         return this.shutdown.get();
     }
 
     public boolean shutdown(Duration timeout) {
+        this.cancelTickTimers();
         if (!this.shutdown.compareAndSet(false, true)) {
             return true;
         }
 
-        this.delayScheduler.shutdown();
+        this.closeBatchers();
+        this.stopTimer();
+        this.virtualExecutor.shutdown();
+        this.computePool.shutdown();
+        return this.awaitTermination(timeout);
+    }
+
+    /**
+     * Phased shutdown: rejects new work, starts the final flush of each {@link WriteBehindBatcher}
+     * and cancels pending timers, gives in-flight VTs and the flushes the drain budget to finish,
+     * then reports the ones still running and interrupts them. Blocks for at most the drain and
+     * the interrupt budget.
+     */
+    public ShutdownReport shutdown(ShutdownPlan plan) {
+        long start = System.nanoTime();
+        this.cancelTickTimers();
+        if (this.shutdown.compareAndSet(false, true)) {
+            this.closeBatchers();
+            this.stopTimer();
+        }
         this.virtualExecutor.shutdown();
+        this.computePool.shutdown();
+
+        if (this.awaitTermination(plan.getDrainTimeout())) {
+            return new ShutdownReport(true, true, Duration.ofNanos(System.nanoTime() - start), List.of());
+        }
 
+        // stacks are taken before the interrupt, which would unwind them
+        long now = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        List<ShutdownReport.StuckTask> stuck = new ArrayList<>();
+        this.running.forEach((thread, task) -> {
+            if (!thread.isAlive()) {
+                return;
+            }
+            threads.add(thread);
+            stuck.add(new ShutdownReport.StuckTask(
+                thread.toString(),
+                task.submitSite(),
+                Duration.ofNanos(now - task.submittedNanos()),
+                List.of(thread.getStackTrace()),
+                false));
+        });
+
+        this.virtualExecutor.shutdownNow();
+        this.computePool.shutdownNow();
+        boolean terminated = this.awaitTermination(plan.getInterruptTimeout());
+
+        List<ShutdownReport.StuckTask> report = new ArrayList<>(stuck.size());
+        for (int i = 0; i < stuck.size(); i++) {
+            ShutdownReport.StuckTask task = stuck.get(i);
+            // terminated once every task returned, a VT may still be alive for a moment after that
+            boolean exited = terminated || !threads.get(i).isAlive();
+            report.add(!exited ? task : new ShutdownReport.StuckTask(
+                task.thread(), task.submitSite(), task.running(), task.stackTrace(), true));
+        }
+        report.sort(Comparator.comparing(ShutdownReport.StuckTask::running).reversed());
+
+        return new ShutdownReport(false, terminated, Duration.ofNanos(System.nanoTime() - start), List.copyOf(report));
+    }
+
+    // VTs and compute workers, within one budget
+    private boolean awaitTermination(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
         try {
-            long half = timeout.toMillis() / 2;
-            boolean a = this.delayScheduler.awaitTermination(half, TimeUnit.MILLISECONDS);
-            boolean b = this.virtualExecutor.awaitTermination(half, TimeUnit.MILLISECONDS);
-            return a && b;
+            return this.virtualExecutor.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                && this.computePool.awaitTermination(deadline - System.nanoTime());
         }
         catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -113,38 +428,151 @@ public final class VirtualThreadExecutor {
     }
 
     public void shutdownNow() {
-        this.shutdown.set(true);
-        this.delayScheduler.shutdownNow();
+        this.cancelTickTimers();
+        if (this.shutdown.compareAndSet(false, true)) {
+            this.stopTimer();
+        }
         this.virtualExecutor.shutdownNow();
+        this.computePool.shutdownNow();
+    }
+
+    private void cancelTickTimers() {
+        for (LoomTask timer : this.tickTimers) {
+            timer.cancel();
+        }
+    }
+
+    // on VTs started before the executor stops, so the drain budget covers the final flushes
+    // and one waiting on a stuck sink is reported with the other stuck tasks
+    private void closeBatchers() {
+        for (WriteBehindBatcher<?> batcher : this.batchers) {
+            Runnable flush = batcher.closeLater();
+            String site = "final flush of batcher " + batcher.getName();
+            long submitted = System.nanoTime();
+            this.virtualExecutor.execute(() -> {
+                Thread thread = Thread.currentThread();
+                this.running.put(thread, new RunningTask(site, submitted));
+                try {
+                    flush.run();
+                }
+                finally {
+                    this.running.remove(thread);
+                }
+            });
+        }
+    }
+
+    private void stopTimer() {
+        if (this.owner == null) {
+            this.delayTimer.stop();
+            return;
+        }
+        this.delayTimer.close(this.owner);
+        this.releaseTimer.run();
+    }
+
+    private static String submitSite() {
+        return STACK_WALKER.walk(frames -> frames
+            .filter(VirtualThreadExecutor::isCallerFrame)
+            .findFirst()
+            .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+            .orElse(null));
+    }
+
+    private static boolean isCallerFrame(StackWalker.StackFrame frame) {
+        Class<?> type = frame.getDeclaringClass();
+        String name = type.getName();
+        if (name.startsWith("java.") || name.startsWith("jdk.") || name.startsWith("sun.")) {
+            return false;
+        }
+        // the scheduler itself, but not other code in the same package (tests, shaded plugins)
+        return !type.getPackageName().equals(LOOM_PACKAGE) || type.getProtectionDomain() != LOOM_DOMAIN;
+    }
+
+    private record RunningTask(String submitSite, long submittedNanos) {
+    }
+
+    /**
+     * The executor asks for the thread at submit time, so that is when the wait starts
+     * and where the submit site is.
+     */
+    private final class TaskThreadFactory implements ThreadFactory {
+
+        private final ThreadFactory virtual = Thread.ofVirtual().factory();
+        private final LoomMetrics metrics;
+        private final boolean metered;
+
+        TaskThreadFactory(LoomMetrics metrics) {
+            this.metrics = metrics;
+            this.metered = metrics != LoomMetrics.NOOP;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            if (!virtualThreadsCreated) {
+                virtualThreadsCreated = true;
+            }
+
+            VirtualThreadExecutor executor = VirtualThreadExecutor.this;
+            boolean sites = executor.trackSubmitSites;
+            boolean tracked = sites || executor.trackRunningTasks;
+            if (!tracked && !this.metered) {
+                return this.virtual.newThread(task);
+            }
+
+            long submitted = System.nanoTime();
+            String site = sites ? submitSite() : null;
+
+            Thread thread = this.virtual.newThread(() -> {
+                long start = this.metered ? System.nanoTime() : 0L;
+                if (this.metered) {
+                    this.metrics.asyncStarted(start - submitted);
+                }
+                try {
+                    task.run();
+                }
+                finally {
+                    if (tracked) {
+                        executor.running.remove(Thread.currentThread());
+                    }
+                    if (this.metered) {
+                        this.metrics.asyncFinished(System.nanoTime() - start);
+                    }
+                }
+            });
+
+            if (tracked) {
+                // before start, so the remove at the end of the task cannot run first
+                executor.running.put(thread, new RunningTask(site, submitted));
+            }
+            if (site != null && PinningMonitor.isRunning()) {
+                PinningMonitor.submitted(thread, site);
+            }
+            return thread;
+        }
     }
 
     public static final class DelayedTask {
-        static final DelayedTask EMPTY = new DelayedTask(null, null);
+        static final DelayedTask EMPTY = new DelayedTask(null);
 
-        private final ScheduledFuture<?> future;
-        private final AtomicBoolean cancelled;
+        private final TimingWheel.Timeout timeout;
 
-        DelayedTask(ScheduledFuture<?> future, AtomicBoolean cancelled) {
-            this.future = future;
-            this.cancelled = cancelled;
+        DelayedTask(TimingWheel.Timeout timeout) {
+            this.timeout = timeout;
         }
 
         public void cancel() {
-            if (this.cancelled != null) {
-                this.cancelled.set(true);
-            }
-            if (this.future != null) {
-                this.future.cancel(false);
+            if (this.timeout != null) {
+                this.timeout.cancel();
             }
         }
 
         public boolean isCancelled() {
-            return (this.cancelled != null && this.cancelled.get())
-                || (this.future != null && this.future.isCancelled());
+            return this.timeout != null && this.timeout.isCancelled();
         }
 
         public boolean isDone() {
-            return this.future != null && this.future.isDone();
+            return this.timeout != null && (this.timeout.isExpired() || this.timeout.isCancelled());
         }
     }
 }
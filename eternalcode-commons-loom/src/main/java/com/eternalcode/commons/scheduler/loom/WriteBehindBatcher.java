@@ -0,0 +1,246 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind accumulator: producers on any thread hand over items, a VT writes them to the
+ * sink as {@code List<T>} batches. Thousands of stat or log records per second become a few
+ * multi-row inserts instead of one {@code runAsync} insert each.
+ * <p>
+ * {@link #offer(Object)} is a lock-free enqueue into a bounded MPSC queue. Filling a batch
+ * starts a flush at once; otherwise the first item after a flush arms a timer for the max
+ * latency. Only one flush runs at a time, so the sink sees batches in offer order.
+ * When the sink falls behind the queue fills up: {@code offer} then fails and {@link #put(Object)}
+ * waits. {@link LoomScheduler#shutdown(java.time.Duration)} writes whatever is left.
+ * Create with {@link LoomScheduler#newWriteBehindBatcher(String, WriteBehindPolicy, Consumer)}.
+ */
+public final class WriteBehindBatcher<T> {
+
+    private final String name;
+    private final WriteBehindPolicy policy;
+    private final Consumer<List<T>> sink;
+    private final MainThreadDispatcher dispatcher;
+    private final VirtualThreadExecutor executor;
+    private final LoomMetrics metrics;
+
+    private final MpscArrayQueue<T> queue;
+    // offered minus taken; may dip below zero for a moment while an offer is between the two steps
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private volatile boolean closed;
+
+    // held by the single consumer, and by put() while it waits for space
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition spaceFreed = this.lock.newCondition();
+
+    WriteBehindBatcher(
+        String name, WriteBehindPolicy policy, Consumer<List<T>> sink,
+        MainThreadDispatcher dispatcher, VirtualThreadExecutor executor, LoomMetrics metrics) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Batcher name must not be blank");
+        }
+        this.name = name;
+        this.policy = policy;
+        this.sink = sink;
+        this.dispatcher = dispatcher;
+        this.executor = executor;
+        this.metrics = metrics;
+        this.queue = new MpscArrayQueue<>(Math.min(policy.getBatchSize(), 1024), policy.getCapacity());
+        metrics.gauge("loom.batch." + name + ".queued", this::getQueuedCount);
+    }
+
+    /**
+     * Queues the item without blocking.
+     *
+     * @return false if the queue is full or the batcher is closed; the item was not taken
+     */
+    public boolean offer(T item) {
+        if (item == null) {
+            throw new NullPointerException("item");
+        }
+        if (this.closed) {
+            return false;
+        }
+        if (!this.queue.offer(item)) {
+            this.requestFlush();
+            return false;
+        }
+
+        int count = this.queued.incrementAndGet();
+        if (this.closed) {
+            // raced with close(), which may have drained already
+            this.drainNow();
+        }
+        else if (count >= this.policy.getBatchSize()) {
+            this.requestFlush();
+        }
+        else if (count == 1) {
+            this.executor.scheduleOnTimer(this::requestFlush, this.policy.getMaxLatency());
+        }
+        return true;
+    }
+
+    /**
+     * Queues the item, waiting for the sink to free space if the queue is full.
+     * Never call it on the main thread; use {@link #offer(Object)} there.
+     *
+     * @throws IllegalStateException if called on the main thread or the batcher is closed
+     */
+    public void put(T item) throws InterruptedException {
+        if (this.offer(item)) {
+            return;
+        }
+        if (this.dispatcher.isMainThread()) {
+            throw new IllegalStateException("put() would block the main thread, use offer()");
+        }
+
+        this.lock.lockInterruptibly();
+        try {
+            while (!this.offer(item)) {
+                if (this.closed) {
+                    throw new IllegalStateException("Batcher " + this.name + " is closed");
+                }
+                this.spaceFreed.await();
+            }
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void requestFlush() {
+        if (this.flushScheduled.compareAndSet(false, true)) {
+            this.executor.execute(this::flush);
+        }
+    }
+
+    // flush VT
+    private void flush() {
+        this.lock.lock();
+        try {
+            // requests from now on start another run, nothing offered during this one is missed
+            this.flushScheduled.set(false);
+            this.drain();
+        }
+        finally {
+            this.lock.unlock();
+        }
+
+        if (this.queued.get() > 0 && !this.closed) {
+            this.executor.scheduleOnTimer(this::requestFlush, this.policy.getMaxLatency());
+        }
+    }
+
+    private void drainNow() {
+        this.lock.lock();
+        try {
+            this.drain();
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    // lock held
+    private void drain() {
+        int batchSize = this.policy.getBatchSize();
+        List<T> batch = new ArrayList<>(Math.min(batchSize, Math.max(1, this.queued.get())));
+        T item;
+        while ((item = this.queue.poll()) != null) {
+            batch.add(item);
+            if (batch.size() == batchSize) {
+                this.write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            this.write(batch);
+        }
+    }
+
+    private void write(List<T> batch) {
+        this.queued.addAndGet(-batch.size());
+        this.spaceFreed.signalAll();
+
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            this.sink.accept(batch);
+            succeeded = true;
+        }
+        catch (Throwable throwable) {
+            // the batch is lost either way; keep flushing the rest
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+        }
+        finally {
+            this.metrics.batchFlushed(this.name, batch.size(), System.nanoTime() - start, succeeded);
+        }
+    }
+
+    /**
+     * Stops taking items and writes everything queued on the calling thread, after a flush
+     * already running. Safe to call more than once. A graceful
+     * {@link LoomScheduler#shutdown(java.time.Duration) shutdown} does the same on a VT, within its budget.
+     */
+    public void close() {
+        this.closed = true;
+        this.drainNow();
+        this.lock.lock();
+        try {
+            // wake put() callers so they see the batcher closed
+            this.spaceFreed.signalAll();
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stops taking items; the returned task writes everything queued. An interrupt while it
+     * waits for a stuck flush gives up, the items are lost.
+     */
+    Runnable closeLater() {
+        this.closed = true;
+        return this::finalFlush;
+    }
+
+    // shutdown VT
+    private void finalFlush() {
+        try {
+            this.lock.lockInterruptibly();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            this.drain();
+            this.spaceFreed.signalAll();
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Items waiting for a flush.
+     */
+    public int getQueuedCount() {
+        return Math.max(0, this.queued.get());
+    }
+
+    public String getName() {
+        return this.name;
+    }
+}
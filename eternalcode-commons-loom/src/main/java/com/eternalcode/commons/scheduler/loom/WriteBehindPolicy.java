@@ -0,0 +1,86 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import java.time.Duration;
+
+/**
+ * When a {@link WriteBehindBatcher} flushes and how much it holds. A flush starts once
+ * {@code batchSize} items are waiting or the oldest waited {@code maxLatency}, whichever comes first.
+ */
+public final class WriteBehindPolicy {
+
+    public static final WriteBehindPolicy DEFAULT = builder().build();
+
+    private final int batchSize;
+    private final Duration maxLatency;
+    private final int capacity;
+
+    private WriteBehindPolicy(Builder builder) {
+        this.batchSize = builder.batchSize;
+        this.maxLatency = builder.maxLatency;
+        this.capacity = builder.capacity;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    public Duration getMaxLatency() {
+        return this.maxLatency;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public static class Builder {
+
+        private int batchSize = 500;
+        private Duration maxLatency = Duration.ofSeconds(1);
+        private int capacity = 65_536;
+
+        private Builder() {
+        }
+
+        /**
+         * Most items handed to the sink in one call, and the count that starts a flush early.
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder maxLatency(Duration maxLatency) {
+            if (maxLatency.isNegative()) {
+                throw new IllegalArgumentException("Max latency must not be negative");
+            }
+            this.maxLatency = maxLatency;
+            return this;
+        }
+
+        /**
+         * Items waiting at most, rounded up to a power of two. Once reached {@code offer} fails
+         * and {@code put} waits for the sink to catch up.
+         */
+        public Builder capacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be positive");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public WriteBehindPolicy build() {
+            if (this.capacity < this.batchSize) {
+                throw new IllegalArgumentException("Capacity must not be below the batch size");
+            }
+            return new WriteBehindPolicy(this);
+        }
+    }
+}
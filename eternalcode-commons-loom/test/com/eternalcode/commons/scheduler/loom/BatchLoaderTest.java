@@ -0,0 +1,178 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(10)
+class BatchLoaderTest {
+
+    private QueuedDispatcher dispatcher;
+    private LoomSchedulerImpl scheduler;
+    private List<Set<Integer>> calls;
+
+    @BeforeEach
+    void setUp() {
+        this.dispatcher = new QueuedDispatcher();
+        this.scheduler = new LoomSchedulerImpl(this.dispatcher, new VirtualThreadExecutor());
+        this.calls = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.scheduler.shutdownNow();
+    }
+
+    private Map<Integer, String> lookup(Set<Integer> keys) {
+        this.calls.add(Set.copyOf(keys));
+        Map<Integer, String> values = new HashMap<>();
+        for (Integer key : keys) {
+            if (key >= 0) {
+                values.put(key, "user-" + key);
+            }
+        }
+        return values;
+    }
+
+    private BatchLoader<Integer, String> loader(BatchPolicy policy) {
+        return this.scheduler.newBatchLoader(policy, this::lookup);
+    }
+
+    @Test
+    @DisplayName("loads within the window should be merged into one call with distinct keys")
+    void load_withinWindow_mergesAndDeduplicates() throws Exception {
+        BatchLoader<Integer, String> loader = this.loader(BatchPolicy.builder().window(Duration.ofMillis(100)).build());
+
+        LoomFuture<String> first = loader.load(1);
+        LoomFuture<String> second = loader.load(2);
+        LoomFuture<String> again = loader.load(1);
+
+        assertEquals("user-1", first.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertEquals("user-2", second.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertEquals("user-1", again.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(Set.of(1, 2)), this.calls);
+    }
+
+    @Test
+    @DisplayName("a full batch should be sent without waiting for the window")
+    void load_maxBatchSize_flushesEarly() throws Exception {
+        BatchLoader<Integer, String> loader = this.loader(BatchPolicy.builder()
+            .window(Duration.ofMinutes(1))
+            .maxBatchSize(3)
+            .build());
+
+        loader.load(1);
+        loader.load(2);
+        LoomFuture<String> third = loader.load(3);
+        LoomFuture<String> fourth = loader.load(4);
+
+        assertEquals("user-3", third.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(Set.of(1, 2, 3)), this.calls);
+        assertFalse(fourth.isDone());
+        assertEquals(1, loader.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("missing keys should complete with null and a failing call should fail the whole batch")
+    void load_missingAndFailing() throws Exception {
+        BatchLoader<Integer, String> loader = this.loader(BatchPolicy.DEFAULT);
+        assertNull(loader.load(-1).toCompletableFuture().get(5, TimeUnit.SECONDS));
+
+        BatchLoader<Integer, String> failing = this.scheduler.newBatchLoader(BatchPolicy.DEFAULT, keys -> {
+            throw new IllegalStateException("Test exception");
+        });
+        LoomFuture<String> first = failing.load(1);
+        LoomFuture<String> second = failing.load(2);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> first.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertThrows(ExecutionException.class, () -> second.toCompletableFuture().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("cached values should be served without a batch call until invalidated")
+    void load_cached_skipsBatchUntilInvalidated() throws Exception {
+        BatchLoader<Integer, String> loader = this.loader(BatchPolicy.builder().cache(true).build());
+
+        loader.load(1).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals("user-1", loader.load(1).toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertEquals(1, this.calls.size());
+
+        loader.invalidate(1);
+        loader.load(1).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(2, this.calls.size());
+    }
+
+    @Test
+    @DisplayName("cancelling one load should not cancel another load of the same key")
+    void cancel_doesNotAffectOtherCallers() throws Exception {
+        BatchLoader<Integer, String> loader = this.loader(BatchPolicy.builder().window(Duration.ofMillis(100)).build());
+
+        LoomFuture<String> cancelled = loader.load(7);
+        LoomFuture<String> kept = loader.load(7);
+        cancelled.cancel();
+
+        assertTrue(cancelled.isCancelled());
+        assertEquals("user-7", kept.toCompletableFuture().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("sync stages on a loaded value should run on the main thread")
+    void load_thenAcceptSync_runsOnDispatcher() throws Exception {
+        BatchLoader<Integer, String> loader = this.loader(BatchPolicy.DEFAULT);
+        AtomicReference<String> result = new AtomicReference<>();
+        CountDownLatch loaded = new CountDownLatch(1);
+
+        LoomFuture<String> future = loader.load(5);
+        future.thenAcceptSync(result::set);
+        future.thenAccept(value -> loaded.countDown());
+
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertNull(result.get());
+        this.dispatcher.runPending();
+        assertEquals("user-5", result.get());
+    }
+
+    @Test
+    @DisplayName("shutdown should fail a batch waiting for its window and later loads, without caching them")
+    void shutdown_failsWaitingBatchAndLaterLoads() {
+        BatchLoader<Integer, String> loader = this.loader(BatchPolicy.builder()
+            .window(Duration.ofMinutes(1))
+            .cache(true)
+            .build());
+        LoomFuture<String> waiting = loader.load(1);
+
+        this.scheduler.shutdownNow();
+
+        assertThrows(ExecutionException.class, () -> waiting.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> loader.load(1).toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertEquals(0, loader.getPendingCount());
+        assertTrue(this.calls.isEmpty());
+    }
+
+    @Test
+    @DisplayName("policy builder should reject a non-positive batch size")
+    void policy_invalidBatchSize_throws() {
+        assertThrows(IllegalArgumentException.class, () -> BatchPolicy.builder().maxBatchSize(0));
+        assertThrows(IllegalArgumentException.class, () -> BatchPolicy.builder().window(Duration.ofMillis(-1)));
+    }
+}
@@ -0,0 +1,157 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for {@link Bulkhead}.
+ */
+@Timeout(10)
+class BulkheadTest {
+
+    @Test
+    @DisplayName("call should never exceed max concurrency")
+    void call_limitsConcurrency() throws InterruptedException {
+        Bulkhead bulkhead = Bulkhead.builder("db").maxConcurrent(3).build();
+        AtomicInteger active = new AtomicInteger(0);
+        AtomicInteger maxActive = new AtomicInteger(0);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    bulkhead.call(() -> {
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        Thread.sleep(5);
+                        active.decrementAndGet();
+                        return null;
+                    });
+                }
+                catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(3, maxActive.get());
+        assertEquals(50, bulkhead.getAcquiredCount());
+        assertEquals(0, bulkhead.getActiveCount());
+        assertTrue(bulkhead.getMaxWait().toNanos() > 0, "Some calls should have waited");
+    }
+
+    @Test
+    @DisplayName("call should reject when the wait queue is full")
+    void call_rejectsWhenQueueFull() throws Exception {
+        Bulkhead bulkhead = Bulkhead.builder("db").maxConcurrent(1).maxWaiting(0).build();
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = this.hold(bulkhead, holding, release);
+        assertTrue(holding.await(1, TimeUnit.SECONDS));
+
+        assertThrows(RejectedExecutionException.class, () -> bulkhead.call(() -> null));
+        assertEquals(1, bulkhead.getRejectedCount());
+
+        release.countDown();
+        holder.join();
+        assertEquals("ok", bulkhead.call(() -> "ok"));
+    }
+
+    @Test
+    @DisplayName("call should reject after the max wait")
+    void call_rejectsAfterMaxWait() throws Exception {
+        Bulkhead bulkhead = Bulkhead.builder("db").maxConcurrent(1).maxWait(Duration.ofMillis(50)).build();
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = this.hold(bulkhead, holding, release);
+        assertTrue(holding.await(1, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        assertThrows(RejectedExecutionException.class, () -> bulkhead.call(() -> null));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(waitedMillis >= 45, "Should wait for the max wait, waited: " + waitedMillis);
+        assertEquals(1, bulkhead.getTimedOutCount());
+        assertEquals(0, bulkhead.getQueueDepth());
+
+        release.countDown();
+        holder.join();
+    }
+
+    @Test
+    @DisplayName("waiting callers should show up in queue depth")
+    void queueDepth_countsWaiters() throws InterruptedException {
+        Bulkhead bulkhead = Bulkhead.builder("db").maxConcurrent(1).build();
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger done = new AtomicInteger(0);
+
+        Thread holder = this.hold(bulkhead, holding, release);
+        assertTrue(holding.await(1, TimeUnit.SECONDS));
+
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            waiters.add(Thread.ofVirtual().start(() -> {
+                try {
+                    bulkhead.call(done::incrementAndGet);
+                }
+                catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+
+        while (bulkhead.getQueueDepth() < 2) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, bulkhead.getActiveCount());
+
+        release.countDown();
+        holder.join();
+        for (Thread waiter : waiters) {
+            waiter.join();
+        }
+
+        assertEquals(2, done.get());
+        assertEquals(0, bulkhead.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("builder should reject invalid limits")
+    void builder_rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> Bulkhead.builder(" "));
+        assertThrows(IllegalArgumentException.class, () -> Bulkhead.builder("db").maxConcurrent(0));
+        assertThrows(IllegalArgumentException.class, () -> Bulkhead.builder("db").maxWaiting(-1));
+    }
+
+    private Thread hold(Bulkhead bulkhead, CountDownLatch holding, CountDownLatch release) {
+        return Thread.ofVirtual().start(() -> {
+            try {
+                bulkhead.call(() -> {
+                    holding.countDown();
+                    release.await();
+                    return null;
+                });
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(10)
+class ComputePoolTest {
+
+    private ComputePool pool;
+
+    @BeforeEach
+    void setUp() {
+        this.pool = new ComputePool(2, LoomMetrics.NOOP);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("default pool should have one worker per core")
+    void defaultParallelism_matchesCores() {
+        ComputePool sized = new ComputePool(LoomMetrics.NOOP);
+        try {
+            assertEquals(Integer.getInteger(ComputePool.PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()), sized.getParallelism());
+        }
+        finally {
+            sized.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("fork/join subtasks inside a compute task should be stolen by the pool")
+    void execute_forkJoinInside() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        long[] result = new long[1];
+
+        this.pool.execute(() -> {
+            result[0] = new Sum(0, 100_000).invoke();
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(4_999_950_000L, result[0]);
+    }
+
+    @Test
+    @DisplayName("shutdownNow should interrupt a worker and terminate the pool")
+    void shutdownNow_interruptsWorkers() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        this.pool.execute(() -> {
+            started.countDown();
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.onSpinWait();
+            }
+            interrupted.set(true);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        this.pool.shutdownNow();
+
+        assertTrue(this.pool.awaitTermination(TimeUnit.SECONDS.toNanos(5)));
+        assertTrue(interrupted.get());
+        assertThrows(RejectedExecutionException.class, () -> this.pool.execute(() -> {}));
+    }
+
+    @Test
+    @DisplayName("pool should reject a non-positive parallelism")
+    void constructor_invalidParallelism_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ComputePool(0, LoomMetrics.NOOP));
+    }
+
+    private static final class Sum extends RecursiveTask<Long> {
+
+        private final int from;
+        private final int to;
+
+        Sum(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.to - this.from <= 1_000) {
+                long sum = 0;
+                for (int i = this.from; i < this.to; i++) {
+                    sum += i;
+                }
+                return sum;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            ForkJoinTask<Long> left = new Sum(this.from, middle).fork();
+            return new Sum(middle, this.to).compute() + left.join();
+        }
+    }
+}
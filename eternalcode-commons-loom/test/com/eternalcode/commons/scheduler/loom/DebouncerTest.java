@@ -0,0 +1,221 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for debounce and throttle through {@link LoomSchedulerImpl}.
+ */
+@Timeout(10)
+class DebouncerTest {
+
+    private QueuedDispatcher dispatcher;
+    private VirtualThreadExecutor executor;
+    private LoomSchedulerImpl scheduler;
+
+    @BeforeEach
+    void setUp() {
+        this.dispatcher = new QueuedDispatcher();
+        this.executor = new VirtualThreadExecutor();
+        this.scheduler = new LoomSchedulerImpl(this.dispatcher, this.executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("debounce should run only the last task of a burst, after the quiet period")
+    void debounceAsync_runsTrailingCallOnce() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        AtomicReference<Integer> value = new AtomicReference<>();
+        CountDownLatch ran = new CountDownLatch(1);
+
+        for (int i = 0; i < 20; i++) {
+            int index = i;
+            this.scheduler.debounceAsync("inventory", Duration.ofMillis(200), () -> {
+                runs.incrementAndGet();
+                value.set(index);
+                ran.countDown();
+            });
+            Thread.sleep(5);
+        }
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        assertEquals(1, runs.get());
+        assertEquals(19, value.get());
+    }
+
+    @Test
+    @DisplayName("debounce should keep one timer per key, not one per event")
+    void debounce_burst_usesOneTimer() throws InterruptedException {
+        for (int i = 0; i < 1000; i++) {
+            this.scheduler.debounceAsync("region", Duration.ofSeconds(5), () -> {
+            });
+        }
+
+        assertEquals(1, this.executor.pendingDelayed());
+    }
+
+    @Test
+    @DisplayName("debounce with different keys should run each key's task")
+    void debounceSync_differentKeys_runIndependently() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+
+        this.scheduler.debounceSync("alice", Duration.ofMillis(10), runs::incrementAndGet);
+        this.scheduler.debounceSync("bob", Duration.ofMillis(10), runs::incrementAndGet);
+
+        while (this.dispatcher.getPendingCount() < 2) {
+            Thread.sleep(1);
+        }
+        this.dispatcher.runPending();
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    @DisplayName("debounce after the task ran should start a new burst")
+    void debounce_afterFire_startsAgain() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+
+        this.scheduler.debounceSync("chat", Duration.ofMillis(10), runs::incrementAndGet);
+        while (!this.dispatcher.hasPending()) {
+            Thread.sleep(1);
+        }
+        this.scheduler.debounceSync("chat", Duration.ofMillis(10), runs::incrementAndGet);
+        while (this.dispatcher.getPendingCount() < 2) {
+            Thread.sleep(1);
+        }
+
+        this.dispatcher.runPending();
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    @DisplayName("debounce with a shorter delay should fire at its own deadline, not the armed one")
+    void debounce_shorterDelay_firesEarlier() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+        AtomicReference<String> value = new AtomicReference<>();
+
+        this.scheduler.debounceAsync("save", Duration.ofSeconds(30), () -> value.set("slow"));
+        this.scheduler.debounceAsync("save", Duration.ofMillis(20), () -> {
+            value.set("fast");
+            ran.countDown();
+        });
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals("fast", value.get());
+    }
+
+    @Test
+    @DisplayName("schedulers sharing an executor should coalesce the same key, like Folia's per-entity schedulers")
+    void debounce_schedulersOnOneExecutor_coalesce() throws InterruptedException {
+        QueuedDispatcher entityDispatcher = new QueuedDispatcher();
+        LoomSchedulerImpl entity = new LoomSchedulerImpl(entityDispatcher, this.executor);
+        AtomicInteger regionRuns = new AtomicInteger();
+        AtomicInteger entityRuns = new AtomicInteger();
+
+        this.scheduler.debounceSync("player-data", Duration.ofMillis(20), regionRuns::incrementAndGet);
+        entity.debounceSync("player-data", Duration.ofMillis(20), entityRuns::incrementAndGet);
+
+        // the last call wins and runs on its own scheduler's dispatcher
+        while (!entityDispatcher.hasPending()) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+        entityDispatcher.runPending();
+        this.dispatcher.runPending();
+        assertEquals(0, regionRuns.get());
+        assertEquals(1, entityRuns.get());
+        assertEquals(0, this.executor.debouncer().pendingDebounces());
+    }
+
+    @Test
+    @DisplayName("throttle should run the leading task and drop the rest of the period")
+    void throttleSync_runsLeadingCall() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(this.scheduler.throttleSync("move", Duration.ofMillis(100), runs::incrementAndGet));
+        assertFalse(this.scheduler.throttleSync("move", Duration.ofMillis(100), runs::incrementAndGet));
+        assertTrue(this.scheduler.throttleSync("other", Duration.ofMillis(100), runs::incrementAndGet));
+
+        this.dispatcher.runPending();
+        assertEquals(2, runs.get());
+
+        Thread.sleep(150);
+        assertTrue(this.scheduler.throttleSync("move", Duration.ofMillis(100), runs::incrementAndGet));
+    }
+
+    @Test
+    @DisplayName("throttle rejected by the launcher should not throttle the key")
+    void throttleSync_rejected_doesNotThrottle() {
+        DispatchQueue lane = fullRejectingLane();
+        LoomSchedulerImpl rejecting = new LoomSchedulerImpl(lane::offer, this.executor);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThrows(RejectedExecutionException.class, () -> rejecting.throttleSync("move", Duration.ofSeconds(10), runs::incrementAndGet));
+        lane.drain();
+
+        assertTrue(rejecting.throttleSync("move", Duration.ofSeconds(10), runs::incrementAndGet));
+        lane.drain();
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    @DisplayName("debounce rejected by the launcher should drop the call and keep the timer running")
+    void debounceSync_rejected_dropsCall() throws InterruptedException {
+        DispatchQueue lane = fullRejectingLane();
+        LoomSchedulerImpl rejecting = new LoomSchedulerImpl(lane::offer, this.executor);
+        AtomicInteger dropped = new AtomicInteger();
+
+        rejecting.debounceSync("save", Duration.ofMillis(20), dropped::incrementAndGet);
+        Thread.sleep(150);
+        assertEquals(0, this.executor.debouncer().pendingDebounces());
+        lane.drain();
+
+        CountDownLatch ran = new CountDownLatch(1);
+        this.scheduler.debounceAsync("save", Duration.ofMillis(20), ran::countDown);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals(0, dropped.get());
+    }
+
+    @Test
+    @DisplayName("throttle async should run on a virtual thread")
+    void throttleAsync_runsOnVirtualThread() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+        AtomicReference<Boolean> virtual = new AtomicReference<>();
+
+        this.scheduler.throttleAsync("filter", Duration.ofSeconds(1), () -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            ran.countDown();
+        });
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertTrue(virtual.get());
+    }
+
+    private static DispatchQueue fullRejectingLane() {
+        DispatchQueue lane = new DispatchQueue(DispatchQueue.UNLIMITED_BUDGET, 2, DispatchQueue.OverflowPolicy.REJECT, error -> {
+        });
+        lane.offer(() -> {
+        });
+        lane.offer(() -> {
+        });
+        return lane;
+    }
+}
@@ -0,0 +1,338 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for {@link DispatchQueue}.
+ */
+@Timeout(10)
+class DispatchQueueTest {
+
+    private List<Throwable> errors;
+    private DispatchQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        this.errors = new ArrayList<>();
+        this.queue = new DispatchQueue(this.errors::add);
+    }
+
+    @Test
+    @DisplayName("drain should run all tasks in order without budget")
+    void drain_runsAllInOrder() {
+        StringBuilder order = new StringBuilder();
+
+        this.queue.offer(() -> order.append("A"));
+        this.queue.offer(() -> order.append("B"));
+        this.queue.offer(() -> order.append("C"));
+
+        assertEquals(3, this.queue.drain());
+        assertEquals("ABC", order.toString());
+        assertEquals(0, this.queue.getPendingCount());
+        assertEquals(0, this.queue.getOverrunTicks());
+    }
+
+    @Test
+    @DisplayName("drain should stop at budget and carry over in FIFO order")
+    void drain_carriesOverWhenBudgetSpent() {
+        this.queue.setTickBudget(Duration.ofMillis(5));
+        List<Integer> order = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            int id = i;
+            this.queue.offer(() -> {
+                order.add(id);
+                sleep(3);
+            });
+        }
+
+        int first = this.queue.drain();
+
+        assertTrue(first >= 1 && first < 10, "Budget should cut the drain short, ran: " + first);
+        assertEquals(10 - first, this.queue.getPendingCount());
+        assertEquals(1, this.queue.getOverrunTicks());
+        assertEquals(10 - first, this.queue.getCarriedOverTasks());
+
+        while (!this.queue.isEmpty()) {
+            this.queue.drain();
+        }
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), order);
+    }
+
+    @Test
+    @DisplayName("drain should run at least one task even with a tiny budget")
+    void drain_alwaysMakesProgress() {
+        this.queue.setTickBudget(Duration.ofNanos(1));
+        AtomicInteger counter = new AtomicInteger(0);
+
+        this.queue.offer(counter::incrementAndGet);
+        this.queue.offer(counter::incrementAndGet);
+
+        assertEquals(1, this.queue.drain());
+        assertEquals(1, this.queue.drain());
+        assertEquals(2, counter.get());
+    }
+
+    @Test
+    @DisplayName("drainAll should ignore the budget")
+    void drainAll_ignoresBudget() {
+        this.queue.setTickBudget(Duration.ofNanos(1));
+        AtomicInteger counter = new AtomicInteger(0);
+
+        for (int i = 0; i < 5; i++) {
+            this.queue.offer(counter::incrementAndGet);
+        }
+
+        assertEquals(5, this.queue.drainAll());
+        assertEquals(5, counter.get());
+    }
+
+    @Test
+    @DisplayName("drain should record queue age of waiting tasks")
+    void drain_recordsQueueAge() {
+        this.queue.offer(() -> {
+        });
+        sleep(20);
+
+        this.queue.drain();
+
+        assertTrue(this.queue.getLastQueueAge().toMillis() >= 20);
+        assertTrue(this.queue.getMaxQueueAge().compareTo(this.queue.getLastQueueAge()) >= 0);
+
+        this.queue.drain();
+
+        assertTrue(this.queue.getMaxQueueAge().toMillis() >= 20, "Max age should be kept");
+    }
+
+    @Test
+    @DisplayName("drain should report queue age to metrics only when it ran something")
+    void drain_reportsToMetrics() {
+        LoomMetricsRecorder metrics = new LoomMetricsRecorder();
+        this.queue.setMetrics(metrics);
+
+        this.queue.drain();
+        this.queue.offer(() -> {
+        });
+        sleep(20);
+        this.queue.drain();
+
+        assertEquals(1, metrics.getSyncQueueAge().getCount());
+        assertTrue(metrics.getSyncQueueAge().getMax().toMillis() >= 20);
+    }
+
+    @Test
+    @DisplayName("drain should hand exceptions to the error handler and continue")
+    void drain_reportsExceptions() {
+        AtomicInteger counter = new AtomicInteger(0);
+
+        this.queue.offer(() -> {
+            throw new RuntimeException("Test error");
+        });
+        this.queue.offer(counter::incrementAndGet);
+
+        assertEquals(2, this.queue.drain());
+        assertEquals(1, counter.get());
+        assertEquals(1, this.errors.size());
+    }
+
+    @Test
+    @DisplayName("drain should run higher priority lanes first")
+    void drain_runsHigherLanesFirst() {
+        StringBuilder order = new StringBuilder();
+
+        this.queue.offer(() -> order.append("b"), DispatchPriority.BACKGROUND);
+        this.queue.offer(() -> order.append("n"));
+        this.queue.offer(() -> order.append("c"), DispatchPriority.CRITICAL);
+        this.queue.offer(() -> order.append("N"), DispatchPriority.NORMAL);
+
+        this.queue.drain();
+
+        assertEquals("cnNb", order.toString());
+    }
+
+    @Test
+    @DisplayName("lower lane should get a turn after being passed over")
+    void drain_protectsLowerLanesFromStarvation() {
+        this.queue.setTickBudget(Duration.ofNanos(1));
+        AtomicInteger background = new AtomicInteger(0);
+
+        this.queue.offer(background::incrementAndGet, DispatchPriority.BACKGROUND);
+        for (int i = 0; i < DispatchQueue.STARVATION_LIMIT * 3; i++) {
+            this.queue.offer(() -> {
+            }, DispatchPriority.CRITICAL);
+        }
+
+        for (int i = 0; i <= DispatchQueue.STARVATION_LIMIT; i++) {
+            this.queue.drain();
+        }
+
+        assertEquals(1, background.get(), "Background task should run despite critical backlog");
+        assertEquals(DispatchQueue.STARVATION_LIMIT * 2, this.queue.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("offerCoalesced should run only the latest task per key")
+    void offerCoalesced_runsLatestPerKey() {
+        List<String> ran = new ArrayList<>();
+
+        this.queue.offerCoalesced("a", () -> ran.add("a1"));
+        this.queue.offerCoalesced("b", () -> ran.add("b1"));
+        this.queue.offerCoalesced("a", () -> ran.add("a2"));
+        this.queue.offerCoalesced("a", () -> ran.add("a3"));
+
+        assertEquals(4, this.queue.getPendingCount());
+
+        this.queue.drain();
+
+        assertEquals(List.of("a3", "b1"), ran);
+        assertEquals(2, this.queue.getSupersededTasks());
+        assertEquals(0, this.queue.getPendingCount());
+        assertTrue(this.queue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("offerCoalesced should cancel replaced futures")
+    void offerCoalesced_cancelsReplacedFutures() {
+        FutureTask<Void> first = new FutureTask<>(() -> {
+        }, null);
+        FutureTask<Void> second = new FutureTask<>(() -> {
+        }, null);
+
+        this.queue.offerCoalesced("key", first);
+        this.queue.offerCoalesced("key", second);
+        this.queue.drain();
+
+        assertTrue(first.isCancelled());
+        assertTrue(second.isDone());
+        assertFalse(second.isCancelled());
+    }
+
+    @Test
+    @DisplayName("coalesced tasks should alternate with normal tasks")
+    void offerCoalesced_sharesNormalLane() {
+        StringBuilder order = new StringBuilder();
+
+        this.queue.offer(() -> order.append("1"));
+        this.queue.offer(() -> order.append("2"));
+        this.queue.offerCoalesced("x", () -> order.append("x"));
+        this.queue.offerCoalesced("y", () -> order.append("y"));
+        this.queue.offer(() -> order.append("c"), DispatchPriority.CRITICAL);
+
+        this.queue.drain();
+
+        assertEquals("c1x2y", order.toString());
+    }
+
+    @Test
+    @DisplayName("key dispatched again after a drain should run again")
+    void offerCoalesced_afterDrain_runsAgain() {
+        AtomicInteger counter = new AtomicInteger(0);
+
+        this.queue.offerCoalesced("key", counter::incrementAndGet);
+        this.queue.drain();
+        this.queue.offerCoalesced("key", counter::incrementAndGet);
+        this.queue.drain();
+
+        assertEquals(2, counter.get());
+        assertEquals(0, this.queue.getSupersededTasks());
+    }
+
+    @Test
+    @DisplayName("full lane should spill and keep FIFO order")
+    void offer_spillsWhenFull() {
+        DispatchQueue small = new DispatchQueue(DispatchQueue.UNLIMITED_BUDGET, 4, DispatchQueue.OverflowPolicy.SPILL, this.errors::add);
+        List<Integer> order = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            int id = i;
+            small.offer(() -> order.add(id));
+        }
+
+        assertEquals(6, small.getSpilledTasks());
+        assertEquals(10, small.getPendingCount());
+        assertEquals(10, small.drain());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), order);
+    }
+
+    @Test
+    @DisplayName("full lane should reject with REJECT policy")
+    void offer_rejectsWhenFull() {
+        DispatchQueue small = new DispatchQueue(DispatchQueue.UNLIMITED_BUDGET, 2, DispatchQueue.OverflowPolicy.REJECT, this.errors::add);
+
+        small.offer(() -> {
+        });
+        small.offer(() -> {
+        });
+
+        assertThrows(RejectedExecutionException.class, () -> small.offer(() -> {
+        }));
+        assertEquals(2, small.getPendingCount());
+        assertEquals(0, small.getSpilledTasks());
+    }
+
+    @Test
+    @DisplayName("full lane should park virtual threads with BLOCK policy")
+    void offer_blocksVirtualThreadWhenFull() throws InterruptedException {
+        DispatchQueue small = new DispatchQueue(DispatchQueue.UNLIMITED_BUDGET, 2, DispatchQueue.OverflowPolicy.BLOCK, this.errors::add);
+        AtomicInteger counter = new AtomicInteger(0);
+
+        Thread producer = Thread.ofVirtual().start(() -> {
+            for (int i = 0; i < 5; i++) {
+                small.offer(counter::incrementAndGet);
+            }
+        });
+
+        while (producer.isAlive()) {
+            small.drain();
+            Thread.sleep(1);
+        }
+        small.drainAll();
+
+        assertEquals(5, counter.get());
+        assertEquals(0, small.getSpilledTasks(), "Virtual thread should wait instead of spilling");
+    }
+
+    @Test
+    @DisplayName("BLOCK policy should spill from platform threads")
+    void offer_blockPolicySpillsFromPlatformThread() {
+        DispatchQueue small = new DispatchQueue(DispatchQueue.UNLIMITED_BUDGET, 2, DispatchQueue.OverflowPolicy.BLOCK, this.errors::add);
+
+        for (int i = 0; i < 3; i++) {
+            small.offer(() -> {
+            });
+        }
+
+        assertEquals(1, small.getSpilledTasks());
+        assertEquals(3, small.drain());
+    }
+
+    @Test
+    @DisplayName("setTickBudget should reject non-positive budget")
+    void setTickBudget_rejectsZero() {
+        assertThrows(IllegalArgumentException.class, () -> this.queue.setTickBudget(Duration.ZERO));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
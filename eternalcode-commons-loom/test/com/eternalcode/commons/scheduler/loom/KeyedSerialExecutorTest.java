@@ -0,0 +1,196 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for {@link KeyedSerialExecutor}.
+ */
+@Timeout(10)
+class KeyedSerialExecutorTest {
+
+    private LoomMetricsRecorder metrics;
+    private LoomSchedulerImpl scheduler;
+    private KeyedSerialExecutor<String> executor;
+
+    @BeforeEach
+    void setUp() {
+        this.metrics = new LoomMetricsRecorder();
+        this.scheduler = new LoomSchedulerImpl(new QueuedDispatcher(), this.metrics);
+        this.executor = this.scheduler.newKeyedSerialExecutor("players");
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("tasks with the same key should run one at a time in submit order")
+    void sameKey_runsInOrder() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        List<LoomFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            int index = i;
+            futures.add(this.executor.run("player", () -> {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                order.add(index);
+                Thread.yield();
+                running.decrementAndGet();
+            }));
+        }
+        futures.get(49).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, overlaps.get());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("different keys should run in parallel")
+    void differentKeys_runInParallel() throws InterruptedException {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (String key : List.of("alice", "bob")) {
+            this.executor.run(key, () -> {
+                bothRunning.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertTrue(bothRunning.await(5, TimeUnit.SECONDS), "A busy key should not block another");
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("queue depth should be visible per key and in metrics, and idle keys evicted")
+    void queueDepth_visibleAndEvicted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        this.executor.run("alice", () -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        this.executor.run("alice", () -> {
+        });
+        LoomFuture<Void> last = this.executor.run("alice", () -> {
+        });
+
+        assertEquals(3, this.executor.getQueueDepth("alice"));
+        assertEquals(Map.of("alice", 3), this.executor.getQueueDepths());
+        assertEquals(3, this.metrics.getGauge("loom.serial.players.depth.max"));
+        assertEquals(1, this.metrics.getGauge("loom.serial.players.keys"));
+
+        release.countDown();
+        last.toCompletableFuture().get(5, TimeUnit.SECONDS);
+        while (this.executor.getActiveKeys() > 0) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, this.executor.getQueueDepth("alice"));
+    }
+
+    @Test
+    @DisplayName("submit should fail the future with the task's exception and keep the lane going")
+    void submit_failure_doesNotBlockLane() throws Exception {
+        LoomFuture<Object> failed = this.executor.submit("alice", () -> {
+            throw new IllegalStateException("save failed");
+        });
+        LoomFuture<String> next = this.executor.submit("alice", () -> "loaded");
+
+        assertEquals("loaded", next.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertTrue(failed.toCompletableFuture().isCompletedExceptionally());
+    }
+
+    @Test
+    @DisplayName("concurrent submitters should keep per-key order with lanes retiring in between")
+    void concurrentSubmitters_keepPerKeyOrder() throws Exception {
+        int keys = 8;
+        int perKey = 200;
+        int[] last = new int[keys];
+        AtomicInteger violations = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(keys * perKey);
+
+        List<Thread> submitters = new ArrayList<>();
+        for (int k = 0; k < keys; k++) {
+            int key = k;
+            submitters.add(Thread.ofVirtual().start(() -> {
+                for (int i = 1; i <= perKey; i++) {
+                    int sequence = i;
+                    this.executor.run("key-" + key, () -> {
+                        if (last[key] != sequence - 1) {
+                            violations.incrementAndGet();
+                        }
+                        last[key] = sequence;
+                        done.countDown();
+                    });
+                    if (sequence % 16 == 0) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, violations.get());
+    }
+
+    @Test
+    @DisplayName("submit should fail the lane instead of hanging when the executor shuts down after the check")
+    void submit_executorShutDownAfterCheck_failsLane() {
+        VirtualThreadExecutor shared = new VirtualThreadExecutor();
+        KeyedSerialExecutor<String> lanes = new KeyedSerialExecutor<>("race", new QueuedDispatcher(), shared, LoomMetrics.NOOP);
+        try {
+            // the VT executor rejects while the shutdown flag is still unset
+            shared.executor().shutdown();
+
+            LoomFuture<String> first = lanes.submit("alice", () -> "saved");
+            LoomFuture<String> second = lanes.submit("alice", () -> "saved");
+
+            assertThrows(ExecutionException.class, () -> first.toCompletableFuture().get(5, TimeUnit.SECONDS));
+            assertThrows(ExecutionException.class, () -> second.toCompletableFuture().get(5, TimeUnit.SECONDS));
+            assertEquals(0, lanes.getActiveKeys());
+            assertEquals(0, lanes.getQueueDepth("alice"));
+        }
+        finally {
+            shared.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("executor name should not be blank")
+    void blankName_throws() {
+        assertThrows(IllegalArgumentException.class, () -> this.scheduler.newKeyedSerialExecutor(" "));
+    }
+}
@@ -0,0 +1,60 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("percentiles should be within bucket precision")
+    void percentile_withinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertWithin(500_000L, histogram.getPercentile(0.5));
+        assertWithin(990_000L, histogram.getPercentile(0.99));
+        assertEquals(Duration.ofNanos(1_000_000L), histogram.getPercentile(1.0));
+        assertEquals(Duration.ofNanos(500_500L), histogram.getMean());
+        assertEquals(Duration.ofMillis(1), histogram.getMax());
+    }
+
+    @Test
+    @DisplayName("buckets should cover the whole long range in order")
+    void index_coversRangeInOrder() {
+        int previous = -1;
+        for (int shift = 0; shift < Long.SIZE - 1; shift++) {
+            long value = 1L << shift;
+            int index = LatencyHistogram.index(value);
+            assertTrue(index > previous, "Index should grow with the value");
+            assertTrue(LatencyHistogram.upperBound(index) >= value);
+            previous = index;
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(LatencyHistogram.index(Long.MAX_VALUE)));
+    }
+
+    @Test
+    @DisplayName("empty histogram should report zero")
+    void empty_reportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(Duration.ZERO, histogram.getPercentile(0.99));
+        assertEquals(Duration.ZERO, histogram.getMean());
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(1.5));
+    }
+
+    private static void assertWithin(long expected, Duration actual) {
+        long error = Math.abs(actual.toNanos() - expected);
+        assertTrue(error <= expected / 16, "Expected ~" + expected + " but was " + actual.toNanos());
+    }
+}
@@ -0,0 +1,94 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for {@link LoomEvents} using a real flight recording.
+ */
+@Timeout(10)
+class LoomEventsTest {
+
+    @Test
+    @DisplayName("helpers should not wrap tasks without a recording")
+    void disabled_returnsTaskUnwrapped() {
+        Runnable task = () -> {
+        };
+
+        assertSame(task, LoomEvents.submitted(task, true));
+        assertSame(task, LoomEvents.scheduled(task, false, true));
+        assertSame(task, LoomEvents.syncHop(task));
+    }
+
+    @Test
+    @DisplayName("recording should show task, sync hop and drain events")
+    void recording_showsLoomEvents() throws Exception {
+        QueuedDispatcher dispatcher = new QueuedDispatcher();
+        DispatchQueue queue = new DispatchQueue(error -> {
+        });
+        LoomSchedulerImpl scheduler = new LoomSchedulerImpl(dispatcher);
+        Path file = Files.createTempFile("loom", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("eternalcode.loom.Task");
+            recording.enable("eternalcode.loom.SyncHop");
+            recording.enable("eternalcode.loom.Drain");
+            recording.start();
+
+            LoomFuture<String> future = scheduler.supplyAsync(() -> "value").thenApplySync(String::toUpperCase);
+            while (!dispatcher.hasPending()) {
+                Thread.sleep(1);
+            }
+            dispatcher.runPending();
+            scheduler.runSync(() -> {
+            });
+            dispatcher.runPending();
+            assertEquals("VALUE", future.toCompletableFuture().get(1, TimeUnit.SECONDS));
+
+            queue.offer(() -> {
+            });
+            queue.drain();
+
+            recording.stop();
+            recording.dump(file);
+        }
+        finally {
+            scheduler.shutdown(Duration.ofSeconds(1));
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.deleteIfExists(file);
+
+        List<RecordedEvent> tasks = named(events, "eternalcode.loom.Task");
+        assertEquals(2, tasks.size());
+        assertTrue(tasks.stream().anyMatch(event -> event.getBoolean("async")));
+        assertTrue(tasks.stream().anyMatch(event -> !event.getBoolean("async")));
+        assertFalse(tasks.get(0).getBoolean("repeating"));
+
+        assertEquals(1, named(events, "eternalcode.loom.SyncHop").size());
+
+        List<RecordedEvent> drains = named(events, "eternalcode.loom.Drain");
+        assertEquals(1, drains.size());
+        assertEquals(1, drains.get(0).getInt("tasks"));
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+            .filter(event -> event.getEventType().getName().equals(name))
+            .toList();
+    }
+}
@@ -2,12 +2,17 @@ package com.eternalcode.commons.scheduler.loom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -105,6 +110,82 @@ class LoomFutureTest {
         assertEquals("Hello World", result.get());
     }
 
+    @Test
+    @DisplayName("thenCompose should drop its cancel hook once the composed future completed")
+    void thenCompose_completedInner_notCancelledWithChain() throws Exception {
+        AtomicBoolean innerCancelled = new AtomicBoolean(false);
+
+        LoomFuture<String> chain = this.scheduler.supplyAsync(() -> "Hello")
+            .thenCompose(s -> new LoomFuture<>(CompletableFuture.completedFuture(s + " World"), this.dispatcher, null) {
+                @Override
+                public void cancel() {
+                    innerCancelled.set(true);
+                    super.cancel();
+                }
+            });
+
+        assertEquals("Hello World", chain.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        chain.cancel();
+        assertFalse(innerCancelled.get());
+    }
+
+    @Test
+    @DisplayName("inline stages should run on the completing thread")
+    void inlineStages_runOnCompletingThread() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Thread> supplierThread = new AtomicReference<>();
+        AtomicReference<Thread> mapperThread = new AtomicReference<>();
+        AtomicReference<Thread> consumerThread = new AtomicReference<>();
+        AtomicReference<String> result = new AtomicReference<>();
+
+        this.scheduler.supplyAsync(() -> {
+                supplierThread.set(Thread.currentThread());
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 21;
+            })
+            .thenApplyInline(n -> {
+                mapperThread.set(Thread.currentThread());
+                return "Value: " + n * 2;
+            })
+            .thenAcceptInline(s -> {
+                consumerThread.set(Thread.currentThread());
+                result.set(s);
+            })
+            .thenRunInline(latch::countDown);
+
+        release.countDown();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("Value: 42", result.get());
+        assertEquals(supplierThread.get(), mapperThread.get());
+        assertEquals(supplierThread.get(), consumerThread.get());
+    }
+
+    @Test
+    @DisplayName("inline stage on completed future should run on caller")
+    void thenApplyInline_completedFuture_runsOnCaller() {
+        LoomFuture<Integer> completed = new LoomFuture<>(
+            CompletableFuture.completedFuture(1),
+            this.dispatcher,
+            null);
+        AtomicReference<Thread> mapperThread = new AtomicReference<>();
+
+        LoomFuture<Integer> next = completed.thenApplyInline(n -> {
+            mapperThread.set(Thread.currentThread());
+            return n + 1;
+        });
+
+        assertTrue(next.isDone());
+        assertEquals(2, next.toCompletableFuture().join());
+        assertEquals(Thread.currentThread(), mapperThread.get());
+    }
+
     @Test
     @DisplayName("thenApplySync should transform on main thread")
     void thenApplySync_transformsOnMainThread() throws InterruptedException {
@@ -131,6 +212,47 @@ class LoomFutureTest {
         assertEquals("Value: 100", result.get());
     }
 
+    @Test
+    @DisplayName("chained sync stages should run in a single main thread hop")
+    void syncStages_fuseIntoOneDispatch() throws InterruptedException {
+        this.dispatcher.setMainThread(Thread.currentThread());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch asyncLatch = new CountDownLatch(1);
+        AtomicReference<String> result = new AtomicReference<>();
+        AtomicReference<Thread> stageThread = new AtomicReference<>();
+
+        // hold the supplier so the stages are registered before it completes off the main thread
+        LoomFuture<Void> chain = this.scheduler.supplyAsync(() -> {
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 7;
+            })
+            .thenApplySync(n -> n * 6)
+            .thenApplySync(n -> "Answer: " + n)
+            .thenAcceptSync(s -> {
+                stageThread.set(Thread.currentThread());
+                result.set(s);
+            });
+        chain.whenComplete((value, error) -> asyncLatch.countDown());
+        release.countDown();
+
+        while (!this.dispatcher.hasPending()) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(1, this.dispatcher.getPendingCount(), "Only the async->sync boundary should dispatch");
+        assertEquals(1, this.dispatcher.runPending());
+        assertTrue(asyncLatch.await(5, TimeUnit.SECONDS));
+
+        assertEquals("Answer: 42", result.get());
+        assertEquals(Thread.currentThread(), stageThread.get());
+        assertFalse(this.dispatcher.hasPending());
+    }
+
     @Test
     @DisplayName("thenAcceptSync should execute on main thread")
     void thenAcceptSync_executesOnMainThread() throws InterruptedException {
@@ -229,6 +351,36 @@ class LoomFutureTest {
         assertNull(error.get());
     }
 
+    @Test
+    @DisplayName("sync stages should fail when the dispatch lane rejects them")
+    void syncStage_rejectedDispatch_failsStage() throws InterruptedException {
+        DispatchQueue lane = new DispatchQueue(DispatchQueue.UNLIMITED_BUDGET, 2, DispatchQueue.OverflowPolicy.REJECT, error -> {
+        });
+        LoomSchedulerImpl rejecting = new LoomSchedulerImpl(lane::offer);
+        try {
+            lane.offer(() -> {
+            });
+            lane.offer(() -> {
+            });
+
+            CompletableFuture<String> sync = rejecting.supplyAsync(() -> "value")
+                .thenApplySync(String::toUpperCase)
+                .toCompletableFuture();
+            CompletableFuture<String> handled = rejecting.supplyAsync(() -> "value")
+                .whenCompleteSync((value, error) -> {
+                })
+                .toCompletableFuture();
+
+            ExecutionException syncError = assertThrows(ExecutionException.class, () -> sync.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, syncError.getCause());
+            ExecutionException handledError = assertThrows(ExecutionException.class, () -> handled.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, handledError.getCause());
+        }
+        finally {
+            rejecting.shutdownNow();
+        }
+    }
+
     @Test
     @DisplayName("whenCompleteSync should execute on main thread")
     void whenCompleteSync_executesOnMainThread() throws InterruptedException {
@@ -322,6 +474,85 @@ class LoomFutureTest {
         assertTrue(future.isCancelled());
     }
 
+    @Test
+    @DisplayName("cancel on the last stage should interrupt the upstream VT and skip later stages")
+    void cancel_lastStage_interruptsUpstreamAndSkipsStages() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicBoolean mapped = new AtomicBoolean(false);
+        AtomicBoolean synced = new AtomicBoolean(false);
+
+        LoomFuture<Void> last = this.scheduler.supplyAsync(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(5000);
+                }
+                catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return 1;
+            })
+            .thenApply(value -> {
+                mapped.set(true);
+                return value + 1;
+            })
+            .thenAcceptSync(value -> synced.set(true));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        last.cancel();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "Upstream VT should be interrupted");
+        Thread.sleep(100);
+        this.dispatcher.runPending();
+        assertFalse(mapped.get());
+        assertFalse(synced.get());
+        assertTrue(last.isCancelled());
+    }
+
+    @Test
+    @DisplayName("cancel while a sync stage waits for the main thread should skip it")
+    void cancel_pendingSyncStage_doesNotRun() throws InterruptedException {
+        AtomicBoolean ran = new AtomicBoolean(false);
+        LoomFuture<Integer> future = this.scheduler.supplyAsync(() -> 1)
+            .thenApplySync(value -> {
+                ran.set(true);
+                return value;
+            });
+
+        while (!this.dispatcher.hasPending()) {
+            Thread.sleep(1);
+        }
+        future.cancel();
+        this.dispatcher.runPending();
+
+        assertFalse(ran.get());
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    @DisplayName("cancel should reach a future composed into the chain")
+    void cancel_composedFuture_interruptsInner() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        LoomFuture<String> outer = this.scheduler.supplyAsync(() -> "key")
+            .thenCompose(key -> this.scheduler.supplyAsync(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(5000);
+                }
+                catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return key;
+            }));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        outer.cancel();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "Composed VT should be interrupted");
+    }
+
     @Test
     @DisplayName("asFuture should return underlying future")
     void asFuture_returnsUnderlyingFuture() {
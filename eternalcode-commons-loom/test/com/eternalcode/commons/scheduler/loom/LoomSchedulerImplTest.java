@@ -3,10 +3,15 @@ package com.eternalcode.commons.scheduler.loom;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -163,6 +168,519 @@ class LoomSchedulerImplTest {
         assertEquals("async result", result.get());
     }
 
+    @Test
+    @DisplayName("runSync with critical priority should run before queued normal work")
+    void runSync_criticalPriority_runsFirst() {
+        StringBuilder order = new StringBuilder();
+
+        this.scheduler.runSync(() -> order.append("normal"));
+        this.scheduler.supplySync(() -> order.append("background"), DispatchPriority.BACKGROUND);
+        this.scheduler.runSync(() -> order.append("critical-"), DispatchPriority.CRITICAL);
+
+        this.dispatcher.runPending();
+
+        assertEquals("critical-normalbackground", order.toString());
+    }
+
+    @Test
+    @DisplayName("retryAsync should retry until success and report attempts")
+    void retryAsync_retriesUntilSuccess() throws Exception {
+        LoomMetricsRecorder metrics = new LoomMetricsRecorder();
+        LoomSchedulerImpl metered = new LoomSchedulerImpl(this.dispatcher, metrics);
+        AtomicInteger calls = new AtomicInteger();
+        RetryPolicy policy = RetryPolicy.builder()
+            .maxAttempts(5)
+            .initialBackoff(Duration.ofMillis(5))
+            .build();
+
+        try {
+            LoomFuture<String> future = metered.retryAsync(() -> {
+                if (calls.incrementAndGet() < 3) {
+                    throw new IllegalStateException("flaky");
+                }
+                return "ok";
+            }, policy);
+
+            assertEquals("ok", future.toCompletableFuture().get(5, TimeUnit.SECONDS));
+            assertEquals(3, calls.get());
+            assertEquals(2, metrics.getRetryCount());
+            assertEquals(0, metrics.getRetryFailureCount());
+        }
+        finally {
+            metered.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("retryAsync should stop at max attempts and on non-retryable errors")
+    void retryAsync_stopsAndFailsWithLastError() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        RetryPolicy policy = RetryPolicy.builder()
+            .maxAttempts(3)
+            .initialBackoff(Duration.ofMillis(1))
+            .retryOn(error -> !(error instanceof IllegalArgumentException))
+            .build();
+
+        LoomFuture<Object> exhausted = this.scheduler.retryAsync(() -> {
+            throw new IllegalStateException("attempt " + calls.incrementAndGet());
+        }, policy);
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> exhausted.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertEquals("attempt 3", error.getCause().getMessage());
+
+        AtomicInteger fatalCalls = new AtomicInteger();
+        LoomFuture<Object> fatal = this.scheduler.retryAsync(() -> {
+            fatalCalls.incrementAndGet();
+            throw new IllegalArgumentException("bad input");
+        }, policy);
+        assertThrows(ExecutionException.class, () -> fatal.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertEquals(1, fatalCalls.get());
+    }
+
+    @Test
+    @DisplayName("retryAsync should not schedule a retry past the deadline")
+    void retryAsync_deadline_stopsRetrying() {
+        AtomicInteger calls = new AtomicInteger();
+        RetryPolicy policy = RetryPolicy.builder()
+            .maxAttempts(100)
+            .initialBackoff(Duration.ofMillis(20))
+            .multiplier(1.0)
+            .deadline(Duration.ofMillis(100))
+            .build();
+
+        LoomFuture<Object> future = this.scheduler.retryAsync(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("down");
+        }, policy);
+
+        assertThrows(ExecutionException.class, () -> future.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertTrue(calls.get() < 100, "Deadline should cut retries short, got " + calls.get());
+    }
+
+    @Test
+    @DisplayName("retryAsync should fail instead of hanging when shut down during a backoff")
+    void retryAsync_shutdownDuringBackoff_fails() throws InterruptedException {
+        CountDownLatch failed = new CountDownLatch(1);
+        RetryPolicy policy = RetryPolicy.builder()
+            .maxAttempts(5)
+            .initialBackoff(Duration.ofSeconds(30))
+            .build();
+
+        LoomFuture<Object> future = this.scheduler.retryAsync(() -> {
+            failed.countDown();
+            throw new IllegalStateException("down");
+        }, policy);
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+
+        this.scheduler.shutdown(Duration.ofSeconds(1));
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> future.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertEquals("down", error.getCause().getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("retryAsync should fail when the shared executor is shut down under the scheduler")
+    void retryAsync_sharedExecutorShutdown_fails() throws InterruptedException {
+        VirtualThreadExecutor shared = new VirtualThreadExecutor();
+        LoomSchedulerImpl region = new LoomSchedulerImpl(this.dispatcher, shared);
+        CountDownLatch failed = new CountDownLatch(1);
+        RetryPolicy policy = RetryPolicy.builder()
+            .maxAttempts(5)
+            .initialBackoff(Duration.ofSeconds(30))
+            .build();
+
+        LoomFuture<Object> future = region.retryAsync(() -> {
+            failed.countDown();
+            throw new IllegalStateException("down");
+        }, policy);
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+
+        // Folia shuts the executor down directly, the scheduler's own flag stays unset
+        shared.shutdown(Duration.ofSeconds(1));
+
+        assertThrows(ExecutionException.class, () -> future.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> region.retryAsync(() -> "late", policy).toCompletableFuture().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("acquire should complete once the rate limiter has permits")
+    void acquire_waitsOnTimerForPermits() throws Exception {
+        RateLimiter limiter = RateLimiter.tokenBucket(1, Duration.ofMillis(100));
+
+        LoomFuture<Void> first = this.scheduler.acquire(limiter);
+        LoomFuture<Void> second = this.scheduler.acquire(limiter);
+
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        second.toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("acquire should complete a waiting future on a VT, not the timer thread")
+    void acquire_afterWait_completesOnVirtualThread() throws Exception {
+        RateLimiter limiter = RateLimiter.tokenBucket(1, Duration.ofMillis(50));
+        AtomicReference<Thread> completedOn = new AtomicReference<>();
+
+        this.scheduler.acquire(limiter);
+        LoomFuture<Void> waiting = this.scheduler.acquire(limiter);
+        CompletableFuture<Void> stage = waiting.toCompletableFuture().thenRun(() -> completedOn.set(Thread.currentThread()));
+
+        stage.get(5, TimeUnit.SECONDS);
+        assertTrue(completedOn.get().isVirtual(), completedOn.get().toString());
+    }
+
+    @Test
+    @DisplayName("acquire should fail instead of hanging when shut down during the wait")
+    void acquire_shutdownDuringWait_fails() throws InterruptedException {
+        RateLimiter limiter = RateLimiter.tokenBucket(1, Duration.ofSeconds(30));
+
+        this.scheduler.acquire(limiter);
+        LoomFuture<Void> waiting = this.scheduler.acquire(limiter);
+        assertFalse(waiting.isDone());
+
+        this.scheduler.shutdown(Duration.ofSeconds(1));
+
+        assertThrows(ExecutionException.class, () -> waiting.toCompletableFuture().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("execute should run fire-and-forget tasks on a virtual thread")
+    void execute_runsOnVirtualThread() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicBoolean isVirtual = new AtomicBoolean(false);
+
+        this.scheduler.execute(() -> {
+            isVirtual.set(Thread.currentThread().isVirtual());
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(isVirtual.get());
+    }
+
+    @Test
+    @DisplayName("executeSync should queue the task itself in its lane")
+    void executeSync_queuesTaskInLane() {
+        StringBuilder order = new StringBuilder();
+
+        this.scheduler.executeSync(() -> order.append("normal"));
+        this.scheduler.executeSync(() -> order.append("critical-"), DispatchPriority.CRITICAL);
+
+        assertEquals(2, this.dispatcher.getPendingCount());
+        this.dispatcher.runPending();
+
+        assertEquals("critical-normal", order.toString());
+    }
+
+    @Test
+    @DisplayName("execute and executeSync should drop tasks after shutdown")
+    void execute_afterShutdown_dropsTasks() throws InterruptedException {
+        AtomicBoolean executed = new AtomicBoolean(false);
+        this.scheduler.shutdown(Duration.ofSeconds(1));
+
+        this.scheduler.execute(() -> executed.set(true));
+        this.scheduler.executeSync(() -> executed.set(true));
+        Thread.sleep(100);
+
+        assertEquals(0, this.dispatcher.getPendingCount());
+        assertFalse(executed.get());
+    }
+
+    @Test
+    @DisplayName("runSyncCoalesced should run only the latest task per key")
+    void runSyncCoalesced_runsLatestOnly() {
+        AtomicReference<String> result = new AtomicReference<>();
+
+        LoomTask first = this.scheduler.runSyncCoalesced("player", () -> result.set("first"));
+        LoomTask second = this.scheduler.runSyncCoalesced("player", () -> result.set("second"));
+
+        this.dispatcher.runPending();
+
+        assertEquals("second", result.get());
+        assertTrue(first.isCancelled(), "Replaced task should report cancelled");
+        assertTrue(second.isDone());
+        assertFalse(second.isCancelled());
+    }
+
+    @Test
+    @DisplayName("runSyncTimer with SKIP_IF_RUNNING should not queue a run while one is pending")
+    void runSyncTimer_skipIfRunning_doesNotPileUp() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger(0);
+
+        LoomTimer timer = this.scheduler.runSyncTimer(
+            counter::incrementAndGet,
+            Duration.ZERO,
+            Duration.ofMillis(10),
+            TimerPolicy.SKIP_IF_RUNNING);
+
+        Thread.sleep(100);
+
+        assertEquals(1, this.dispatcher.getPendingCount(), "Undrained run should block the next ones");
+        assertTrue(timer.skippedRuns() > 0);
+
+        this.dispatcher.runPending();
+        timer.cancel();
+
+        assertEquals(1, counter.get());
+        assertEquals(1, timer.completedRuns());
+        assertTrue(timer.repeating());
+        assertFalse(timer.async());
+    }
+
+    @Test
+    @DisplayName("runSyncLater should use native tick scheduling when available")
+    void runSyncLater_usesNativeTicks() {
+        TickDispatcher ticks = new TickDispatcher();
+        LoomSchedulerImpl tickScheduler = new LoomSchedulerImpl(ticks);
+        AtomicInteger counter = new AtomicInteger(0);
+
+        try {
+            LoomTask task = tickScheduler.runSyncLater(counter::incrementAndGet, Duration.ofMillis(200));
+            LoomTask cancelled = tickScheduler.runSyncLater(counter::incrementAndGet, Duration.ofMillis(30));
+            cancelled.cancel();
+
+            assertEquals(List.of(4L, 1L), ticks.delays);
+
+            ticks.scheduled.forEach(Runnable::run);
+
+            assertEquals(1, counter.get(), "Cancelled task should not run");
+            assertTrue(task.isDone());
+            assertTrue(cancelled.isCancelled());
+        }
+        finally {
+            tickScheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("runSyncTimer should use native tick timer and cancel it on shutdown")
+    void runSyncTimer_usesNativeTicks() {
+        TickDispatcher ticks = new TickDispatcher();
+        LoomSchedulerImpl tickScheduler = new LoomSchedulerImpl(ticks);
+        AtomicInteger counter = new AtomicInteger(0);
+
+        LoomTask timer = tickScheduler.runSyncTimer(counter::incrementAndGet, Duration.ZERO, Duration.ofSeconds(1));
+
+        assertEquals(List.of(1L, 20L), ticks.timers);
+        ticks.scheduled.get(0).run();
+        assertEquals(1, counter.get());
+        assertTrue(timer.repeating());
+
+        tickScheduler.shutdownNow();
+
+        assertEquals(1, ticks.cancelledTimers.get());
+        assertTrue(timer.isCancelled());
+        ticks.scheduled.get(0).run();
+        assertEquals(1, counter.get(), "Cancelled timer should not run");
+    }
+
+    @Test
+    @DisplayName("native ticks should round up and accept delays beyond an int of ticks")
+    void toTicks_roundsUpWithoutOverflow() {
+        assertEquals(1L, LoomSchedulerImpl.toTicks(Duration.ZERO));
+        assertEquals(1L, LoomSchedulerImpl.toTicks(Duration.ofMillis(50)));
+        assertEquals(2L, LoomSchedulerImpl.toTicks(Duration.ofMillis(51)));
+        assertEquals(2L, LoomSchedulerImpl.toTicks(Duration.ofMillis(50).plusNanos(1)));
+        assertEquals(1_728_000_000_000L, LoomSchedulerImpl.toTicks(Duration.ofDays(1_000_000)));
+    }
+
+    @Test
+    @DisplayName("runSyncLater should cancel its handle when the platform retires the task")
+    void runSyncLater_retired_cancelsTask() {
+        TickDispatcher ticks = new TickDispatcher();
+        LoomSchedulerImpl tickScheduler = new LoomSchedulerImpl(ticks);
+
+        try {
+            LoomTask task = tickScheduler.runSyncLater(() -> {
+            }, Duration.ofSeconds(1));
+
+            ticks.retired.get(0).run();
+
+            assertTrue(task.isDone());
+            assertTrue(task.isCancelled());
+        }
+        finally {
+            tickScheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("shutting down a shared executor should stop every scheduler on it, like Folia's")
+    void sharedExecutorShutdown_stopsChildSchedulers() {
+        VirtualThreadExecutor shared = new VirtualThreadExecutor();
+        TickDispatcher ticks = new TickDispatcher();
+        LoomSchedulerImpl region = new LoomSchedulerImpl(ticks, shared);
+        AtomicInteger counter = new AtomicInteger(0);
+
+        LoomTask timer = region.runSyncTimer(counter::incrementAndGet, Duration.ZERO, Duration.ofSeconds(1));
+
+        shared.shutdownNow();
+
+        assertTrue(timer.isCancelled());
+        assertEquals(1, ticks.cancelledTimers.get());
+        ticks.scheduled.get(0).run();
+        assertEquals(0, counter.get());
+        assertEquals(LoomTask.EMPTY, region.runSyncLater(counter::incrementAndGet, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("metrics should time async and sync tasks")
+    void metrics_timeAsyncAndSyncTasks() throws Exception {
+        LoomMetricsRecorder metrics = new LoomMetricsRecorder();
+        LoomSchedulerImpl metered = new LoomSchedulerImpl(this.dispatcher, metrics);
+        try {
+            LoomFuture<String> future = metered.callAsync(() -> {
+                Thread.sleep(20);
+                return "done";
+            }).thenApplySync(String::toUpperCase);
+
+            while (!this.dispatcher.hasPending()) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(10);
+            this.dispatcher.runPending();
+
+            assertEquals("DONE", future.toCompletableFuture().get(1, TimeUnit.SECONDS));
+            assertEquals(1, metrics.getAsyncWait().getCount());
+            assertTrue(metrics.getAsyncRun().getMax().toMillis() >= 20);
+            assertEquals(1, metrics.getSyncRun().getCount());
+            assertTrue(metrics.getSyncWait().getMax().toMillis() >= 10, "Sync wait should include time queued");
+            assertEquals(0, metrics.getInFlightAsync());
+        }
+        finally {
+            metered.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("metrics should record timer lag and pending delayed gauge")
+    void metrics_recordTimerLagAndPending() throws InterruptedException {
+        LoomMetricsRecorder metrics = new LoomMetricsRecorder();
+        LoomSchedulerImpl metered = new LoomSchedulerImpl(this.dispatcher, metrics);
+        try {
+            CountDownLatch fired = new CountDownLatch(1);
+            metered.runAsyncLater(fired::countDown, Duration.ofMillis(10));
+            metered.runAsyncLater(() -> {
+            }, Duration.ofMinutes(1));
+
+            assertTrue(fired.await(1, TimeUnit.SECONDS));
+            assertEquals(1, metrics.getTimerLag().getCount());
+            assertEquals(1, metrics.getGauge(LoomMetrics.PENDING_DELAYED));
+        }
+        finally {
+            metered.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("supplyAsync with bulkhead should limit concurrency")
+    void supplyAsync_bulkhead_limitsConcurrency() throws Exception {
+        this.scheduler.registerBulkhead(Bulkhead.builder("db").maxConcurrent(2).build());
+        AtomicInteger active = new AtomicInteger(0);
+        AtomicInteger maxActive = new AtomicInteger(0);
+        List<LoomFuture<Integer>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            int id = i;
+            futures.add(this.scheduler.supplyAsync(
+                "db", () -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    active.decrementAndGet();
+                    return id;
+                }));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).toCompletableFuture().get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, maxActive.get());
+        assertEquals(20, this.scheduler.getBulkhead("db").getAcquiredCount());
+    }
+
+    @Test
+    @DisplayName("bulkhead registry should reject unknown and duplicate names")
+    void bulkhead_registryValidation() {
+        this.scheduler.registerBulkhead(Bulkhead.builder("db").build());
+
+        assertThrows(IllegalStateException.class, () -> this.scheduler.registerBulkhead(Bulkhead.builder("db").build()));
+        assertThrows(IllegalArgumentException.class, () -> this.scheduler.runAsync("missing", () -> {
+        }));
+    }
+
+    @Test
+    @DisplayName("schedulers on one executor should share bulkheads, like Folia's region and entity schedulers")
+    void bulkhead_sharedAcrossSchedulersOnOneExecutor() throws Exception {
+        VirtualThreadExecutor shared = new VirtualThreadExecutor();
+        LoomSchedulerImpl global = new LoomSchedulerImpl(this.dispatcher, shared);
+        LoomSchedulerImpl entity = new LoomSchedulerImpl(new QueuedDispatcher(), shared);
+
+        try {
+            Bulkhead db = global.registerBulkhead(Bulkhead.builder("db").maxConcurrent(1).build());
+
+            assertEquals(db, entity.getBulkhead("db"));
+            assertEquals("ok", entity.supplyAsync("db", () -> "ok").toCompletableFuture().get(5, TimeUnit.SECONDS));
+            assertEquals(1, db.getAcquiredCount());
+            assertThrows(IllegalStateException.class, () -> entity.registerBulkhead(Bulkhead.builder("db").build()));
+        }
+        finally {
+            shared.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("supplyScoped should combine forked results")
+    void supplyScoped_combinesResults() throws Exception {
+        LoomFuture<String> future = this.scheduler.supplyScoped(
+            LoomScope.Policy.SHUTDOWN_ON_FAILURE, Duration.ofSeconds(2), scope -> {
+                LoomScope.Subtask<Integer> balance = scope.fork(() -> 100);
+                LoomScope.Subtask<String> rank = scope.fork(() -> "vip");
+                scope.join();
+                return rank.get() + ":" + balance.get();
+            });
+
+        assertEquals("vip:100", future.toCompletableFuture().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("cancelling supplyScoped future should interrupt subtasks")
+    void supplyScoped_cancel_interruptsSubtasks() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        LoomFuture<Object> future = this.scheduler.supplyScoped(
+            LoomScope.Policy.SHUTDOWN_ON_FAILURE, scope -> {
+                scope.fork(() -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(5_000);
+                    }
+                    catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                    return null;
+                });
+                scope.join();
+                return null;
+            });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        future.cancel();
+
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "Subtask should be interrupted on cancel");
+        assertTrue(future.isCancelled());
+    }
+
     @Test
     @DisplayName("exceptionally should catch async exceptions")
     void exceptionally_catchesExceptions() throws InterruptedException {
@@ -309,4 +827,117 @@ class LoomSchedulerImplTest {
         assertTrue(latch.await(5, TimeUnit.SECONDS));
         assertTrue(isVirtual.get(), "Task should run on virtual thread");
     }
+
+    @Test
+    @DisplayName("computeAsync should run on a compute worker and hand the result to the main thread")
+    void computeAsync_runsOnComputePool_thenApplySync() throws Exception {
+        AtomicReference<Thread> computeThread = new AtomicReference<>();
+        AtomicReference<String> result = new AtomicReference<>();
+        CountDownLatch computed = new CountDownLatch(1);
+
+        LoomFuture<Integer> sum = this.scheduler.computeAsync(() -> {
+            computeThread.set(Thread.currentThread());
+            int total = 0;
+            for (int i = 1; i <= 1000; i++) {
+                total += i;
+            }
+            return total;
+        });
+        sum.thenApplySync(total -> "sum=" + total).thenAcceptInline(result::set);
+        sum.thenAcceptInline(total -> computed.countDown());
+
+        assertTrue(computed.await(5, TimeUnit.SECONDS));
+        assertFalse(computeThread.get().isVirtual());
+        assertTrue(computeThread.get().getName().startsWith(ComputePool.THREAD_PREFIX));
+
+        Thread.sleep(50);
+        this.dispatcher.runPending();
+        assertEquals("sum=500500", result.get());
+    }
+
+    @Test
+    @DisplayName("thenApplyCompute should move a stage from a VT to the compute pool")
+    void thenApplyCompute_runsStageOnComputePool() throws Exception {
+        LoomFuture<Boolean> onCompute = this.scheduler.supplyAsync(() -> List.of(3, 1, 2))
+            .thenApplyCompute(values -> {
+                List<Integer> sorted = new ArrayList<>(values);
+                sorted.sort(null);
+                return sorted;
+            })
+            .thenApplyInline(sorted -> sorted.equals(List.of(1, 2, 3)) && !Thread.currentThread().isVirtual());
+
+        assertTrue(onCompute.toCompletableFuture().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("compute tasks should be timed and gauged in the metrics")
+    void computeAsync_reportsMetrics() throws Exception {
+        LoomMetricsRecorder metrics = new LoomMetricsRecorder();
+        LoomSchedulerImpl metered = new LoomSchedulerImpl(this.dispatcher, metrics);
+        try {
+            metered.computeAsync(() -> 42).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            // recorded after the supplier returned
+            while (metrics.getComputeRun().getCount() == 0) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, metrics.getComputeWait().getCount());
+            assertEquals(0, metrics.getGauge(LoomMetrics.COMPUTE_QUEUED));
+        }
+        finally {
+            metered.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("computeAsync should fail once the scheduler is shut down")
+    void computeAsync_afterShutdown_fails() {
+        this.scheduler.shutdown(Duration.ofSeconds(1));
+
+        LoomFuture<Integer> future = this.scheduler.computeAsync(() -> 1);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof IllegalStateException);
+    }
+
+    /**
+     * Dispatcher with a fake native tick scheduler that records what was scheduled.
+     */
+    private static final class TickDispatcher implements MainThreadDispatcher {
+        private final List<Runnable> scheduled = new ArrayList<>();
+        private final List<Runnable> retired = new ArrayList<>();
+        private final List<Long> delays = new ArrayList<>();
+        private final List<Long> timers = new ArrayList<>();
+        private final AtomicInteger cancelledTimers = new AtomicInteger(0);
+
+        @Override
+        public void dispatch(Runnable task) {
+            task.run();
+        }
+
+        @Override
+        public boolean supportsTickScheduling() {
+            return true;
+        }
+
+        @Override
+        public void dispatchLater(Runnable task, long ticks) {
+            this.scheduled.add(task);
+            this.delays.add(ticks);
+        }
+
+        @Override
+        public void dispatchLater(Runnable task, Runnable retired, long ticks) {
+            this.dispatchLater(task, ticks);
+            this.retired.add(retired);
+        }
+
+        @Override
+        public Cancellable dispatchTimer(Runnable task, long delay, long period) {
+            this.scheduled.add(task);
+            this.timers.add(delay);
+            this.timers.add(period);
+            return this.cancelledTimers::incrementAndGet;
+        }
+    }
 }
@@ -0,0 +1,264 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for {@link LoomScope}.
+ */
+@Timeout(10)
+class LoomScopeTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("join should wait for all subtasks")
+    void join_waitsForAll() throws Exception {
+        LoomScope scope = new LoomScope(LoomScope.Policy.SHUTDOWN_ON_FAILURE, null, this.executor);
+
+        LoomScope.Subtask<Integer> first = scope.fork(() -> {
+            Thread.sleep(30);
+            return 1;
+        });
+        LoomScope.Subtask<String> second = scope.fork(() -> "two");
+
+        scope.join();
+
+        assertEquals(1, first.get());
+        assertEquals("two", second.get());
+        assertEquals(LoomScope.Subtask.State.SUCCESS, first.state());
+    }
+
+    @Test
+    @DisplayName("failure should interrupt siblings and be rethrown")
+    void join_failure_interruptsSiblings() throws InterruptedException {
+        LoomScope scope = new LoomScope(LoomScope.Policy.SHUTDOWN_ON_FAILURE, null, this.executor);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        LoomScope.Subtask<Object> slow = scope.fork(() -> {
+            try {
+                Thread.sleep(5_000);
+            }
+            catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return null;
+        });
+        scope.fork(() -> {
+            throw new IllegalStateException("Lookup failed");
+        });
+
+        ExecutionException exception = assertThrows(ExecutionException.class, scope::join);
+
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "Sibling should be interrupted");
+        assertEquals(LoomScope.Subtask.State.UNAVAILABLE, slow.state());
+    }
+
+    @Test
+    @DisplayName("first success should win and cancel the rest")
+    void join_success_returnsFirstResult() throws Exception {
+        LoomScope scope = new LoomScope(LoomScope.Policy.SHUTDOWN_ON_SUCCESS, null, this.executor);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        scope.fork(() -> {
+            throw new IllegalStateException("Mirror down");
+        });
+        scope.fork(() -> {
+            try {
+                Thread.sleep(5_000);
+            }
+            catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "slow";
+        });
+        scope.fork(() -> {
+            Thread.sleep(20);
+            return "fast";
+        });
+
+        scope.join();
+
+        assertEquals("fast", scope.result());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("all subtasks failing should fail SHUTDOWN_ON_SUCCESS scope")
+    void join_success_allFailed_throws() {
+        LoomScope scope = new LoomScope(LoomScope.Policy.SHUTDOWN_ON_SUCCESS, null, this.executor);
+
+        scope.fork(() -> {
+            throw new IllegalStateException("First");
+        });
+        scope.fork(() -> {
+            throw new IllegalStateException("Second");
+        });
+
+        assertThrows(ExecutionException.class, scope::join);
+        assertThrows(IllegalStateException.class, scope::result);
+    }
+
+    @Test
+    @DisplayName("deadline should shut down the scope and throw")
+    void join_deadline_throwsTimeout() throws InterruptedException {
+        LoomScope scope = new LoomScope(LoomScope.Policy.SHUTDOWN_ON_FAILURE, Duration.ofMillis(50), this.executor);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        scope.fork(() -> {
+            try {
+                Thread.sleep(5_000);
+            }
+            catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return null;
+        });
+
+        long start = System.nanoTime();
+        assertThrows(TimeoutException.class, scope::join);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 1_000, "Join should return at the deadline, took: " + elapsedMillis);
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        assertTrue(scope.isShutdown());
+    }
+
+    @Test
+    @DisplayName("cancel should wake join and skip later forks")
+    void cancel_wakesJoin() throws InterruptedException {
+        LoomScope scope = new LoomScope(LoomScope.Policy.SHUTDOWN_ON_FAILURE, null, this.executor);
+
+        scope.fork(() -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+
+        Thread canceller = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(30);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scope.cancel();
+        });
+
+        assertThrows(CancellationException.class, scope::join);
+        canceller.join();
+
+        LoomScope.Subtask<String> late = scope.fork(() -> "late");
+        assertEquals(LoomScope.Subtask.State.UNAVAILABLE, late.state());
+        assertThrows(IllegalStateException.class, late::get);
+    }
+
+    @Test
+    @DisplayName("close should wait for interrupted subtasks to finish")
+    void close_waitsForInterruptedSubtasks() throws InterruptedException {
+        LoomScope scope = new LoomScope(LoomScope.Policy.SHUTDOWN_ON_FAILURE, Duration.ofSeconds(5), this.executor);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean cleanedUp = new AtomicBoolean(false);
+
+        scope.fork(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(5_000);
+            }
+            catch (InterruptedException e) {
+                // cleanup after the interrupt, e.g. returning a connection
+                Thread.sleep(100);
+                cleanedUp.set(true);
+            }
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        scope.close();
+
+        assertTrue(cleanedUp.get());
+        assertEquals(0, scope.runningCount());
+    }
+
+    @Test
+    @DisplayName("close should give up on a subtask ignoring the interrupt once the deadline passed")
+    void close_subtaskIgnoresInterrupt_boundedByDeadline() throws InterruptedException {
+        LoomScope scope = new LoomScope(LoomScope.Policy.SHUTDOWN_ON_FAILURE, Duration.ofMillis(200), this.executor);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean release = new AtomicBoolean(false);
+
+        scope.fork(() -> {
+            started.countDown();
+            while (!release.get()) {
+                Thread.onSpinWait();
+            }
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        try {
+            long start = System.nanoTime();
+            scope.close();
+            long waited = System.nanoTime() - start;
+
+            assertTrue(waited < TimeUnit.SECONDS.toNanos(2), "close waited " + waited + "ns");
+            assertEquals(1, scope.runningCount());
+        }
+        finally {
+            release.set(true);
+        }
+    }
+
+    @Test
+    @DisplayName("shutdown should count a subtask that never started as finished")
+    void close_subtaskNotStarted_notCounted() {
+        ExecutorService never = Executors.newSingleThreadExecutor();
+        CountDownLatch blocker = new CountDownLatch(1);
+        never.submit(() -> {
+            blocker.await();
+            return null;
+        });
+        LoomScope scope = new LoomScope(LoomScope.Policy.SHUTDOWN_ON_FAILURE, null, never);
+
+        try {
+            scope.fork(() -> "queued behind the blocker");
+            scope.close();
+
+            assertEquals(0, scope.runningCount());
+        }
+        finally {
+            blocker.countDown();
+            never.shutdownNow();
+        }
+    }
+}
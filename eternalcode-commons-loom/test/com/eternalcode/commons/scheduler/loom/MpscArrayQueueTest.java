@@ -0,0 +1,118 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for {@link MpscArrayQueue}.
+ */
+@Timeout(10)
+class MpscArrayQueueTest {
+
+    @Test
+    @DisplayName("poll should return elements in FIFO order across resizes")
+    void poll_keepsOrderAcrossResizes() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(2, 1024);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertEquals(1000, queue.size());
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, queue.poll());
+        }
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("offer should fail once max capacity is reached")
+    void offer_failsWhenFull() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(4, 16);
+
+        for (int i = 0; i < 16; i++) {
+            assertTrue(queue.offer(i), "Offer " + i + " should fit");
+        }
+        assertFalse(queue.offer(16));
+        assertEquals(16, queue.capacity());
+
+        assertEquals(0, queue.poll());
+        assertTrue(queue.offer(16), "Polling should free a slot");
+    }
+
+    @Test
+    @DisplayName("interleaved offer and poll should reuse slots")
+    void offerAndPoll_wrapAround() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(4, 4);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(queue.offer(i));
+            assertTrue(queue.offer(i + 1000));
+            assertEquals(i, queue.poll());
+            assertEquals(i + 1000, queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("concurrent producers should not lose or reorder their elements")
+    void offer_concurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscArrayQueue<long[]> queue = new MpscArrayQueue<>(8, 1 << 20);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    queue.offer(new long[] {producer, i});
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+
+        long[] lastSeen = new long[producers];
+        Arrays.fill(lastSeen, -1L);
+        int received = 0;
+        while (received < producers * perProducer) {
+            long[] element = queue.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int producer = (int) element[0];
+            assertEquals(lastSeen[producer] + 1, element[1], "Producer order should hold");
+            lastSeen[producer] = element[1];
+            received++;
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+}
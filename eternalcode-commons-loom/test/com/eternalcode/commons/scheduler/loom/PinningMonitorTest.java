@@ -0,0 +1,131 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for {@link PinningMonitor}.
+ */
+@Timeout(10)
+class PinningMonitorTest {
+
+    private static final Object LOCK = new Object();
+
+    @Test
+    @DisplayName("monitor should attribute pinning to the synchronized call site")
+    void monitor_reportsPinningCallSite() throws InterruptedException {
+        try (PinningMonitor monitor = PinningMonitor.start(Duration.ofMillis(5))) {
+            // give the stream time to subscribe before pinning
+            Thread.sleep(200);
+            Thread.ofVirtual().start(PinningMonitorTest::pin).join();
+
+            PinningMonitor.Offender top = awaitOffender(monitor);
+            String pinFrame = PinningMonitorTest.class.getName() + ".pin";
+            assertTrue(top.site().startsWith(pinFrame), "Site should be the synchronized frame: " + top.site());
+            assertEquals(top.site(), top.pinnedAt());
+            assertTrue(top.maxDuration().toMillis() >= 20);
+            assertTrue(monitor.report(5).contains("PinningMonitorTest.pin"));
+        }
+    }
+
+    @Test
+    @DisplayName("monitor should attribute pinning to the submit site when submit sites are tracked")
+    void monitor_trackedSubmitSites_reportsSubmitSite() throws InterruptedException {
+        VirtualThreadExecutor executor = new VirtualThreadExecutor();
+        executor.setTrackSubmitSites(true);
+        try (PinningMonitor monitor = PinningMonitor.start(Duration.ofMillis(5))) {
+            Thread.sleep(200);
+            executor.submit(PinningMonitorTest::pin);
+
+            PinningMonitor.Offender top = awaitOffender(monitor);
+            assertTrue(top.site().contains("monitor_trackedSubmitSites_reportsSubmitSite"), "Site should be the submit site: " + top.site());
+            assertTrue(top.pinnedAt().startsWith(PinningMonitorTest.class.getName() + ".pin"), "Pinned frame should be kept: " + top.pinnedAt());
+            assertTrue(monitor.report(5).contains("pinned at"));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("start should reject a negative threshold")
+    void start_rejectsNegativeThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> PinningMonitor.start(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    @DisplayName("configureCarrierParallelism should not override an existing setting")
+    void configureCarrierParallelism_keepsExistingSetting() {
+        String previous = System.getProperty(VirtualThreadExecutor.PARALLELISM_PROPERTY);
+        System.setProperty(VirtualThreadExecutor.PARALLELISM_PROPERTY, "3");
+        try {
+            assertFalse(VirtualThreadExecutor.configureCarrierParallelism(8));
+            assertEquals("3", System.getProperty(VirtualThreadExecutor.PARALLELISM_PROPERTY));
+            assertThrows(IllegalArgumentException.class, () -> VirtualThreadExecutor.configureCarrierParallelism(0));
+        }
+        finally {
+            restoreParallelism(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("configureCarrierParallelism should refuse once virtual threads run and the scheduler's value be reported")
+    void configureCarrierParallelism_afterFirstVirtualThread_refused() throws InterruptedException {
+        String previous = System.getProperty(VirtualThreadExecutor.PARALLELISM_PROPERTY);
+        System.clearProperty(VirtualThreadExecutor.PARALLELISM_PROPERTY);
+        try {
+            // the carrier stays alive a while after the VT ends
+            Thread.ofVirtual().start(() -> {
+            }).join();
+            int running = VirtualThreadExecutor.getCarrierParallelism();
+
+            assertFalse(VirtualThreadExecutor.configureCarrierParallelism(running + 5));
+            assertNull(System.getProperty(VirtualThreadExecutor.PARALLELISM_PROPERTY));
+
+            System.setProperty(VirtualThreadExecutor.PARALLELISM_PROPERTY, Integer.toString(running + 5));
+            assertEquals(running, VirtualThreadExecutor.getCarrierParallelism(), "A late property should not be reported");
+        }
+        finally {
+            restoreParallelism(previous);
+        }
+    }
+
+    private static void restoreParallelism(String previous) {
+        if (previous == null) {
+            System.clearProperty(VirtualThreadExecutor.PARALLELISM_PROPERTY);
+        }
+        else {
+            System.setProperty(VirtualThreadExecutor.PARALLELISM_PROPERTY, previous);
+        }
+    }
+
+    private static PinningMonitor.Offender awaitOffender(PinningMonitor monitor) throws InterruptedException {
+        List<PinningMonitor.Offender> offenders = monitor.getTopOffenders(5);
+        while (offenders.isEmpty()) {
+            Thread.sleep(50);
+            offenders = monitor.getTopOffenders(5);
+        }
+        return offenders.get(0);
+    }
+
+    // sleeps inside the monitor, so this frame is the innermost one of the pinned stack
+    private static void pin() {
+        synchronized (LOCK) {
+            try {
+                Thread.sleep(40);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -244,6 +244,21 @@ class QueuedDispatcherTest {
         assertEquals("ABC", order.toString());
     }
 
+    @Test
+    @DisplayName("critical tasks should run before queued normal tasks")
+    void dispatch_criticalRunsFirst() {
+        StringBuilder order = new StringBuilder();
+
+        this.dispatcher.dispatch(() -> order.append("A"));
+        this.dispatcher.dispatch(() -> order.append("B"), DispatchPriority.BACKGROUND);
+        this.dispatcher.dispatch(() -> order.append("C"), DispatchPriority.CRITICAL);
+
+        this.dispatcher.runPending();
+
+        assertEquals("CAB", order.toString());
+        assertEquals(3, this.dispatcher.getDispatchCount());
+    }
+
     @Test
     @DisplayName("dispatchLater should queue (simplified for testing)")
     void dispatchLater_queues() {
@@ -0,0 +1,134 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for {@link RateLimiter} implementations, on a manual clock.
+ */
+@Timeout(10)
+class RateLimiterTest {
+
+    private static final long MILLI = Duration.ofMillis(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("token bucket should allow a burst and then refill at the rate")
+    void tokenBucket_burstThenRefill() {
+        RateLimiter limiter = new TokenBucketRateLimiter(5, Duration.ofSeconds(1), 5, this.clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(200 * MILLI, limiter.nanosUntilAvailable(1));
+
+        this.clock.addAndGet(199 * MILLI);
+        assertFalse(limiter.tryAcquire());
+        this.clock.addAndGet(MILLI);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        // idle time refills up to the burst, not beyond
+        this.clock.addAndGet(10_000 * MILLI);
+        assertEquals(0, limiter.nanosUntilAvailable(5));
+        assertTrue(limiter.tryAcquire(5));
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("sliding window should weigh the previous window by its overlap")
+    void slidingWindow_weighsPreviousWindow() {
+        RateLimiter limiter = new SlidingWindowRateLimiter(10, Duration.ofSeconds(1), this.clock::get);
+
+        assertTrue(limiter.tryAcquire(10));
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1000 * MILLI + 100 * MILLI, limiter.nanosUntilAvailable(1));
+
+        // half into the next window the previous 10 still count as 5
+        this.clock.addAndGet(1500 * MILLI);
+        assertTrue(limiter.tryAcquire(5));
+        assertFalse(limiter.tryAcquire());
+
+        // two windows later nothing is left
+        this.clock.addAndGet(2000 * MILLI);
+        assertEquals(0, limiter.nanosUntilAvailable(10));
+        assertTrue(limiter.tryAcquire(10));
+    }
+
+    @Test
+    @DisplayName("wait hint should be enough for the next tryAcquire")
+    void nanosUntilAvailable_isEnough() {
+        RateLimiter bucket = new TokenBucketRateLimiter(3, Duration.ofMillis(300), 3, this.clock::get);
+        RateLimiter window = new SlidingWindowRateLimiter(3, Duration.ofMillis(300), this.clock::get);
+
+        for (RateLimiter limiter : new RateLimiter[] {bucket, window}) {
+            for (int i = 0; i < 20; i++) {
+                if (!limiter.tryAcquire(2)) {
+                    this.clock.addAndGet(limiter.nanosUntilAvailable(2));
+                    assertTrue(limiter.tryAcquire(2), "Hint should be enough at step " + i);
+                }
+                this.clock.addAndGet(7 * MILLI);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("limiters should never hand out more permits than allowed under contention")
+    void tryAcquire_concurrent_neverExceedsLimit() throws InterruptedException {
+        RateLimiter bucket = new TokenBucketRateLimiter(100, Duration.ofSeconds(1), 100, this.clock::get);
+        RateLimiter window = new SlidingWindowRateLimiter(100, Duration.ofSeconds(1), this.clock::get);
+
+        for (RateLimiter limiter : new RateLimiter[] {bucket, window}) {
+            AtomicInteger granted = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(1000);
+            for (int i = 0; i < 1000; i++) {
+                Thread.ofVirtual().start(() -> {
+                    if (limiter.tryAcquire()) {
+                        granted.incrementAndGet();
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(100, granted.get());
+        }
+    }
+
+    @Test
+    @DisplayName("blocking acquire should park until permits are available")
+    void acquire_blocksUntilAvailable() throws InterruptedException {
+        RateLimiter limiter = RateLimiter.tokenBucket(1, Duration.ofMillis(50));
+
+        long start = System.nanoTime();
+        limiter.acquire();
+        limiter.acquire();
+        limiter.acquire();
+
+        assertTrue(System.nanoTime() - start >= 90 * MILLI);
+    }
+
+    @Test
+    @DisplayName("limiters should reject invalid permits and settings")
+    void invalidArguments_throw() {
+        RateLimiter limiter = RateLimiter.slidingWindow(5, Duration.ofSeconds(1));
+
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(0));
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(6));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.tokenBucket(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.tokenBucket(1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.slidingWindow(1, Duration.ofMillis(-1)));
+    }
+}
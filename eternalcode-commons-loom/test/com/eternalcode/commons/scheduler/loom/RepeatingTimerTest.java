@@ -0,0 +1,158 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for {@link RepeatingTimer} policies.
+ */
+@Timeout(10)
+class RepeatingTimerTest {
+
+    private TimingWheel wheel;
+    private ExecutorService executor;
+
+    private final AtomicInteger concurrent = new AtomicInteger(0);
+    private final AtomicInteger maxConcurrent = new AtomicInteger(0);
+
+    @BeforeEach
+    void setUp() {
+        this.wheel = new TimingWheel("RepeatingTimerTest", Duration.ofMillis(1));
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.wheel.stop();
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("CONCURRENT should overlap slow runs and count them")
+    void concurrent_overlapsSlowRuns() throws InterruptedException {
+        RepeatingTimer timer = this.start(this.slowTask(50), TimerPolicy.CONCURRENT);
+
+        Thread.sleep(200);
+        timer.cancel();
+
+        assertTrue(this.maxConcurrent.get() > 1, "Runs should overlap");
+        assertTrue(timer.overlappingRuns() > 0);
+        assertEquals(0, timer.skippedRuns());
+    }
+
+    @Test
+    @DisplayName("SKIP_IF_RUNNING should never overlap and count skipped periods")
+    void skipIfRunning_neverOverlaps() throws InterruptedException {
+        RepeatingTimer timer = this.start(this.slowTask(50), TimerPolicy.SKIP_IF_RUNNING);
+
+        Thread.sleep(200);
+        timer.cancel();
+
+        assertEquals(1, this.maxConcurrent.get());
+        assertTrue(timer.skippedRuns() > 0, "Periods should be skipped");
+        assertEquals(0, timer.overlappingRuns());
+    }
+
+    @Test
+    @DisplayName("FIXED_DELAY should wait a full period after each run")
+    void fixedDelay_waitsAfterRun() throws InterruptedException {
+        AtomicLong lastEnd = new AtomicLong(0L);
+        AtomicLong shortestGap = new AtomicLong(Long.MAX_VALUE);
+
+        RepeatingTimer timer = this.start(
+            () -> {
+                long end = lastEnd.get();
+                if (end != 0L) {
+                    shortestGap.accumulateAndGet(System.nanoTime() - end, Math::min);
+                }
+                this.slowTask(20).run();
+                lastEnd.set(System.nanoTime());
+            }, TimerPolicy.FIXED_DELAY);
+
+        Thread.sleep(250);
+        timer.cancel();
+
+        assertTrue(timer.completedRuns() >= 3, "Should run repeatedly, ran: " + timer.completedRuns());
+        assertEquals(1, this.maxConcurrent.get());
+        assertTrue(shortestGap.get() >= Duration.ofMillis(10).toNanos(), "Gap should be at least one period");
+    }
+
+    @Test
+    @DisplayName("catchUp should run missed periods back-to-back up to the limit")
+    void catchUp_runsMissedPeriodsUpToLimit() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger(0);
+        RepeatingTimer timer = this.start(
+            () -> {
+                // first run is slow, the rest are fast
+                if (runs.incrementAndGet() == 1) {
+                    this.slowTask(100).run();
+                }
+            }, TimerPolicy.catchUp(2));
+
+        Thread.sleep(105);
+        long skippedDuringSlowRun = timer.skippedRuns();
+        Thread.sleep(50);
+        timer.cancel();
+
+        assertEquals(1, this.maxConcurrent.get());
+        assertTrue(skippedDuringSlowRun > 0, "Periods past the limit should be skipped");
+        assertTrue(runs.get() >= 3, "Missed periods should be caught up");
+    }
+
+    @Test
+    @DisplayName("cancel should stop further runs")
+    void cancel_stopsRuns() throws InterruptedException {
+        RepeatingTimer timer = this.start(() -> {
+        }, TimerPolicy.FIXED_DELAY);
+
+        Thread.sleep(50);
+        timer.cancel();
+        Thread.sleep(20);
+        long afterCancel = timer.completedRuns();
+        Thread.sleep(50);
+
+        assertEquals(afterCancel, timer.completedRuns());
+        assertTrue(timer.isCancelled());
+        assertTrue(timer.isDone());
+        assertEquals(0, this.wheel.pending());
+    }
+
+    @Test
+    @DisplayName("catchUp should reject negative limit")
+    void catchUp_rejectsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> TimerPolicy.catchUp(-1));
+    }
+
+    private RepeatingTimer start(Runnable task, TimerPolicy policy) {
+        RepeatingTimer timer = new RepeatingTimer(this.wheel, this.executor, task, Duration.ofMillis(10), policy, true);
+        timer.start(Duration.ZERO);
+        return timer;
+    }
+
+    private Runnable slowTask(long millis) {
+        return () -> {
+            this.maxConcurrent.accumulateAndGet(this.concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(millis);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                this.concurrent.decrementAndGet();
+            }
+        };
+    }
+}
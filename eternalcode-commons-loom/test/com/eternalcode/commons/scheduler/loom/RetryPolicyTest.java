@@ -0,0 +1,64 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link RetryPolicy}.
+ */
+class RetryPolicyTest {
+
+    @Test
+    @DisplayName("backoff should stay between zero and the capped exponential")
+    void backoff_fullJitter_staysWithinCeiling() {
+        RetryPolicy policy = RetryPolicy.builder()
+            .initialBackoff(Duration.ofMillis(10))
+            .maxBackoff(Duration.ofMillis(50))
+            .multiplier(2.0)
+            .build();
+
+        long maxSeen = 0L;
+        for (int i = 0; i < 1000; i++) {
+            long first = policy.backoffNanos(1);
+            assertTrue(first >= 0 && first <= Duration.ofMillis(10).toNanos());
+
+            long late = policy.backoffNanos(20);
+            assertTrue(late >= 0 && late <= Duration.ofMillis(50).toNanos());
+            maxSeen = Math.max(maxSeen, late);
+        }
+        assertTrue(maxSeen > Duration.ofMillis(25).toNanos(), "Jitter should spread over the whole range");
+    }
+
+    @Test
+    @DisplayName("default predicate should retry exceptions but not errors")
+    void defaults_retryExceptionsOnly() {
+        RetryPolicy policy = RetryPolicy.builder().build();
+
+        assertEquals(3, policy.getMaxAttempts());
+        assertNull(policy.getDeadline());
+        assertTrue(policy.isRetryable(new IOException("connection reset")));
+        assertFalse(policy.isRetryable(new AssertionError("bug")));
+    }
+
+    @Test
+    @DisplayName("builder should reject invalid values")
+    void builder_invalidValues_throw() {
+        RetryPolicy.Builder builder = RetryPolicy.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.maxAttempts(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.initialBackoff(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxBackoff(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.multiplier(0.5));
+        assertThrows(IllegalArgumentException.class, () -> builder.multiplier(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> builder.retryOn(null));
+        assertThrows(IllegalArgumentException.class, () -> builder.deadline(Duration.ofMillis(-1)));
+    }
+}
@@ -0,0 +1,168 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for {@link SharedLoomRuntime}.
+ */
+@Timeout(10)
+class SharedLoomRuntimeTest {
+
+    @Test
+    @DisplayName("acquired executors should share one timer thread")
+    void acquire_sharesTimerThread() throws InterruptedException {
+        VirtualThreadExecutor first = SharedLoomRuntime.acquire();
+        VirtualThreadExecutor second = SharedLoomRuntime.acquire();
+        try {
+            assertEquals(2, SharedLoomRuntime.getReferenceCount());
+            // a timer stopped by an earlier test may still be winding down
+            while (timerThreads() > 1) {
+                Thread.sleep(1);
+            }
+            assertEquals(1, timerThreads());
+        }
+        finally {
+            first.shutdownNow();
+            second.shutdownNow();
+        }
+
+        assertEquals(0, SharedLoomRuntime.getReferenceCount());
+    }
+
+    @Test
+    @DisplayName("shutdown should cancel only that executor's delayed tasks")
+    void shutdown_isIsolatedPerExecutor() throws InterruptedException {
+        VirtualThreadExecutor disabled = SharedLoomRuntime.acquire();
+        VirtualThreadExecutor running = SharedLoomRuntime.acquire();
+        AtomicInteger disabledRuns = new AtomicInteger(0);
+        CountDownLatch runningFired = new CountDownLatch(1);
+
+        try {
+            LoomSchedulerImpl scheduler = new LoomSchedulerImpl(MainThreadDispatcher.synchronous(), disabled);
+            LoomTimer timer = scheduler.runAsyncTimer(disabledRuns::incrementAndGet, Duration.ofMillis(200), Duration.ofMillis(5), TimerPolicy.FIXED_DELAY);
+            disabled.submitDelayed(disabledRuns::incrementAndGet, Duration.ofMillis(200));
+            disabled.submitDelayed(disabledRuns::incrementAndGet, Duration.ofMinutes(10));
+            running.submitDelayed(runningFired::countDown, Duration.ofMillis(200));
+
+            disabled.shutdownNow();
+
+            assertTrue(runningFired.await(1, TimeUnit.SECONDS), "Other executor's task should still fire");
+            Thread.sleep(20);
+            assertEquals(0, disabledRuns.get());
+            assertEquals(0, disabled.pendingDelayed());
+            assertTrue(timer.isDone());
+            assertEquals(1, SharedLoomRuntime.getReferenceCount());
+        }
+        finally {
+            disabled.shutdownNow();
+            running.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("acquire after the last release should start a new timer")
+    void acquire_afterLastRelease_startsNewTimer() throws InterruptedException {
+        SharedLoomRuntime.acquire().shutdown(Duration.ofSeconds(1));
+        assertEquals(0, SharedLoomRuntime.getReferenceCount());
+
+        VirtualThreadExecutor executor = SharedLoomRuntime.acquire();
+        try {
+            CountDownLatch fired = new CountDownLatch(1);
+            executor.submitDelayed(fired::countDown, Duration.ofMillis(10));
+
+            assertTrue(fired.await(1, TimeUnit.SECONDS));
+            assertFalse(executor.isShutdown());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("timer ticked on a published timer thread should fire tasks and report their lag")
+    void acquire_onPublishedTimerThread_firesAndReportsLag() throws InterruptedException {
+        ScheduledExecutorService timerThread = SharedLoomRuntime.newTimerThread();
+        LoomMetricsRecorder metrics = new LoomMetricsRecorder();
+        VirtualThreadExecutor executor = SharedLoomRuntime.acquire(metrics, timerThread);
+        try {
+            CountDownLatch fired = new CountDownLatch(1);
+            executor.submitDelayed(fired::countDown, Duration.ofMillis(10));
+
+            assertTrue(fired.await(1, TimeUnit.SECONDS));
+            assertEquals(1, metrics.getTimerLag().getCount());
+            assertTrue(SharedLoomRuntime.isTimerThread(timerThread));
+            assertFalse(SharedLoomRuntime.isTimerThread(executor));
+            // another plugin's executor under the same service type
+            assertFalse(SharedLoomRuntime.isTimerThread(new ScheduledThreadPoolExecutor(1)));
+            // a JDK class, so it keeps no copy's class loader alive
+            assertEquals(ScheduledThreadPoolExecutor.class, timerThread.getClass());
+        }
+        finally {
+            executor.shutdownNow();
+            timerThread.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("shutdownNow should stop only that executor's compute tasks on the shared pool")
+    void shutdownNow_stopsOnlyOwnComputeTasks() throws InterruptedException {
+        VirtualThreadExecutor disabled = SharedLoomRuntime.acquire();
+        VirtualThreadExecutor running = SharedLoomRuntime.acquire();
+        AtomicBoolean otherInterrupted = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        CountDownLatch otherRan = new CountDownLatch(1);
+
+        try {
+            disabled.compute().execute(() -> {
+                started.countDown();
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.onSpinWait();
+                }
+                stopped.countDown();
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // may wait for the spinning worker, and then runs on it
+            running.compute().execute(() -> {
+                otherInterrupted.set(Thread.currentThread().isInterrupted());
+                otherRan.countDown();
+            });
+
+            disabled.shutdownNow();
+
+            assertTrue(stopped.await(5, TimeUnit.SECONDS));
+            assertTrue(disabled.compute().awaitTermination(TimeUnit.SECONDS.toNanos(5)));
+            assertThrows(RejectedExecutionException.class, () -> disabled.compute().execute(() -> {}));
+
+            assertTrue(otherRan.await(5, TimeUnit.SECONDS));
+            assertFalse(otherInterrupted.get());
+            assertFalse(running.compute().awaitTermination(0L));
+            assertEquals(1, SharedLoomRuntime.getReferenceCount());
+        }
+        finally {
+            disabled.shutdownNow();
+            running.shutdownNow();
+        }
+    }
+
+    private static long timerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.isAlive() && thread.getName().equals(SharedLoomRuntime.THREAD_NAME))
+            .count();
+    }
+}
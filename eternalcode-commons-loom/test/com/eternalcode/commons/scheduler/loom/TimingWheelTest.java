@@ -0,0 +1,247 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests for {@link TimingWheel}.
+ */
+@Timeout(10)
+class TimingWheelTest {
+
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        this.wheel = new TimingWheel("TimingWheelTest", Duration.ofMillis(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.wheel.stop();
+    }
+
+    @Test
+    @DisplayName("schedule should never fire before the deadline")
+    void schedule_neverFiresEarly() throws InterruptedException {
+        int count = 200;
+        CountDownLatch latch = new CountDownLatch(count);
+        AtomicInteger early = new AtomicInteger(0);
+
+        for (int i = 0; i < count; i++) {
+            long delayMillis = ThreadLocalRandom.current().nextLong(0, 300);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+
+            this.wheel.schedule(
+                () -> {
+                    if (System.nanoTime() < deadline) {
+                        early.incrementAndGet();
+                    }
+                    latch.countDown();
+                }, Duration.ofMillis(delayMillis));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "All timeouts should fire");
+        assertEquals(0, early.get(), "No timeout should fire early");
+    }
+
+    @Test
+    @DisplayName("timeouts spanning several wheel levels should cascade and fire")
+    void schedule_cascadesAcrossLevels() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        long start = System.nanoTime();
+
+        // 1ms ticks: 70ms and 4100ms land on level 1 and level 2
+        this.wheel.schedule(latch::countDown, Duration.ofMillis(5));
+        this.wheel.schedule(latch::countDown, Duration.ofMillis(70));
+        this.wheel.schedule(latch::countDown, Duration.ofMillis(4100));
+
+        assertTrue(latch.await(6, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 4100, "Longest timeout should respect its delay, took: " + elapsedMillis);
+    }
+
+    @Test
+    @DisplayName("cancel should drop the timeout from pending immediately")
+    void cancel_removesPendingImmediately() throws InterruptedException {
+        AtomicBoolean executed = new AtomicBoolean(false);
+
+        TimingWheel.Timeout timeout = this.wheel.schedule(() -> executed.set(true), Duration.ofMillis(100));
+        assertEquals(1, this.wheel.pending());
+
+        assertTrue(timeout.cancel());
+        assertEquals(0, this.wheel.pending());
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.cancel(), "Second cancel should be a no-op");
+
+        Thread.sleep(200);
+
+        assertFalse(executed.get(), "Cancelled timeout should not fire");
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    @DisplayName("expired timeout should not be cancellable")
+    void cancel_afterExpiry_returnsFalse() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        TimingWheel.Timeout timeout = this.wheel.schedule(latch::countDown, Duration.ofMillis(10));
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+        assertEquals(0, this.wheel.pending());
+    }
+
+    @Test
+    @DisplayName("scheduleAtFixedRate should repeat until cancelled")
+    void scheduleAtFixedRate_repeatsUntilCancelled() throws InterruptedException {
+        AtomicInteger count = new AtomicInteger(0);
+
+        TimingWheel.Timeout timeout = this.wheel.scheduleAtFixedRate(
+            count::incrementAndGet,
+            Duration.ofMillis(20),
+            Duration.ofMillis(20));
+
+        Thread.sleep(250);
+        timeout.cancel();
+        int afterCancel = count.get();
+
+        Thread.sleep(100);
+
+        assertTrue(afterCancel >= 8, "Should have run at least 8 times, got: " + afterCancel);
+        assertTrue(count.get() <= afterCancel + 1, "At most one in-flight run after cancel");
+        assertEquals(0, this.wheel.pending());
+    }
+
+    @Test
+    @DisplayName("scheduleAtFixedRate should reject non-positive period")
+    void scheduleAtFixedRate_rejectsZeroPeriod() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.wheel.scheduleAtFixedRate(() -> {
+            }, Duration.ZERO, Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("failing task should not stop the wheel")
+    void failingTask_doesNotStopWheel() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        this.wheel.schedule(
+            () -> {
+                throw new RuntimeException("Test exception");
+            }, Duration.ofMillis(5));
+        this.wheel.schedule(latch::countDown, Duration.ofMillis(20));
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("schedule after stop should return cancelled timeout")
+    void schedule_afterStop_returnsCancelled() {
+        this.wheel.stop();
+
+        TimingWheel.Timeout timeout = this.wheel.schedule(() -> {
+        }, Duration.ofMillis(10));
+
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, this.wheel.pending());
+    }
+
+    @Test
+    @DisplayName("close should cancel only the owner's timeouts")
+    void close_cancelsOnlyOwnedTimeouts() throws InterruptedException {
+        TimingWheel.Owner closing = new TimingWheel.Owner();
+        TimingWheel.Owner staying = new TimingWheel.Owner();
+        AtomicBoolean closedFired = new AtomicBoolean(false);
+        CountDownLatch stayingFired = new CountDownLatch(2);
+
+        this.wheel.schedule(() -> closedFired.set(true), Duration.ofMillis(50), closing);
+        this.wheel.schedule(() -> closedFired.set(true), Duration.ofMinutes(10), closing);
+        this.wheel.scheduleAtFixedRate(() -> closedFired.set(true), Duration.ofMillis(50), Duration.ofMillis(5), closing);
+        this.wheel.schedule(stayingFired::countDown, Duration.ofMillis(50), staying);
+        this.wheel.schedule(stayingFired::countDown, Duration.ofMillis(60), null);
+
+        this.wheel.close(closing);
+        TimingWheel.Timeout late = this.wheel.schedule(() -> closedFired.set(true), Duration.ZERO, closing);
+
+        assertTrue(stayingFired.await(1, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        assertFalse(closedFired.get());
+        assertTrue(late.isCancelled());
+        assertEquals(0, closing.pending());
+        assertEquals(0, staying.pending());
+        assertEquals(0, this.wheel.pending());
+    }
+
+    @Test
+    @DisplayName("stop and close should run the dropped callback of waiting timeouts instead of the task")
+    void stopAndClose_runDroppedCallbacks() throws InterruptedException {
+        TimingWheel.Owner closing = new TimingWheel.Owner();
+        AtomicBoolean fired = new AtomicBoolean(false);
+        CountDownLatch dropped = new CountDownLatch(4);
+
+        this.wheel.schedule(() -> fired.set(true), Duration.ofMinutes(10), closing, dropped::countDown);
+        this.wheel.schedule(() -> fired.set(true), Duration.ofMinutes(10), null, dropped::countDown);
+        this.wheel.close(closing);
+        // rejected right away, owner already closed
+        this.wheel.schedule(() -> fired.set(true), Duration.ZERO, closing, dropped::countDown);
+
+        this.wheel.stop();
+        this.wheel.schedule(() -> fired.set(true), Duration.ZERO, null, dropped::countDown);
+
+        assertTrue(dropped.await(1, TimeUnit.SECONDS));
+        assertFalse(fired.get());
+        assertEquals(0, this.wheel.pending());
+    }
+
+    @Test
+    @DisplayName("wheel driven on a scheduled executor should fire after idling, cancel and drop on stop")
+    void driven_firesCancelsAndDrops() throws InterruptedException {
+        ScheduledExecutorService driver = Executors.newSingleThreadScheduledExecutor();
+        TimingWheel driven = new TimingWheel(driver, Duration.ofMillis(1));
+        try {
+            CountDownLatch first = new CountDownLatch(1);
+            driven.schedule(first::countDown, Duration.ofMillis(10));
+            assertTrue(first.await(1, TimeUnit.SECONDS));
+
+            // the wheel went idle, a new timeout has to wake it
+            Thread.sleep(20);
+            AtomicBoolean cancelledFired = new AtomicBoolean(false);
+            CountDownLatch second = new CountDownLatch(1);
+            CountDownLatch dropped = new CountDownLatch(1);
+            TimingWheel.Timeout cancelled = driven.schedule(() -> cancelledFired.set(true), Duration.ofMillis(10));
+            driven.schedule(second::countDown, Duration.ofMillis(10));
+            driven.schedule(() -> cancelledFired.set(true), Duration.ofMinutes(10), null, dropped::countDown);
+
+            assertTrue(cancelled.cancel());
+            assertTrue(second.await(1, TimeUnit.SECONDS));
+
+            driven.stop();
+            assertTrue(dropped.await(1, TimeUnit.SECONDS));
+            assertFalse(cancelledFired.get());
+            assertEquals(0, driven.pending());
+        }
+        finally {
+            driven.stop();
+            driver.shutdownNow();
+        }
+    }
+}
@@ -2,11 +2,17 @@ package com.eternalcode.commons.scheduler.loom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -190,6 +196,41 @@ class VirtualThreadExecutorTest {
         assertTrue(elapsed >= 200 && elapsed < 500, "Should complete after ~200ms, took: " + elapsed);
     }
 
+    @Test
+    @DisplayName("cancelled delay should be removed from pending timers")
+    void delay_cancel_removesPendingTimer() {
+        var future = this.executor.delay(Duration.ofSeconds(30));
+        var task = this.executor.submitDelayed(() -> {
+        }, Duration.ofSeconds(30));
+
+        assertEquals(2, this.executor.pendingDelayed());
+
+        future.cancel(false);
+        task.cancel();
+
+        assertEquals(0, this.executor.pendingDelayed());
+        assertTrue(task.isDone());
+    }
+
+    @Test
+    @DisplayName("custom tick resolution should still respect delays")
+    void tickResolution_respectsDelay() throws InterruptedException {
+        VirtualThreadExecutor coarse = new VirtualThreadExecutor(Duration.ofMillis(50));
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            long start = System.currentTimeMillis();
+
+            coarse.submitDelayed(latch::countDown, Duration.ofMillis(120));
+
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+            long elapsed = System.currentTimeMillis() - start;
+            assertTrue(elapsed >= 120, "Should not fire before delay, took: " + elapsed);
+        }
+        finally {
+            coarse.shutdownNow();
+        }
+    }
+
     @Test
     @DisplayName("shutdown should complete pending tasks")
     void shutdown_completesPendingTasks() throws InterruptedException {
@@ -233,6 +274,167 @@ class VirtualThreadExecutorTest {
         assertTrue(this.executor.isShutdown());
     }
 
+    @Test
+    @DisplayName("submit after shutdown should return a failed future without running the task")
+    void submit_afterShutdown_returnsFailedFuture() {
+        AtomicBoolean ran = new AtomicBoolean(false);
+        this.executor.shutdownNow();
+
+        Future<?> future = this.executor.submit(() -> ran.set(true));
+
+        assertEquals(Future.State.FAILED, future.state());
+        assertInstanceOf(IllegalStateException.class, future.exceptionNow());
+        assertFalse(ran.get());
+    }
+
+    @Test
+    @DisplayName("phased shutdown should report a clean drain")
+    void phasedShutdown_cleanDrain_reportsNoStuckTasks() {
+        AtomicInteger completed = new AtomicInteger(0);
+        for (int i = 0; i < 3; i++) {
+            this.executor.submit(() -> {
+                sleep(50);
+                completed.incrementAndGet();
+            });
+        }
+
+        ShutdownReport report = this.executor.shutdown(ShutdownPlan.DEFAULT);
+
+        assertTrue(report.terminated());
+        assertTrue(report.isClean());
+        assertEquals(3, completed.get());
+    }
+
+    @Test
+    @DisplayName("phased shutdown should cancel timers, report stuck tasks and interrupt them")
+    void phasedShutdown_reportsAndInterruptsStuckTasks() {
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        AtomicBoolean delayedRan = new AtomicBoolean(false);
+        this.executor.setTrackSubmitSites(true);
+
+        this.executor.submit(() -> {
+            try {
+                Thread.sleep(10_000);
+            }
+            catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        this.executor.submitDelayed(() -> delayedRan.set(true), Duration.ofMillis(50));
+
+        ShutdownReport report = this.executor.shutdown(ShutdownPlan.builder()
+            .drainTimeout(Duration.ofMillis(200))
+            .interruptTimeout(Duration.ofSeconds(1))
+            .build());
+
+        assertTrue(report.terminated());
+        assertEquals(1, report.stuckTasks().size());
+        ShutdownReport.StuckTask task = report.stuckTasks().get(0);
+        assertTrue(task.exited());
+        assertTrue(task.submitSite().contains("VirtualThreadExecutorTest.phasedShutdown_reportsAndInterruptsStuckTasks"), task.submitSite());
+        assertTrue(task.stackTrace().stream().anyMatch(element -> element.getMethodName().contains("sleep")));
+        assertTrue(task.running().compareTo(Duration.ofMillis(200)) >= 0);
+        assertTrue(report.format().contains(task.submitSite()));
+        assertTrue(interrupted.get());
+        assertFalse(delayedRan.get());
+    }
+
+    @Test
+    @DisplayName("phased shutdown should report tasks that ignore the interrupt")
+    void phasedShutdown_taskIgnoresInterrupt_notTerminated() {
+        AtomicBoolean release = new AtomicBoolean(false);
+        this.executor.setTrackRunningTasks(true);
+        this.executor.submit(() -> {
+            while (!release.get()) {
+                sleep(10);
+            }
+        });
+
+        try {
+            ShutdownReport report = this.executor.shutdown(ShutdownPlan.builder()
+                .drainTimeout(Duration.ofMillis(50))
+                .interruptTimeout(Duration.ofMillis(50))
+                .build());
+
+            assertFalse(report.terminated());
+            assertFalse(report.isClean());
+            assertEquals(1, report.stuckTasks().size());
+            assertFalse(report.stuckTasks().get(0).exited());
+            assertEquals(null, report.stuckTasks().get(0).submitSite());
+        }
+        finally {
+            release.set(true);
+        }
+    }
+
+    @Test
+    @DisplayName("phased shutdown without tracking should still report an unclean drain")
+    void phasedShutdown_untracked_notCleanWithoutList() {
+        CountDownLatch release = new CountDownLatch(1);
+        this.executor.submit(() -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        ShutdownReport report = this.executor.shutdown(ShutdownPlan.builder()
+            .drainTimeout(Duration.ofMillis(50))
+            .interruptTimeout(Duration.ofSeconds(1))
+            .build());
+
+        assertTrue(report.terminated());
+        assertFalse(report.isClean());
+        assertTrue(report.stuckTasks().isEmpty());
+        assertTrue(report.format().contains(VirtualThreadExecutor.TRACK_RUNNING_TASKS_PROPERTY));
+    }
+
+    @Test
+    @DisplayName("shutdown plan should reject negative budgets")
+    void shutdownPlan_negativeBudget_throws() {
+        ShutdownPlan.Builder builder = ShutdownPlan.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.drainTimeout(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.interruptTimeout(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    @DisplayName("delay should fail instead of hanging when the executor shuts down")
+    void delay_acrossShutdown_fails() {
+        CompletableFuture<Void> pending = this.executor.delay(Duration.ofMinutes(10));
+
+        this.executor.shutdown(Duration.ofSeconds(1));
+        CompletableFuture<Void> late = this.executor.delay(Duration.ofMillis(10));
+
+        ExecutionException pendingError = assertThrows(ExecutionException.class, () -> pending.get(5, TimeUnit.SECONDS));
+        assertTrue(pendingError.getCause() instanceof RejectedExecutionException);
+        ExecutionException lateError = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+        assertTrue(lateError.getCause() instanceof RejectedExecutionException);
+    }
+
+    @Test
+    @DisplayName("delay on a shared timer should fail when only its own executor shuts down")
+    void delay_sharedTimer_failsOnOwnShutdown() throws Exception {
+        VirtualThreadExecutor first = SharedLoomRuntime.acquire();
+        VirtualThreadExecutor second = SharedLoomRuntime.acquire();
+        try {
+            CompletableFuture<Void> closed = first.delay(Duration.ofMinutes(10));
+            CompletableFuture<Void> open = second.delay(Duration.ofMillis(20));
+
+            first.shutdown(Duration.ofSeconds(1));
+
+            ExecutionException error = assertThrows(ExecutionException.class, () -> closed.get(5, TimeUnit.SECONDS));
+            assertTrue(error.getCause() instanceof RejectedExecutionException);
+            open.get(5, TimeUnit.SECONDS);
+        }
+        finally {
+            first.shutdownNow();
+            second.shutdownNow();
+        }
+    }
+
     @Test
     @DisplayName("submit after shutdown should not execute")
     void submit_afterShutdown_doesNotExecute() throws InterruptedException {
@@ -260,4 +462,13 @@ class VirtualThreadExecutorTest {
 
         assertTrue(latch.await(5, TimeUnit.SECONDS), "Second task should still execute");
     }
+
+    // swallows the interrupt, like code that catches and ignores it
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException ignored) {
+        }
+    }
 }
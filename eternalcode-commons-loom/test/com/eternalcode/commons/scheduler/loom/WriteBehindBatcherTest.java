@@ -0,0 +1,265 @@
+package com.eternalcode.commons.scheduler.loom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(10)
+class WriteBehindBatcherTest {
+
+    private QueuedDispatcher dispatcher;
+    private LoomMetricsRecorder metrics;
+    private LoomSchedulerImpl scheduler;
+    private List<List<Integer>> flushes;
+
+    @BeforeEach
+    void setUp() {
+        this.dispatcher = new QueuedDispatcher();
+        this.metrics = new LoomMetricsRecorder();
+        this.scheduler = new LoomSchedulerImpl(this.dispatcher, new VirtualThreadExecutor(), this.metrics);
+        this.flushes = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.scheduler.shutdownNow();
+    }
+
+    private List<Integer> flushed() {
+        List<Integer> all = new ArrayList<>();
+        this.flushes.forEach(all::addAll);
+        return all;
+    }
+
+    @Test
+    @DisplayName("a full batch should be flushed without waiting for the max latency")
+    void offer_batchSizeReached_flushesEarly() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        WriteBehindBatcher<Integer> batcher = this.scheduler.newWriteBehindBatcher("stats",
+            WriteBehindPolicy.builder().batchSize(3).maxLatency(Duration.ofMinutes(1)).build(),
+            batch -> {
+                this.flushes.add(batch);
+                flushed.countDown();
+            });
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(batcher.offer(i));
+        }
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of(0, 1, 2)), this.flushes);
+        assertEquals(0, batcher.getQueuedCount());
+    }
+
+    @Test
+    @DisplayName("a partial batch should be flushed once the max latency passed")
+    void offer_belowBatchSize_flushesAfterMaxLatency() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        WriteBehindBatcher<Integer> batcher = this.scheduler.newWriteBehindBatcher("logs",
+            WriteBehindPolicy.builder().batchSize(100).maxLatency(Duration.ofMillis(100)).build(),
+            batch -> {
+                this.flushes.add(batch);
+                flushed.countDown();
+            });
+
+        batcher.offer(1);
+        batcher.offer(2);
+        assertEquals(2, batcher.getQueuedCount());
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2), this.flushed());
+    }
+
+    @Test
+    @DisplayName("items from many producers should all be flushed in batches no larger than the batch size")
+    void offer_manyProducers_flushesEverything() throws InterruptedException {
+        WriteBehindBatcher<Integer> batcher = this.scheduler.newWriteBehindBatcher("transactions",
+            WriteBehindPolicy.builder().batchSize(50).maxLatency(Duration.ofMillis(20)).build(),
+            this.flushes::add);
+
+        List<Thread> producers = new ArrayList<>();
+        for (int producer = 0; producer < 4; producer++) {
+            int base = producer * 1000;
+            producers.add(Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    try {
+                        batcher.put(base + i);
+                    }
+                    catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        // metrics are recorded after the sink returned
+        while (this.metrics.getBatchedItemCount() < 4000) {
+            Thread.sleep(10);
+        }
+        assertEquals(4000, this.flushed().size());
+        assertEquals(4000, this.flushed().stream().distinct().count());
+        assertTrue(this.flushes.stream().allMatch(batch -> batch.size() <= 50));
+        assertEquals(this.flushes.size(), this.metrics.getBatchFlush().getCount());
+    }
+
+    @Test
+    @DisplayName("offer should fail once the queue is full and the sink is behind")
+    void offer_sinkBehind_appliesBackpressure() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindBatcher<Integer> batcher = this.scheduler.newWriteBehindBatcher("slow",
+            WriteBehindPolicy.builder().batchSize(2).capacity(4).maxLatency(Duration.ofMinutes(1)).build(),
+            batch -> {
+                try {
+                    release.await();
+                }
+                catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                this.flushes.add(batch);
+            });
+
+        int accepted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (batcher.offer(i)) {
+                accepted++;
+            }
+            Thread.sleep(5);
+        }
+
+        assertTrue(accepted < 20, "accepted " + accepted);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("put should refuse to block the main thread")
+    void put_onMainThread_throws() throws InterruptedException {
+        this.dispatcher.setMainThread(Thread.currentThread());
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindBatcher<Integer> batcher = this.scheduler.newWriteBehindBatcher("main",
+            WriteBehindPolicy.builder().batchSize(1).capacity(1).build(),
+            batch -> {
+                try {
+                    release.await();
+                }
+                catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+        try {
+            assertThrows(IllegalStateException.class, () -> {
+                for (int i = 0; i < 10; i++) {
+                    batcher.put(i);
+                    Thread.sleep(5);
+                }
+            });
+        }
+        finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("shutdown should write what is left and reject later items")
+    void shutdown_flushesRemainingItems() {
+        WriteBehindBatcher<Integer> batcher = this.scheduler.newWriteBehindBatcher("final",
+            WriteBehindPolicy.builder().batchSize(100).maxLatency(Duration.ofMinutes(1)).build(),
+            this.flushes::add);
+
+        batcher.offer(1);
+        batcher.offer(2);
+        assertTrue(this.scheduler.shutdown(Duration.ofSeconds(1)));
+
+        assertEquals(List.of(1, 2), this.flushed());
+        assertTrue(batcher.isClosed());
+        assertFalse(batcher.offer(3));
+    }
+
+    @Test
+    @DisplayName("a final flush stuck behind the sink should be bounded by the drain budget and reported")
+    void phasedShutdown_sinkStuck_finalFlushReported() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindBatcher<Integer> batcher = this.scheduler.newWriteBehindBatcher("stuck",
+            WriteBehindPolicy.builder().batchSize(1).maxLatency(Duration.ofMinutes(1)).build(),
+            batch -> {
+                entered.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                this.flushes.add(batch);
+            });
+
+        try {
+            batcher.offer(0);
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            batcher.offer(1);
+
+            long start = System.nanoTime();
+            ShutdownReport report = this.scheduler.shutdown(ShutdownPlan.builder()
+                .drainTimeout(Duration.ofMillis(100))
+                .interruptTimeout(Duration.ofSeconds(1))
+                .build());
+
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3));
+            assertFalse(report.isClean());
+            assertTrue(report.terminated());
+            assertTrue(report.stuckTasks().stream()
+                .anyMatch(task -> "final flush of batcher stuck".equals(task.submitSite())), report.format());
+            assertTrue(batcher.isClosed());
+        }
+        finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("a failing sink should not stop later flushes")
+    void sinkFailure_countedAndLaterBatchesFlushed() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        WriteBehindBatcher<Integer> batcher = this.scheduler.newWriteBehindBatcher("failing",
+            WriteBehindPolicy.builder().batchSize(1).build(),
+            batch -> {
+                if (batch.get(0) == 0) {
+                    throw new IllegalStateException("Test exception");
+                }
+                this.flushes.add(batch);
+                flushed.countDown();
+            });
+
+        batcher.offer(0);
+        Thread.sleep(50);
+        batcher.offer(1);
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1), this.flushed());
+        assertEquals(1, this.metrics.getBatchFailureCount());
+    }
+
+    @Test
+    @DisplayName("policy builder should reject invalid sizes")
+    void policy_invalid_throws() {
+        assertThrows(IllegalArgumentException.class, () -> WriteBehindPolicy.builder().batchSize(0));
+        assertThrows(IllegalArgumentException.class, () -> WriteBehindPolicy.builder().capacity(0));
+        assertThrows(IllegalArgumentException.class, () -> WriteBehindPolicy.builder().batchSize(10).capacity(5).build());
+    }
+}